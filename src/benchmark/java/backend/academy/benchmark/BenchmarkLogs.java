@@ -0,0 +1,49 @@
+package backend.academy.benchmark;
+
+import backend.academy.generator.GeneratorSettings;
+import backend.academy.generator.LogGenerator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The class creates the synthetic NGINX logs for the benchmarks (see {@link LogGenerator}).
+ * The lines are defined by the seed, so every run of the benchmarks processes the same data
+ */
+final class BenchmarkLogs {
+    private BenchmarkLogs() {
+    }
+
+    /**
+     * Creates the lines of the log
+     *
+     * @param count number of the lines
+     * @param seed  seed of the random values
+     * @return lines of the log
+     */
+    static String[] lines(int count, long seed) {
+        return new LogGenerator(settings(count, seed)).lines().toArray(String[]::new);
+    }
+
+    /**
+     * Writes the lines of the log into the temporary file
+     *
+     * @param count number of the lines
+     * @param seed  seed of the random values
+     * @return path to the file (it should be removed by the benchmark)
+     */
+    static Path file(long count, long seed) {
+        try {
+            Path file = Files.createTempFile("benchmark", ".log");
+            new LogGenerator(settings(count, seed)).write(file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static GeneratorSettings settings(long count, long seed) {
+        return new GeneratorSettings().lines(count).seed(seed);
+    }
+}
@@ -0,0 +1,65 @@
+package backend.academy.benchmark;
+
+import backend.academy.format.FormatHandler;
+import backend.academy.format.Formatter;
+import backend.academy.format.impl.AsciiDocFormatter;
+import backend.academy.format.impl.MarkdownFormatter;
+import backend.academy.log.LogReport;
+import backend.academy.parser.impl.LogParser;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Formatting of the report with all the sections into the string
+ * and writing it straight into the output
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatHandlerBenchmark {
+    @Param({"markdown", "adoc"})
+    private String format;
+
+    private FormatHandler formatHandler;
+    private LogReport logReport;
+
+    @Setup
+    public void setUp() {
+        Formatter formatter = "markdown".equals(format) ? new MarkdownFormatter() : new AsciiDocFormatter();
+        formatHandler = new FormatHandler(formatter);
+        logReport = new LogParser().parse(
+            List.of(Map.entry("benchmark.log", Arrays.stream(BenchmarkLogs.lines(LINES, SEED)))),
+            null, null, null, null);
+    }
+
+    @Benchmark
+    public String formatReport() {
+        return formatHandler.formatReport(logReport);
+    }
+
+    @Benchmark
+    public void writeReport() throws IOException {
+        formatHandler.writeReport(logReport, Writer.nullWriter());
+    }
+
+    private static final int LINES = 100_000;
+    private static final long SEED = 42;
+}
@@ -0,0 +1,87 @@
+package backend.academy.benchmark;
+
+import backend.academy.cliparams.CliParams;
+import backend.academy.filter.impl.LogFilter;
+import backend.academy.log.LogRecord;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filtering of one record (or one raw line) by the date range and the field:
+ * {@code filter} compiles the parameters on every call as {@link LogFilter#filter} does,
+ * the other benchmarks use the predicates compiled once as the parser does
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogFilterBenchmark {
+    @Param({"METHOD", "AGENT", "REFERER", "REMOTE_ADDRESS", "REMOTE_USER", "HTTP_VERSION"})
+    private String field;
+
+    private final LogFilter logFilter = new LogFilter();
+    private String value;
+    private String[] lines;
+    private LogRecord[] logRecords;
+    private Predicate<LogRecord> recordFilter;
+    private Predicate<String> lineFilter;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        value = new CliParams.GlobToRegexConverter().convert(VALUES.get(field));
+        lines = BenchmarkLogs.lines(LINES, SEED);
+        logRecords = Arrays.stream(lines).map(LogRecord::newLogRecord).toArray(LogRecord[]::new);
+        recordFilter = logFilter.compile(FROM, TO, field, value);
+        lineFilter = logFilter.compileLine(FROM, TO, field, value);
+    }
+
+    @Benchmark
+    public boolean filter() {
+        return logFilter.filter(nextRecord(), FROM, TO, field, value);
+    }
+
+    @Benchmark
+    public boolean compiledRecordFilter() {
+        return recordFilter.test(nextRecord());
+    }
+
+    @Benchmark
+    public boolean compiledLineFilter() {
+        next = next + 1 == lines.length ? 0 : next + 1;
+        return lineFilter.test(lines[next]);
+    }
+
+    private LogRecord nextRecord() {
+        next = next + 1 == logRecords.length ? 0 : next + 1;
+        return logRecords[next];
+    }
+
+    private static final Map<String, String> VALUES = Map.of(
+        "METHOD", "GET",
+        "AGENT", "*Wget*",
+        "REFERER", "-",
+        "REMOTE_ADDRESS", "93.180.*",
+        "REMOTE_USER", "-",
+        "HTTP_VERSION", "HTTP/1.1");
+    private static final LocalDate FROM = LocalDate.of(2015, 5, 17);
+    private static final LocalDate TO = LocalDate.of(2015, 5, 17);
+    private static final int LINES = 10_000;
+    private static final long SEED = 42;
+}
@@ -0,0 +1,66 @@
+package backend.academy.benchmark;
+
+import backend.academy.log.LogReport;
+import backend.academy.parser.impl.LogParser;
+import backend.academy.path.impl.LocalPathHandler;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Collecting the statistics of the local log file from reading to the report
+ * (the file is written once per trial and read from the page cache)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class LogParserBenchmark {
+    @Param({"1000000", "10000000"})
+    private long lines;
+
+    @Param({"1", "4"})
+    private int threads;
+
+    @Param({"0", "1000"})
+    private int topCapacity;
+
+    private Path file;
+    private LogParser logParser;
+
+    @Setup
+    public void setUp() {
+        file = BenchmarkLogs.file(lines, SEED);
+        logParser = new LogParser(threads, topCapacity);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public LogReport parse() throws IOException {
+        return logParser.parse(List.of(Map.entry(file.getFileName().toString(), LocalPathHandler.open(file))),
+            null, null, null, null);
+    }
+
+    private static final long SEED = 42;
+}
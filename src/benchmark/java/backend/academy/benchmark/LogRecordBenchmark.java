@@ -0,0 +1,42 @@
+package backend.academy.benchmark;
+
+import backend.academy.log.LogRecord;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing of one line into the record
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogRecordBenchmark {
+    private String[] lines;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        lines = BenchmarkLogs.lines(LINES, SEED);
+    }
+
+    @Benchmark
+    public LogRecord newLogRecord() {
+        next = next + 1 == lines.length ? 0 : next + 1;
+        return LogRecord.newLogRecord(lines[next]);
+    }
+
+    private static final int LINES = 10_000;
+    private static final long SEED = 42;
+}
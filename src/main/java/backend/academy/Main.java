@@ -2,12 +2,21 @@ package backend.academy;
 
 import backend.academy.application.Application;
 import backend.academy.application.impl.AnalyzerApplication;
+import backend.academy.application.impl.GeneratorApplication;
+import java.util.Arrays;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
 public class Main {
     public static void main(String[] args) throws Exception {
+        if (args.length > 0 && GENERATE_COMMAND.equals(args[0])) {
+            Application generatorApplication = new GeneratorApplication();
+            generatorApplication.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         Application analyzerApplication = new AnalyzerApplication();
         analyzerApplication.run(args);
     }
+
+    private static final String GENERATE_COMMAND = "generate";
 }
@@ -7,16 +7,26 @@ import backend.academy.format.impl.AsciiDocFormatter;
 import backend.academy.format.impl.MarkdownFormatter;
 import backend.academy.log.LogReport;
 import backend.academy.parser.Parser;
+import backend.academy.parser.impl.FilterStatistics;
+import backend.academy.parser.impl.LineCounters;
 import backend.academy.parser.impl.LogParser;
+import backend.academy.parser.impl.LogTail;
+import backend.academy.parser.impl.ReportSnapshots;
 import backend.academy.path.PathHandler;
 import backend.academy.path.impl.LocalPathHandler;
 import backend.academy.path.impl.URLPathHandler;
+import backend.academy.stats.PipelineStatistics;
+import backend.academy.stats.Stage;
 import backend.academy.tools.IOHandler;
+import backend.academy.tools.impl.FileRewriteHandler;
 import backend.academy.tools.impl.IOHandlerImpl;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.ParameterException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -60,11 +70,17 @@ public class AnalyzerApplication implements Application {
             Optional<String> outputFormat = Optional.ofNullable(cliParams.outputType());
             Optional<String> filterField = Optional.ofNullable(cliParams.fieldName());
             Optional<String> filterValue = Optional.ofNullable(cliParams.fieldValue());
+            Optional<String> snapshotDirectory = Optional.ofNullable(cliParams.snapshotDirectory());
+            Optional<String> indexDirectory = Optional.ofNullable(cliParams.indexDirectory());
+
+            LogParser parser = new LogParser(cliParams.threads(), cliParams.topCapacity(), cliParams.quantiles());
+            logParser = parser;
 
             if (URLPathHandler.URL_PATH_PATTERN.matcher(filePath).matches()) {
-                pathHandler = new URLPathHandler();
+                pathHandler = new URLPathHandler(cliParams.threads());
             } else {
-                pathHandler = new LocalPathHandler();
+                pathHandler = new LocalPathHandler(fromDate.orElse(null), toDate.orElse(null),
+                    indexDirectory.map(Path::of).orElse(null));
             }
 
             String defaultFileName;
@@ -77,26 +93,64 @@ public class AnalyzerApplication implements Application {
             }
 
             if (outputFormat.isPresent() && outputFormat.orElseThrow().equals(String.valueOf("file"))) {
-                ioHandler = new IOHandlerImpl(System.in,
-                    Files.newOutputStream(Path.of(IOHandlerImpl.PATH_TO_OUTPUT_FILE + defaultFileName)));
+                Path outputFile = Path.of(IOHandlerImpl.PATH_TO_OUTPUT_FILE + defaultFileName);
+                ioHandler = cliParams.follow() ? new FileRewriteHandler(System.in, outputFile)
+                    : new IOHandlerImpl(System.in, Files.newOutputStream(outputFile));
             }
 
-            List<Map.Entry<String, Stream<String>>> logsFromPath = pathHandler.handlePath(filePath);
-
-            if (logsFromPath.isEmpty()) {
-                ioHandler.write("Лог-файлы не найдены");
+            if (cliParams.follow()) {
+                follow(cliParams);
                 return;
             }
 
-            LogReport logReport =
-                logParser.parse(logsFromPath, fromDate.orElse(null), toDate.orElse(null),
-                    filterField.orElse(null), filterValue.orElse(null));
-
-            if (logReport == null) {
-                ioHandler.write("Не найдены удовлетворяющие фильтрам записи");
+            PipelineStatistics statistics = new PipelineStatistics();
+            LogReport logReport;
+            if (snapshotDirectory.isPresent() && pathHandler instanceof LocalPathHandler localPathHandler) {
+                List<Path> logFiles = statistics.measure(Stage.FILES, () -> localPathHandler.findFiles(filePath));
+
+                if (logFiles.isEmpty()) {
+                    ioHandler.write("Лог-файлы не найдены");
+                    return;
+                }
+
+                ReportSnapshots snapshots = new ReportSnapshots(Path.of(snapshotDirectory.orElseThrow()));
+                logReport = statistics.measure(Stage.PARSE, () -> parser.parseWithSnapshots(logFiles, snapshots,
+                    fromDate.orElse(null), toDate.orElse(null), filterField.orElse(null), filterValue.orElse(null)));
+                Logger.log.info("Files read from snapshots: {}, files parsed from checkpoints: {}, files parsed: {}, "
+                    + "snapshots of removed files deleted: {}",
+                    snapshots.loaded(), snapshots.resumed(), snapshots.parsed(), snapshots.pruned());
+                statistics.bytesRead(snapshots.bytesRead());
             } else {
-                ioHandler.write(formatter.formatReport(logReport));
+                List<Map.Entry<String, Stream<String>>> logsFromPath =
+                    statistics.measure(Stage.FILES, () -> pathHandler.handlePath(filePath));
+
+                if (logsFromPath.isEmpty()) {
+                    ioHandler.write("Лог-файлы не найдены");
+                    return;
+                }
+
+                logReport = statistics.measure(Stage.PARSE, () -> parser.parse(logsFromPath, fromDate.orElse(null),
+                    toDate.orElse(null), filterField.orElse(null), filterValue.orElse(null)));
+                statistics.bytesRead(pathHandler.bytesRead());
             }
+
+            FilterStatistics filterStatistics = parser.filterStatistics();
+            Logger.log.info("Lines read: {}, skipped before parsing: {}, skipped after parsing: {}",
+                filterStatistics.linesRead(), filterStatistics.skippedByLineFilter(),
+                filterStatistics.skippedByRecordFilter());
+            LineCounters lineCounters = parser.lineCounters();
+            statistics.lineCounters(lineCounters);
+            statistics.stepStatistics(parser.stepStatistics());
+            if (lineCounters.parseFailures() > 0) {
+                Logger.log.warn("Lines not matching the NGINX format skipped: {}", lineCounters.parseFailures());
+            }
+
+            if (logReport != null && cliParams.topCapacity() > 0) {
+                Logger.log.info("Approximate top of capacity {}: counts are overestimated by at most {}",
+                    cliParams.topCapacity(), logReport.requestsNumber() / cliParams.topCapacity());
+            }
+
+            writeReport(logReport, statistics, cliParams);
         } catch (IllegalArgumentException e) {
             ioHandler.write("Ошибка: " + e.getMessage() + '\n');
             Logger.log.error("Error: {}", e, e.getCause());
@@ -106,6 +160,65 @@ public class AnalyzerApplication implements Application {
         }
     }
 
+    /**
+     * Writes the report and, if it is requested, the statistics of the run
+     * (as the text via the IO handler and as the JSON file)
+     *
+     * @param logReport  the report or null if there are no suitable records
+     * @param statistics the measured stages of the run
+     * @param cliParams  command line parameters
+     * @throws IOException if an error occurs while writing the statistics file
+     */
+    private void writeReport(LogReport logReport, PipelineStatistics statistics, CliParams cliParams)
+        throws IOException {
+        if (logReport == null) {
+            ioHandler.write("Не найдены удовлетворяющие фильтрам записи");
+        } else {
+            statistics.measure(Stage.OUTPUT, () -> {
+                ioHandler.write(output -> formatter.writeReport(logReport, output));
+                return null;
+            });
+        }
+
+        if (cliParams.stats()) {
+            ioHandler.write(statistics.format());
+        }
+        if (cliParams.statsFile() != null) {
+            new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValue(Path.of(cliParams.statsFile()).toFile(), statistics.summary());
+        }
+    }
+
+    /**
+     * Runs the follow mode: the local log files are watched and the report is refreshed
+     * until the application is interrupted. If the capacity of the top is not set,
+     * the approximate top is used, so the memory does not grow with the number of the lines
+     *
+     * @param cliParams command line parameters
+     * @throws IOException if an error occurs while reading the files or writing the report
+     */
+    private void follow(CliParams cliParams) throws IOException {
+        if (!(pathHandler instanceof LocalPathHandler localPathHandler)) {
+            throw new IllegalArgumentException("Режим --follow поддерживается только для локальных файлов");
+        }
+
+        int topCapacity = cliParams.topCapacity() > 0 ? cliParams.topCapacity() : LogTail.DEFAULT_TOP_CAPACITY;
+        LogParser parser = new LogParser(cliParams.threads(), topCapacity, cliParams.quantiles());
+        logParser = parser;
+        Logger.log.info("Following {} every {} s with the approximate top of capacity {}",
+            cliParams.path(), cliParams.refreshInterval(), topCapacity);
+
+        LogTail tail = parser.follow(cliParams.fromDate(), cliParams.toDate(), cliParams.fieldName(),
+            cliParams.fieldValue());
+        new LogFollower(localPathHandler, cliParams.path(), tail, formatter, ioHandler,
+            Duration.ofSeconds(cliParams.refreshInterval())).run();
+
+        FilterStatistics filterStatistics = tail.filterStatistics();
+        Logger.log.info("Lines read: {}, bytes read: {}, skipped before parsing: {}, skipped after parsing: {}",
+            filterStatistics.linesRead(), tail.bytesRead(), filterStatistics.skippedByLineFilter(),
+            filterStatistics.skippedByRecordFilter());
+    }
+
     @Slf4j
     private static class Logger {
 
@@ -0,0 +1,109 @@
+package backend.academy.application.impl;
+
+import backend.academy.application.Application;
+import backend.academy.cliparams.GeneratorParams;
+import backend.academy.generator.ExpectedCounts;
+import backend.academy.generator.GeneratorSettings;
+import backend.academy.generator.LogGenerator;
+import backend.academy.tools.IOHandler;
+import backend.academy.tools.impl.IOHandlerImpl;
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.ParameterException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The class represents an application which generates the synthetic NGINX log
+ * and writes its exact statistics next to it (the file with the suffix {@code .expected.json})
+ */
+@Getter
+public class GeneratorApplication implements Application {
+    private IOHandler ioHandler;
+
+    public GeneratorApplication() {
+        ioHandler = new IOHandlerImpl();
+    }
+
+    public GeneratorApplication(IOHandler ioHandler) {
+        this.ioHandler = ioHandler;
+    }
+
+    @Override
+    public void run(String[] args) throws Exception {
+        try {
+            GeneratorParams params = new GeneratorParams();
+            JCommander.newBuilder().addObject(params).build().parse(args);
+
+            GeneratorSettings settings = new GeneratorSettings().gzip(params.gzip());
+            if (params.lines() != null) {
+                settings.lines(params.lines());
+            }
+            if (params.seed() != null) {
+                settings.seed(params.seed());
+            }
+            if (params.startDate() != null) {
+                settings.startDate(params.startDate());
+            }
+            if (params.days() != null) {
+                settings.days(params.days());
+            }
+            if (params.resources() != null) {
+                settings.resources(params.resources());
+            }
+            if (params.addresses() != null) {
+                settings.addresses(params.addresses());
+            }
+            if (params.resourceSkew() != null) {
+                settings.resourceSkew(params.resourceSkew());
+            }
+            if (params.addressSkew() != null) {
+                settings.addressSkew(params.addressSkew());
+            }
+            if (params.statusWeights() != null) {
+                settings.statusWeights(params.statusWeights());
+            }
+            if (params.hourWeights() != null) {
+                settings.hourWeights(params.hourWeights());
+            }
+            if (params.minBodySize() != null) {
+                settings.minBodySize(params.minBodySize());
+            }
+            if (params.bodySizeTail() != null) {
+                settings.bodySizeTailIndex(params.bodySizeTail());
+            }
+            if (params.malformedRate() != null) {
+                settings.malformedRate(params.malformedRate());
+            }
+
+            Path file = Path.of(params.file());
+            long start = System.nanoTime();
+            ExpectedCounts expectedCounts = new LogGenerator(settings).write(file);
+            Logger.log.info("Generated {} lines into {} in {} ms", expectedCounts.lines(), file,
+                (System.nanoTime() - start) / NANOS_PER_MILLI);
+
+            Path expectedFile = Path.of(params.file() + EXPECTED_SUFFIX);
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(expectedFile.toFile(), expectedCounts);
+            ioHandler.write("Сгенерировано строк: " + expectedCounts.lines() + " (" + file
+                + "), ожидаемая статистика: " + expectedFile + '\n');
+        } catch (IllegalArgumentException e) {
+            ioHandler.write("Ошибка: " + e.getMessage() + '\n');
+            Logger.log.error("Error: {}", e, e.getCause());
+        } catch (ParameterException e) {
+            ioHandler.write("Ошибка параметров командной строки: " + e.getMessage() + '\n');
+            Logger.log.error("Error entering command line parameters: {}", e, e.getCause());
+        }
+    }
+
+    @Slf4j
+    private static class Logger {
+
+    }
+
+    /**
+     * The suffix of the file with the exact statistics of the generated log
+     */
+    public static final String EXPECTED_SUFFIX = ".expected.json";
+    private static final long NANOS_PER_MILLI = 1_000_000;
+}
@@ -0,0 +1,139 @@
+package backend.academy.application.impl;
+
+import backend.academy.format.FormatHandler;
+import backend.academy.log.LogReport;
+import backend.academy.parser.impl.LogTail;
+import backend.academy.path.impl.LocalPathHandler;
+import backend.academy.tools.IOHandler;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The class implements the follow mode: the local log files are watched,
+ * the appended lines are added to the statistics (see {@link LogTail})
+ * and the report is written again every refresh interval.
+ * The directories of the found files are watched by {@link WatchService}:
+ * the files are searched again only if a file has been created or removed
+ * (for example, when the file is rotated). If the watch service is not available
+ * or it has lost the events, the files are searched again on every refresh (polling).
+ * The appended lines are found by the size of the files, so the modifications
+ * are not lost even if the file system does not report them
+ */
+class LogFollower {
+    private final LocalPathHandler pathHandler;
+    private final String path;
+    private final LogTail tail;
+    private final FormatHandler formatter;
+    private final IOHandler ioHandler;
+    private final Duration refreshInterval;
+    private final Set<Path> watchedDirectories = new HashSet<>();
+
+    LogFollower(
+        LocalPathHandler pathHandler, String path, LogTail tail, FormatHandler formatter, IOHandler ioHandler,
+        Duration refreshInterval
+    ) {
+        this.pathHandler = pathHandler;
+        this.path = path;
+        this.tail = tail;
+        this.formatter = formatter;
+        this.ioHandler = ioHandler;
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * Refreshes the report until the thread is interrupted
+     *
+     * @throws IOException if an error occurs while reading the files or writing the report
+     */
+    void run() throws IOException {
+        WatchService watchService = newWatchService();
+        try {
+            List<Path> files = pathHandler.findFiles(path);
+            watch(watchService, files);
+            while (!Thread.currentThread().isInterrupted()) {
+                tail.update(files);
+                refresh();
+
+                Thread.sleep(refreshInterval);
+                if (watchService == null || filesChanged(watchService)) {
+                    files = pathHandler.findFiles(path);
+                    watch(watchService, files);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (watchService != null) {
+                watchService.close();
+            }
+        }
+    }
+
+    private void refresh() throws IOException {
+        LogReport logReport = tail.toReport();
+        if (logReport == null) {
+            ioHandler.write("Не найдены удовлетворяющие фильтрам записи\n");
+        } else {
+            ioHandler.write(output -> formatter.writeReport(logReport, output));
+        }
+    }
+
+    private void watch(WatchService watchService, List<Path> files) {
+        if (watchService == null) {
+            return;
+        }
+        for (Path file : files) {
+            Path directory = file.toAbsolutePath().getParent();
+            if (directory != null && !watchedDirectories.contains(directory)) {
+                try {
+                    directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+                    watchedDirectories.add(directory);
+                } catch (IOException e) {
+                    Logger.log.warn("Directory {} cannot be watched, it is polled: {}", directory, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the events of the watched directories
+     *
+     * @return true if a file has been created or removed or the events have been lost
+     */
+    private boolean filesChanged(WatchService watchService) {
+        boolean changed = watchedDirectories.isEmpty();
+        WatchKey key = watchService.poll();
+        while (key != null) {
+            changed |= !key.pollEvents().isEmpty();
+            if (!key.reset()) {
+                watchedDirectories.remove((Path) key.watchable());
+            }
+            key = watchService.poll();
+        }
+        return changed;
+    }
+
+    private static WatchService newWatchService() {
+        try {
+            return FileSystems.getDefault().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            Logger.log.warn("Watch service is not available, the files are polled: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Slf4j
+    private static class Logger {
+
+    }
+}
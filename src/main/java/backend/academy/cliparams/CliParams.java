@@ -1,6 +1,7 @@
 package backend.academy.cliparams;
 
 import backend.academy.filter.impl.LogFilter;
+import backend.academy.parser.impl.LogParser;
 import com.beust.jcommander.IParameterValidator;
 import com.beust.jcommander.IParametersValidator;
 import com.beust.jcommander.IStringConverter;
@@ -72,6 +73,77 @@ public class CliParams {
         validateWith = {OutputTypeValidator.class, EmptyValueValidator.class})
     private String outputType;
 
+    /**
+     * The number of threads used for parsing (1 means sequential processing)
+     */
+    @Parameter(names = "--threads", description = "The number of threads used for parsing",
+        validateWith = {PositiveIntegerValidator.class, EmptyValueValidator.class})
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The number of the resources and the addresses monitored by the approximate top
+     * (if it is not set, all of them are counted exactly). The counts in the approximate top
+     * are overestimated by at most the number of requests divided by this value
+     */
+    @Parameter(names = "--top-capacity",
+        description = "The number of the resources and the addresses monitored by the approximate top",
+        validateWith = {PositiveIntegerValidator.class, EmptyValueValidator.class})
+    private int topCapacity;
+
+    /**
+     * The quantiles of the response size computed for every status class and hour
+     * (comma-separated numbers from 0 to 1)
+     */
+    @Parameter(names = "--quantiles",
+        description = "Comma-separated quantiles of the response size computed for every status class and hour",
+        converter = QuantileConverter.class, validateWith = EmptyValueValidator.class)
+    private List<Double> quantiles = LogParser.DEFAULT_QUANTILES;
+
+    /**
+     * The directory of the snapshots of the local log files (if it is not set, the snapshots are not used).
+     * The unchanged files are not parsed again, their statistics are read from the snapshots
+     */
+    @Parameter(names = "--snapshot-dir", description = "The directory of the snapshots of the local log files",
+        validateWith = EmptyValueValidator.class)
+    private String snapshotDirectory;
+
+    /**
+     * The directory of the catalogs and the time indexes of the local log files (if it is not set,
+     * the files are always read entirely). If the date range is set, the files outside the range are skipped
+     * and only the part of the large file containing the range is read
+     */
+    @Parameter(names = "--index-dir", description = "The directory of the time indexes of the local log files",
+        validateWith = EmptyValueValidator.class)
+    private String indexDirectory;
+
+    /**
+     * The follow mode: the local log files are watched and the report is refreshed periodically
+     * with the lines appended to the files (the application runs until it is interrupted)
+     */
+    @Parameter(names = "--follow", description = "Watch the local log files and refresh the report periodically")
+    private boolean follow;
+
+    /**
+     * The interval of refreshing the report in the follow mode (in seconds)
+     */
+    @Parameter(names = "--refresh-interval", description = "The interval of refreshing the report in seconds",
+        validateWith = {PositiveIntegerValidator.class, EmptyValueValidator.class})
+    private int refreshInterval = DEFAULT_REFRESH_INTERVAL;
+
+    /**
+     * Print the statistics of the run: the counters of the lines, the time of the stages and the steps of parsing
+     * and the sum of the peaks of the heap pools
+     */
+    @Parameter(names = "--stats", description = "Print the performance statistics of the run")
+    private boolean stats;
+
+    /**
+     * The file for the statistics of the run in the JSON format (if it is not set, the file is not written)
+     */
+    @Parameter(names = "--stats-json", description = "The file for the performance statistics in the JSON format",
+        validateWith = EmptyValueValidator.class)
+    private String statsFile;
+
     /**
      * The class provides the operation to check the input for correctness
      */
@@ -223,5 +295,53 @@ public class CliParams {
             }
         }
     }
-}
 
+    /**
+     * The class provides the operation to convert the input from string into the quantile
+     */
+    public static class QuantileConverter implements IStringConverter<Double> {
+        /**
+         * Converts the string into the number from 0 to 1
+         *
+         * @param s the input string that will be converted
+         * @return the quantile
+         * @throws ParameterException if the string is not a number from 0 to 1
+         */
+        @Override
+        public Double convert(String s) {
+            try {
+                double quantile = Double.parseDouble(s);
+                if (quantile >= 0 && quantile <= 1) {
+                    return quantile;
+                }
+            } catch (NumberFormatException e) {
+                throw new ParameterException("Quantile " + s + " must be a number from 0 to 1", e);
+            }
+            throw new ParameterException("Quantile " + s + " must be a number from 0 to 1");
+        }
+    }
+
+    /**
+     * The class provides operation to check that the value is a positive integer
+     */
+    public static class PositiveIntegerValidator implements IParameterValidator {
+        /**
+         * Check that the value is a positive integer
+         *
+         * @param name name of the flag (such as --threads)
+         * @param val  the checked value passed after the flag
+         */
+        @Override
+        public void validate(String name, String val) throws ParameterException {
+            try {
+                if (Integer.parseInt(val) < 1) {
+                    throw new ParameterException("Parameter " + name + " must be a positive integer");
+                }
+            } catch (NumberFormatException e) {
+                throw new ParameterException("Parameter " + name + " must be a positive integer", e);
+            }
+        }
+    }
+
+    private static final int DEFAULT_REFRESH_INTERVAL = 10;
+}
@@ -0,0 +1,210 @@
+package backend.academy.cliparams;
+
+import com.beust.jcommander.IParameterValidator;
+import com.beust.jcommander.IStringConverter;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.ParameterException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * The class stores the flags of the generator of the synthetic logs
+ * (the command {@code generate}), the flags which are not set keep the default settings
+ */
+@Getter
+public class GeneratorParams {
+    /**
+     * The path to the generated log file
+     */
+    @Parameter(names = "--file", description = "Path to the generated log-file", required = true,
+        validateWith = CliParams.EmptyValueValidator.class)
+    private String file;
+
+    /**
+     * The number of the lines
+     */
+    @Parameter(names = "--lines", description = "The number of the lines",
+        validateWith = {NonNegativeNumberValidator.class, CliParams.EmptyValueValidator.class})
+    private Long lines;
+
+    /**
+     * The seed of the random values
+     */
+    @Parameter(names = "--seed", description = "The seed of the random values",
+        validateWith = CliParams.EmptyValueValidator.class)
+    private Long seed;
+
+    /**
+     * The date of the first line
+     */
+    @Parameter(names = "--start", converter = CliParams.StringToLocalDateTimeConverter.class,
+        description = "The date of the first line", validateWith = CliParams.EmptyValueValidator.class)
+    private LocalDate startDate;
+
+    /**
+     * The number of the days covered by the log
+     */
+    @Parameter(names = "--days", description = "The number of the days covered by the log",
+        validateWith = {CliParams.PositiveIntegerValidator.class, CliParams.EmptyValueValidator.class})
+    private Integer days;
+
+    /**
+     * The number of the distinct resources
+     */
+    @Parameter(names = "--resources", description = "The number of the distinct resources",
+        validateWith = {CliParams.PositiveIntegerValidator.class, CliParams.EmptyValueValidator.class})
+    private Integer resources;
+
+    /**
+     * The number of the distinct addresses
+     */
+    @Parameter(names = "--addresses", description = "The number of the distinct addresses",
+        validateWith = {CliParams.PositiveIntegerValidator.class, CliParams.EmptyValueValidator.class})
+    private Integer addresses;
+
+    /**
+     * The exponent of Zipf's law for the resources
+     */
+    @Parameter(names = "--resource-skew", description = "The exponent of Zipf's law for the resources (0 is uniform)",
+        validateWith = CliParams.EmptyValueValidator.class)
+    private Double resourceSkew;
+
+    /**
+     * The exponent of Zipf's law for the addresses
+     */
+    @Parameter(names = "--address-skew", description = "The exponent of Zipf's law for the addresses (0 is uniform)",
+        validateWith = CliParams.EmptyValueValidator.class)
+    private Double addressSkew;
+
+    /**
+     * The weights of the response codes
+     */
+    @Parameter(names = "--status-weights", converter = StatusWeightsConverter.class,
+        description = "Comma-separated weights of the response codes (such as 200:80,404:20)",
+        validateWith = CliParams.EmptyValueValidator.class)
+    private Map<Integer, Double> statusWeights;
+
+    /**
+     * The weights of the hours of the day
+     */
+    @Parameter(names = "--hour-weights", converter = HourWeightsConverter.class,
+        description = "Comma-separated weights of the 24 hours of the day",
+        validateWith = CliParams.EmptyValueValidator.class)
+    private double[] hourWeights;
+
+    /**
+     * The minimal response size
+     */
+    @Parameter(names = "--min-body-size", description = "The minimal response size of the Pareto distribution",
+        validateWith = {NonNegativeNumberValidator.class, CliParams.EmptyValueValidator.class})
+    private Long minBodySize;
+
+    /**
+     * The tail index of the response size
+     */
+    @Parameter(names = "--body-size-tail",
+        description = "The tail index of the Pareto distribution of the response size (smaller gives longer tail)",
+        validateWith = CliParams.EmptyValueValidator.class)
+    private Double bodySizeTail;
+
+    /**
+     * The share of the malformed lines
+     */
+    @Parameter(names = "--malformed-rate", description = "The share of the malformed lines (from 0 to 1)",
+        converter = CliParams.QuantileConverter.class, validateWith = CliParams.EmptyValueValidator.class)
+    private Double malformedRate;
+
+    /**
+     * Compress the log by gzip
+     */
+    @Parameter(names = "--gzip", description = "Compress the log by gzip")
+    private boolean gzip;
+
+    /**
+     * The class provides the operation to convert the comma-separated pairs {@code <code>:<weight>}
+     * into the weights of the response codes
+     */
+    public static class StatusWeightsConverter implements IStringConverter<Map<Integer, Double>> {
+        /**
+         * Converts the string into the weights of the response codes
+         *
+         * @param s the input string that will be converted
+         * @return the weights by the response codes
+         * @throws ParameterException if the string does not consist of the pairs of the code and the weight
+         */
+        @Override
+        public Map<Integer, Double> convert(String s) {
+            Map<Integer, Double> weights = new HashMap<>();
+            try {
+                for (String pair : s.split(",")) {
+                    String[] parts = pair.split(":");
+                    if (parts.length != 2) {
+                        throw new ParameterException("Status weights " + s + " must be the distinct pairs code:weight");
+                    }
+                    int code = Integer.parseInt(parts[0].strip());
+                    if (weights.put(code, Double.parseDouble(parts[1].strip())) != null) {
+                        throw new ParameterException("Status weights " + s + " must be the distinct pairs code:weight");
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new ParameterException("Status weights " + s + " must be the distinct pairs code:weight", e);
+            }
+            return weights;
+        }
+    }
+
+    /**
+     * The class provides the operation to convert the comma-separated numbers into the weights of the hours
+     */
+    public static class HourWeightsConverter implements IStringConverter<double[]> {
+        /**
+         * Converts the string into the weights of the hours of the day
+         *
+         * @param s the input string that will be converted
+         * @return the weights of the hours from 0 to 23
+         * @throws ParameterException if the string does not contain 24 numbers
+         */
+        @Override
+        public double[] convert(String s) {
+            String[] values = s.split(",");
+            if (values.length != HOURS_PER_DAY) {
+                throw new ParameterException("Hour weights " + s + " must contain " + HOURS_PER_DAY + " numbers");
+            }
+            double[] weights = new double[values.length];
+            try {
+                for (int hour = 0; hour < values.length; hour++) {
+                    weights[hour] = Double.parseDouble(values[hour].strip());
+                }
+            } catch (NumberFormatException e) {
+                throw new ParameterException("Hour weights " + s + " must contain " + HOURS_PER_DAY + " numbers", e);
+            }
+            return weights;
+        }
+    }
+
+    /**
+     * The class provides operation to check that the value is a non-negative number
+     */
+    public static class NonNegativeNumberValidator implements IParameterValidator {
+        /**
+         * Check that the value is a non-negative number
+         *
+         * @param name name of the flag (such as --lines)
+         * @param val  the checked value passed after the flag
+         */
+        @Override
+        public void validate(String name, String val) throws ParameterException {
+            try {
+                if (Long.parseLong(val) < 0) {
+                    throw new ParameterException("Parameter " + name + " must be a non-negative integer");
+                }
+            } catch (NumberFormatException e) {
+                throw new ParameterException("Parameter " + name + " must be a non-negative integer", e);
+            }
+        }
+    }
+
+    private static final int HOURS_PER_DAY = 24;
+}
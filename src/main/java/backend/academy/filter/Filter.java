@@ -1,7 +1,10 @@
 package backend.academy.filter;
 
 import backend.academy.log.LogRecord;
+import backend.academy.parser.tokenizer.impl.LineSpans;
 import java.time.LocalDate;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 
 /**
  * Filter interface provides operations to filter the LogRecord
@@ -19,4 +22,52 @@ public interface Filter {
      * @return true if record passes check
      */
     boolean filter(LogRecord logRecord, LocalDate from, LocalDate to, String filterField, String filterValue);
+
+    /**
+     * Prepares the check of the records for the given filter parameters once,
+     * so the result can be applied to any number of records
+     *
+     * @param from        starting date
+     * @param to          end date
+     * @param filterField the field for which additional filtering is performed
+     * @param filterValue the value of the field to filter
+     * @return {@code Predicate<LogRecord>} - the check of the record
+     */
+    default Predicate<LogRecord> compile(LocalDate from, LocalDate to, String filterField, String filterValue) {
+        return logRecord -> filter(logRecord, from, to, filterField, filterValue);
+    }
+
+    /**
+     * Prepares the check of the raw log lines, which rejects the lines
+     * before the LogRecord objects are created. The check may accept
+     * the lines which do not pass the filter, but never rejects the lines which pass it
+     *
+     * @param from        starting date
+     * @param to          end date
+     * @param filterField the field for which additional filtering is performed
+     * @param filterValue the value of the field to filter
+     * @return {@code Predicate<String>} - the check of the line
+     */
+    default Predicate<String> compileLine(LocalDate from, LocalDate to, String filterField, String filterValue) {
+        return line -> true;
+    }
+
+    /**
+     * Prepares the same check as {@link #compileLine} for the lines whose fields
+     * are already located by the tokenizer, so the line is split only once
+     * for the check and for the creation of the record
+     *
+     * @param from        starting date
+     * @param to          end date
+     * @param filterField the field for which additional filtering is performed
+     * @param filterValue the value of the field to filter
+     * @return {@code BiPredicate<String, LineSpans>} - the check of the line and its fields
+     *     (the fields are null if the tokenizer does not accept the line)
+     */
+    default BiPredicate<String, LineSpans> compileLocatedLine(
+        LocalDate from, LocalDate to, String filterField, String filterValue
+    ) {
+        Predicate<String> lineFilter = compileLine(from, to, filterField, filterValue);
+        return (line, spans) -> lineFilter.test(line);
+    }
 }
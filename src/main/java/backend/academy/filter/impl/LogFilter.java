@@ -2,14 +2,26 @@ package backend.academy.filter.impl;
 
 import backend.academy.filter.Filter;
 import backend.academy.log.LogRecord;
+import backend.academy.parser.tokenizer.LineField;
+import backend.academy.parser.tokenizer.impl.LineSpans;
+import backend.academy.parser.tokenizer.impl.NginxLogTokenizer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.regex.Pattern;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.Getter;
 
 /**
  * The LogFilter class allows to filter the LogRecord objects
- * by date and filter fields
+ * by date and filter fields.
+ * The filter parameters are compiled into the predicate once:
+ * the date bounds are converted into LocalDateTime and the value
+ * of the field is compiled by {@link ValueMatcher}.
+ * The same parameters can be checked against the raw line: only the time
+ * and the filtered field of the line located by the tokenizer are checked,
+ * the lines which the tokenizer does not accept are always passed on
  */
 public class LogFilter implements Filter {
     @Override
@@ -20,74 +32,123 @@ public class LogFilter implements Filter {
         String filterField,
         String filterValue
     ) {
-        return checkDate(logRecord, fromDate, toDate)
-            && checkField(logRecord, filterField, filterValue);
+        return compile(fromDate, toDate, filterField, filterValue).test(logRecord);
     }
 
-    private boolean checkDate(LogRecord logRecord, LocalDate fromDate, LocalDate toDate) {
-        LocalDateTime current = logRecord.timeLocal();
-        boolean filterResult = true;
+    @Override
+    public Predicate<LogRecord> compile(LocalDate fromDate, LocalDate toDate, String filterField, String filterValue) {
+        Predicate<LogRecord> datePredicate = compileDate(fromDate, toDate);
+        Predicate<LogRecord> fieldPredicate = compileField(filterField, filterValue);
+        if (datePredicate == null) {
+            return fieldPredicate == null ? logRecord -> true : fieldPredicate;
+        }
+        return fieldPredicate == null ? datePredicate : datePredicate.and(fieldPredicate);
+    }
 
-        if (fromDate != null && current.isBefore(fromDate.atStartOfDay())) {
-            filterResult = false;
+    @Override
+    public Predicate<String> compileLine(LocalDate fromDate, LocalDate toDate, String filterField, String filterValue) {
+        if (fromDate == null && toDate == null && filterValue == null) {
+            return line -> true;
         }
-        if (toDate != null && current.isAfter(LocalDateTime.of(toDate, END_OF_THE_DAY))) {
-            filterResult = false;
+
+        BiPredicate<String, LineSpans> lineFilter = compileLocatedLine(fromDate, toDate, filterField, filterValue);
+        NginxLogTokenizer tokenizer = new NginxLogTokenizer();
+        return line -> lineFilter.test(line, tokenizer.locate(line));
+    }
+
+    @Override
+    public BiPredicate<String, LineSpans> compileLocatedLine(
+        LocalDate fromDate, LocalDate toDate, String filterField, String filterValue
+    ) {
+        LocalDateTime from = fromDate == null ? null : fromDate.atStartOfDay();
+        LocalDateTime to = toDate == null ? null : LocalDateTime.of(toDate, END_OF_THE_DAY);
+        FilterField field = filterValue == null ? null : parseField(filterField);
+        if (from == null && to == null && field == null) {
+            return (line, spans) -> true;
         }
 
-        return filterResult;
+        NginxLogTokenizer tokenizer = new NginxLogTokenizer();
+        ValueMatcher.RegionPredicate valueMatcher = field == null ? null : ValueMatcher.compileRegion(filterValue);
+        return (line, spans) -> acceptLine(line, spans, tokenizer, field, valueMatcher, from, to);
     }
 
-    private boolean checkField(LogRecord logRecord, String filterFieldAsString, String filterValue) {
-        if (filterFieldAsString == null || filterValue == null) {
+    private boolean acceptLine(
+        String line, LineSpans spans, NginxLogTokenizer tokenizer, FilterField field,
+        ValueMatcher.RegionPredicate valueMatcher, LocalDateTime from, LocalDateTime to
+    ) {
+        if (spans == null) {
             return true;
         }
-        FilterField filterField = FilterField.valueOf(filterFieldAsString.toUpperCase());
-        Pattern filterValuePattern = Pattern.compile(filterValue);
-        boolean filterFieldResult = true;
-        switch (filterField) {
-            case METHOD -> {
-                if (!filterValuePattern.matcher(logRecord.request().requestType()).matches()) {
-                    filterFieldResult = false;
-                }
-            }
-            case AGENT -> {
-                if (!filterValuePattern.matcher(logRecord.httpUserAgent()).matches()) {
-                    filterFieldResult = false;
-                }
-            }
-            case REFERER -> {
-                if (!filterValuePattern.matcher(logRecord.httpReferer()).matches()) {
-                    filterFieldResult = false;
-                }
-            }
-            case REMOTE_USER -> {
-                if (!filterValuePattern.matcher(logRecord.remoteUser()).matches()) {
-                    filterFieldResult = false;
-                }
-            }
-            case HTTP_VERSION -> {
-                if (!filterValuePattern.matcher(logRecord.request().requestHTTP()).matches()) {
-                    filterFieldResult = false;
-                }
-            }
-            case REMOTE_ADDRESS -> {
-                if (!filterValuePattern.matcher(logRecord.remoteAddress()).matches()) {
-                    filterFieldResult = false;
-                }
-            }
-            default -> throw new IllegalArgumentException("Некорректное поле для фильтрации");
+        if (field != null
+            && !valueMatcher.test(line, spans.start(field.lineField()), spans.end(field.lineField()))) {
+            return false;
+        }
+        if (from == null && to == null) {
+            return true;
+        }
+        LocalDateTime time = tokenizer.decodeTime(line, spans);
+        return time == null || (from == null || !time.isBefore(from)) && (to == null || !time.isAfter(to));
+    }
+
+    private Predicate<LogRecord> compileDate(LocalDate fromDate, LocalDate toDate) {
+        LocalDateTime from = fromDate == null ? null : fromDate.atStartOfDay();
+        LocalDateTime to = toDate == null ? null : LocalDateTime.of(toDate, END_OF_THE_DAY);
+
+        if (from != null && to != null) {
+            return logRecord -> !logRecord.timeLocal().isBefore(from) && !logRecord.timeLocal().isAfter(to);
+        }
+        if (from != null) {
+            return logRecord -> !logRecord.timeLocal().isBefore(from);
+        }
+        return to == null ? null : logRecord -> !logRecord.timeLocal().isAfter(to);
+    }
+
+    private Predicate<LogRecord> compileField(String filterFieldAsString, String filterValue) {
+        if (filterFieldAsString == null || filterValue == null) {
+            return null;
+        }
+        FilterField filterField = parseField(filterFieldAsString);
+        Predicate<String> valueMatcher = ValueMatcher.compile(filterValue);
+        return logRecord -> valueMatcher.test(filterField.value(logRecord));
+    }
+
+    private FilterField parseField(String filterFieldAsString) {
+        if (filterFieldAsString == null) {
+            return null;
+        }
+        try {
+            return FilterField.valueOf(filterFieldAsString.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректное поле для фильтрации", e);
         }
-        return filterFieldResult;
     }
 
     public enum FilterField {
-        METHOD,
-        AGENT,
-        REFERER,
-        REMOTE_ADDRESS,
-        REMOTE_USER,
-        HTTP_VERSION;
+        METHOD(logRecord -> logRecord.request().requestType(), LineField.REQUEST_TYPE),
+        AGENT(LogRecord::httpUserAgent, LineField.HTTP_USER_AGENT),
+        REFERER(LogRecord::httpReferer, LineField.HTTP_REFERER),
+        REMOTE_ADDRESS(LogRecord::remoteAddress, LineField.REMOTE_ADDRESS),
+        REMOTE_USER(LogRecord::remoteUser, LineField.REMOTE_USER),
+        HTTP_VERSION(logRecord -> logRecord.request().requestHTTP(), LineField.REQUEST_PROTOCOL);
+
+        private final Function<LogRecord, String> extractor;
+        @Getter
+        private final LineField lineField;
+
+        FilterField(Function<LogRecord, String> extractor, LineField lineField) {
+            this.extractor = extractor;
+            this.lineField = lineField;
+        }
+
+        /**
+         * Gets the value of the field from the record
+         *
+         * @param logRecord record containing the field
+         * @return value of the field
+         */
+        public String value(LogRecord logRecord) {
+            return extractor.apply(logRecord);
+        }
     }
 
     private static final LocalTime END_OF_THE_DAY =
@@ -0,0 +1,119 @@
+package backend.academy.filter.impl;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * The class compiles the value of the filter (regular expression) into the predicate.
+ * The expressions without special characters (for example, made by
+ * CliParams.GlobToRegexConverter from the glob without wildcards) are checked
+ * by the string comparison, the expressions with the only ".*" at the end
+ * are checked as the prefix. Other expressions are checked by the compiled pattern.
+ * In all the cases the result is the same as {@code Pattern.matches(regex, value)}.
+ * The value can also be checked in place as the part of the log line
+ */
+public final class ValueMatcher {
+    private ValueMatcher() {
+    }
+
+    /**
+     * Compiles the regular expression into the predicate checking the whole value
+     *
+     * @param regex regular expression
+     * @return {@code Predicate<String>} - the check of the value
+     */
+    public static Predicate<String> compile(String regex) {
+        RegionPredicate regionPredicate = compileRegion(regex);
+        return value -> regionPredicate.test(value, 0, value.length());
+    }
+
+    /**
+     * Compiles the regular expression into the check of the part of the string,
+     * so the value does not have to be copied out of the line
+     *
+     * @param regex regular expression
+     * @return {@code RegionPredicate} - the check of the part of the string
+     */
+    public static RegionPredicate compileRegion(String regex) {
+        String body = stripAnchors(regex);
+        String literal = unescapeLiteral(body);
+        if (literal != null) {
+            return (text, start, end) -> end - start == literal.length()
+                && text.regionMatches(start, literal, 0, literal.length());
+        }
+
+        if (body.endsWith(ANY_SUFFIX)) {
+            String prefix = unescapeLiteral(body.substring(0, body.length() - ANY_SUFFIX.length()));
+            if (prefix != null) {
+                return (text, start, end) -> end - start >= prefix.length()
+                    && text.regionMatches(start, prefix, 0, prefix.length())
+                    && !hasLineTerminator(text, start + prefix.length(), end);
+            }
+        }
+
+        Pattern pattern = Pattern.compile(regex);
+        return (text, start, end) -> pattern.matcher(text).region(start, end).matches();
+    }
+
+    /**
+     * The check of the part of the string given by its boundaries
+     */
+    @FunctionalInterface
+    public interface RegionPredicate {
+        /**
+         * Checks the part of the string
+         *
+         * @param text  string containing the value
+         * @param start index of the first character of the value
+         * @param end   index after the last character of the value
+         * @return true if the value matches the expression
+         */
+        boolean test(String text, int start, int end);
+    }
+
+    private static String stripAnchors(String regex) {
+        int start = regex.startsWith("^") ? 1 : 0;
+        int end = regex.length();
+        if (end > start && regex.charAt(end - 1) == '$' && (end < 2 || regex.charAt(end - 2) != '\\')) {
+            end--;
+        }
+        return regex.substring(start, end);
+    }
+
+    /**
+     * Converts the expression into the literal string
+     *
+     * @return the string matched by the expression or null if the expression has special characters
+     */
+    private static String unescapeLiteral(String expression) {
+        StringBuilder literal = new StringBuilder(expression.length());
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+            if (c == '\\') {
+                char next = i + 1 < expression.length() ? expression.charAt(i + 1) : 0;
+                if (next != '.' && next != '\\') {
+                    return null;
+                }
+                literal.append(next);
+                i++;
+            } else if (SPECIAL_CHARACTERS.indexOf(c) >= 0) {
+                return null;
+            } else {
+                literal.append(c);
+            }
+        }
+        return literal.toString();
+    }
+
+    private static boolean hasLineTerminator(String value, int from, int to) {
+        boolean found = false;
+        for (int i = from; i < to && !found; i++) {
+            found = LINE_TERMINATORS.indexOf(value.charAt(i)) >= 0;
+        }
+        return found;
+    }
+
+    private static final String ANY_SUFFIX = ".*";
+    private static final String SPECIAL_CHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String LINE_TERMINATORS = "\n\r\u0085\u2028\u2029";
+}
@@ -2,13 +2,18 @@ package backend.academy.format;
 
 import backend.academy.format.impl.AsciiDocFormatter;
 import backend.academy.log.LogReport;
+import backend.academy.stats.ReportFormatEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import lombok.Getter;
 
 /**
  * The class keeps an object of a formatting class type and
  * provides method to format the report using the methods
- * of the specified type of formatting
+ * of the specified type of formatting.
+ * The report can be written straight into the output: the tables are read
+ * from the report row by row and every row is written as soon as it is formatted
  */
 @Getter
 public class FormatHandler {
@@ -37,41 +42,75 @@ public class FormatHandler {
      */
     public String formatReport(LogReport logReport) {
         formattedReport = new StringBuilder();
-        appendGeneralInformation(logReport);
-        appendSourceInfo(logReport);
-        appendResponseCodesInfo(logReport);
-        appendRequestsNumberByHourInformation(logReport);
-        appendRequestsNumberByRemoteAddress(logReport);
+        try {
+            writeReport(logReport, formattedReport);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
         return formattedReport.toString();
     }
 
-    private void appendRequestsNumberByRemoteAddress(LogReport logReport) {
-        List<List<String>> requestsNumberByRemoteAddress = logReport.getRequestsNumberByRemoteAddressAsTable();
-        formattedReport.append(formatter.formatTitle("Наибольшее количество запросов по пользователям"));
-        formattedReport.append(formatter.formatTable(requestsNumberByRemoteAddress));
+    /**
+     * The method writes the report into the output section by section and row by row
+     * using the specified type of formatting, so the formatted report is not kept in memory
+     *
+     * @param logReport given log file report
+     * @param output    destination of the formatted report
+     * @throws IOException if an output error has occurred
+     */
+    public void writeReport(LogReport logReport, Appendable output) throws IOException {
+        ReportFormatEvent event = new ReportFormatEvent();
+        event.begin();
+        CountingAppendable countingOutput = event.isEnabled() ? new CountingAppendable(output) : null;
+        Appendable destination = countingOutput == null ? output : countingOutput;
+        writeSection("Общая информация", logReport.getGeneralInfoAsTable(), destination);
+        writeSection("Запрашиваемые ресурсы", logReport.getResourcesAsRows(), destination);
+        writeSection("Коды ответа", logReport.getResponseCodesAsRows(), destination);
+        writeSection("Количество запросов по часам", logReport.getRequestsNumberByHourAsRows(), destination);
+        writeSection("Наибольшее количество запросов по пользователям",
+            logReport.getRequestsNumberByRemoteAddressAsRows(), destination);
+        writeSection("Квантили размера ответа по классам ответа и часам", logReport.getSizeQuantilesAsRows(),
+            destination);
+        event.finish(formatter.getClass().getSimpleName(), logReport.requestsNumber(),
+            countingOutput == null ? 0 : countingOutput.count);
     }
 
-    private void appendRequestsNumberByHourInformation(LogReport logReport) {
-        List<List<String>> requestsNumberByHour = logReport.getRequestsNumberByHourAsTable();
-        formattedReport.append(formatter.formatTitle("Количество запросов по часам"));
-        formattedReport.append(formatter.formatTable(requestsNumberByHour));
+    private void writeSection(String title, Iterable<List<String>> table, Appendable output) throws IOException {
+        formatter.writeTitle(title, output);
+        formatter.writeTable(table, output);
     }
 
-    private void appendResponseCodesInfo(LogReport logReport) {
-        List<List<String>> responseCodes = logReport.getResponseCodesAsTable();
-        formattedReport.append(formatter.formatTitle("Коды ответа"));
-        formattedReport.append(formatter.formatTable(responseCodes));
-    }
+    /**
+     * The output counting the written characters (used only while the report formatting is recorded)
+     */
+    private static final class CountingAppendable implements Appendable {
+        private final Appendable output;
+        private long count;
 
-    private void appendSourceInfo(LogReport logReport) {
-        List<List<String>> requestedResources = logReport.getResourcesAsTable();
-        formattedReport.append(formatter.formatTitle("Запрашиваемые ресурсы"));
-        formattedReport.append(formatter.formatTable(requestedResources));
-    }
+        private CountingAppendable(Appendable output) {
+            this.output = output;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            CharSequence value = String.valueOf(csq);
+            count += value.length();
+            output.append(value);
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            count += end - start;
+            output.append(csq, start, end);
+            return this;
+        }
 
-    private void appendGeneralInformation(LogReport logReport) {
-        List<List<String>> generalInfo = logReport.getGeneralInfoAsTable();
-        formattedReport.append(formatter.formatTitle("Общая информация"));
-        formattedReport.append(formatter.formatTable(generalInfo));
+        @Override
+        public Appendable append(char c) throws IOException {
+            count++;
+            output.append(c);
+            return this;
+        }
     }
 }
@@ -1,10 +1,14 @@
 package backend.academy.format;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
  * The interface provides methods to format the
- * title and table with the specified type of formatting
+ * title and table with the specified type of formatting.
+ * The title and the table can also be written straight into the output
+ * row by row, so the large table is not built in memory
  */
 public interface Formatter {
     /**
@@ -21,5 +25,33 @@ public interface Formatter {
      * @param table table representation in the system
      * @return {@code String} - formatted table
      */
-    String formatTable(List<List<String>> table);
+    default String formatTable(List<List<String>> table) {
+        StringBuilder output = new StringBuilder();
+        try {
+            writeTable(table, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Writes the message formatted as a title into the output
+     *
+     * @param message data to be formatted
+     * @param output  destination of the formatted data
+     * @throws IOException if an output error has occurred
+     */
+    default void writeTitle(String message, Appendable output) throws IOException {
+        output.append(formatTitle(message));
+    }
+
+    /**
+     * Writes the table into the output row by row according to a specific type of formatting
+     *
+     * @param table  rows of the table (the first row is the header), they are read once
+     * @param output destination of the formatted table
+     * @throws IOException if an output error has occurred
+     */
+    void writeTable(Iterable<List<String>> table, Appendable output) throws IOException;
 }
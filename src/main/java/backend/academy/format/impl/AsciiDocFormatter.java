@@ -1,6 +1,7 @@
 package backend.academy.format.impl;
 
 import backend.academy.format.Formatter;
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -15,29 +16,20 @@ public class AsciiDocFormatter implements Formatter {
     }
 
     @Override
-    public String formatTable(List<List<String>> table) {
-        StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append(TABLE_START_END).append('\n');
-        stringBuilder.append(formatRow(table.getFirst()));
-        for (int i = 1; i < table.size(); ++i) {
-            stringBuilder.append(formatRow(table.get(i)));
+    public void writeTable(Iterable<List<String>> table, Appendable output) throws IOException {
+        output.append(TABLE_START_END).append('\n');
+        for (List<String> row : table) {
+            writeRow(row, output);
         }
-        stringBuilder.append(TABLE_START_END).append('\n');
-        return stringBuilder.toString();
+        output.append(TABLE_START_END).append('\n');
     }
 
-    private String formatRow(List<String> rowItems) {
-        StringBuilder stringBuilder = new StringBuilder();
+    private void writeRow(List<String> rowItems, Appendable output) throws IOException {
         int colCount = rowItems.size();
         for (int i = 0; i < colCount; i++) {
-            stringBuilder.append(formatCell(rowItems.get(i) + " ", i, colCount));
+            output.append(i == colCount - 1 ? ">|" : "^|").append(rowItems.get(i)).append(' ');
         }
-        stringBuilder.append('\n');
-        return stringBuilder.toString();
-    }
-
-    private String formatCell(String cellItem, int cellIndex, int tableWidth) {
-        return (cellIndex == tableWidth - 1 ? ">|" : "^|") + cellItem;
+        output.append('\n');
     }
 
     public static final String DEFAULT_FILE_NAME = "output.adoc";
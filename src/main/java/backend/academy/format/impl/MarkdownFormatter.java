@@ -1,14 +1,17 @@
 package backend.academy.format.impl;
 
 import backend.academy.format.Formatter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * The class provides methods to format the data using Markdown syntax
  */
 public class MarkdownFormatter implements Formatter {
     private static final int COL_WIDTH = 10;
+    private static final String COLUMN_SEPARATOR = ":" + "-".repeat(COL_WIDTH) + ":";
 
     @Override
     public String formatTitle(String message) {
@@ -16,35 +19,21 @@ public class MarkdownFormatter implements Formatter {
     }
 
     @Override
-    public String formatTable(List<List<String>> table) {
-        StringBuilder stringBuilder = new StringBuilder();
-        int tableWidth = table.getFirst().size();
-        stringBuilder.append(formatRow(table.getFirst()));
-        stringBuilder.append(formatRow(
-            Stream.iterate((":" + "-".repeat(COL_WIDTH) + ":"), i -> (":" + "-".repeat(COL_WIDTH) + ":"))
-                .limit(tableWidth).toList()));
-        for (int i = 1; i < table.size(); ++i) {
-            stringBuilder.append(formatRow(table.get(i)));
+    public void writeTable(Iterable<List<String>> table, Appendable output) throws IOException {
+        Iterator<List<String>> rows = table.iterator();
+        List<String> header = rows.next();
+        writeRow(header, output);
+        writeRow(Collections.nCopies(header.size(), COLUMN_SEPARATOR), output);
+        while (rows.hasNext()) {
+            writeRow(rows.next(), output);
         }
-        return stringBuilder.toString();
     }
 
-    private String formatRow(List<String> rowItems) {
-        StringBuilder stringBuilder = new StringBuilder();
-        int colCount = rowItems.size();
-        for (int i = 0; i < colCount; i++) {
-            stringBuilder.append(formatCell(rowItems.get(i), i, colCount));
+    private void writeRow(List<String> rowItems, Appendable output) throws IOException {
+        for (String cellItem : rowItems) {
+            output.append('|').append(cellItem);
         }
-        stringBuilder.append('\n');
-        return stringBuilder.toString();
-    }
-
-    private String formatCell(String cellItem, int cellIndex, int tableWidth) {
-        String result = '|' + cellItem;
-        if (cellIndex == tableWidth - 1) {
-            result += '|';
-        }
-        return result;
+        output.append("|\n");
     }
 
     public static final String DEFAULT_FILE_NAME = "output.md";
@@ -0,0 +1,41 @@
+package backend.academy.generator;
+
+import java.util.Map;
+
+/**
+ * The exact statistics of the generated log, which the report
+ * of the log without filters must contain
+ *
+ * @param lines                          the number of the lines
+ * @param malformedLines                 the number of the lines which do not match the NGINX format
+ * @param requestsNumber                 the number of the requests (the correct lines)
+ * @param bodyBytesSum                   the total size of the responses
+ * @param requestedResources             the number of the requests of every resource
+ * @param responseCodes                  the number of the requests of every response code
+ * @param requestsNumberByHour           the number of the requests during every hour
+ * @param requestsNumberByRemoteAddress  the number of the requests from every address
+ * @param distinctUserAgents             the number of the distinct user agents
+ * @param distinctRequestPaths           the number of the distinct request paths
+ */
+@SuppressWarnings("RecordComponentNumber")
+public record ExpectedCounts(
+    long lines,
+    long malformedLines,
+    long requestsNumber,
+    long bodyBytesSum,
+    Map<String, Long> requestedResources,
+    Map<Short, Long> responseCodes,
+    Map<Integer, Long> requestsNumberByHour,
+    Map<String, Long> requestsNumberByRemoteAddress,
+    long distinctUserAgents,
+    long distinctRequestPaths
+) {
+    /**
+     * Gets the average size of the responses
+     *
+     * @return the average size or 0 if there are no requests
+     */
+    public double requestAverageSize() {
+        return requestsNumber == 0 ? 0 : (double) bodyBytesSum / requestsNumber;
+    }
+}
@@ -0,0 +1,95 @@
+package backend.academy.generator;
+
+import java.time.LocalDate;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The class contains the parameters of the synthetic log.
+ * Every parameter has the default value, so only the changed parameters should be set
+ * (the setters return the settings, so the calls can be chained)
+ */
+@Getter
+@Setter
+public class GeneratorSettings {
+    /**
+     * Seed of the random values: the same settings always give the same log
+     */
+    private long seed = 1;
+
+    /**
+     * Number of the lines (including the malformed ones)
+     */
+    private long lines = 1_000_000;
+
+    /**
+     * The date of the first line
+     */
+    private LocalDate startDate = LocalDate.of(2015, 5, 17);
+
+    /**
+     * Number of the days covered by the log
+     */
+    private int days = 1;
+
+    /**
+     * Weights of the hours of the day (the diurnal curve): the lines of every hour
+     * are proportional to its weight, the default curve has the minimum at 4 and the maximum at 16 hours
+     */
+    private double[] hourWeights = diurnalCurve();
+
+    /**
+     * Number of the distinct resources, the resources are requested according to Zipf's law
+     */
+    private int resources = 10_000;
+
+    /**
+     * Exponent of Zipf's law for the resources (0 means the uniform distribution)
+     */
+    private double resourceSkew = 1.0;
+
+    /**
+     * Number of the distinct addresses, the addresses are distributed according to Zipf's law
+     */
+    private int addresses = 50_000;
+
+    /**
+     * Exponent of Zipf's law for the addresses (0 means the uniform distribution)
+     */
+    private double addressSkew = 1.2;
+
+    /**
+     * Weights of the response codes
+     */
+    private Map<Integer, Double> statusWeights = Map.of(200, 80.0, 304, 10.0, 404, 6.0, 301, 2.0, 500, 2.0);
+
+    /**
+     * Minimal response size of the Pareto distribution (the responses with code 304 are empty)
+     */
+    private long minBodySize = 500;
+
+    /**
+     * Tail index of the Pareto distribution of the response size (the smaller index gives the longer tail)
+     */
+    private double bodySizeTailIndex = 1.5;
+
+    /**
+     * Share of the lines which do not match the NGINX format
+     */
+    private double malformedRate;
+
+    /**
+     * Compress the written log by gzip
+     */
+    private boolean gzip;
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private static double[] diurnalCurve() {
+        double[] weights = new double[24];
+        for (int hour = 0; hour < weights.length; hour++) {
+            weights[hour] = 1 + 0.8 * Math.sin(2 * Math.PI * (hour - 10) / 24);
+        }
+        return weights;
+    }
+}
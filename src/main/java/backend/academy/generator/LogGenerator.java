@@ -0,0 +1,372 @@
+package backend.academy.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The class generates the synthetic NGINX logs in the combined format.
+ * The log is defined by the settings (see {@link GeneratorSettings}): the same settings
+ * and seed always give the same lines. The lines of every hour are proportional to the weight
+ * of the hour, the time of the lines grows evenly within the hour, so the log is sorted by time.
+ * The resources and the addresses are chosen according to Zipf's law, the response codes
+ * according to their weights and the response size according to the Pareto distribution.
+ * The malformed lines are the lines cut inside the request.
+ * The lines are built directly in bytes and written through the buffer without creating strings,
+ * and the exact statistics of the log are counted at the same time, so the report of the log
+ * can be checked against them (see {@link ExpectedCounts}). The memory does not depend
+ * on the number of the lines
+ */
+public class LogGenerator {
+    private final GeneratorSettings settings;
+    private final ZipfDistribution resourceDistribution;
+    private final ZipfDistribution addressDistribution;
+    private final short[] statuses;
+    private final double[] statusCumulative;
+    private final double[] slotCumulative;
+
+    /**
+     * Parameterized constructor checks the settings and prepares the distributions
+     *
+     * @param settings parameters of the log
+     * @throws IllegalArgumentException if the settings are incorrect
+     */
+    public LogGenerator(GeneratorSettings settings) {
+        validate(settings);
+        this.settings = settings;
+        this.resourceDistribution = new ZipfDistribution(settings.resources(), settings.resourceSkew());
+        this.addressDistribution = new ZipfDistribution(settings.addresses(), settings.addressSkew());
+
+        Map<Integer, Double> statusWeights = new TreeMap<>(settings.statusWeights());
+        statuses = new short[statusWeights.size()];
+        statusCumulative = new double[statusWeights.size()];
+        double statusSum = statusWeights.values().stream().mapToDouble(Double::doubleValue).sum();
+        double cumulative = 0;
+        int index = 0;
+        for (Map.Entry<Integer, Double> status : statusWeights.entrySet()) {
+            cumulative += status.getValue();
+            statuses[index] = status.getKey().shortValue();
+            statusCumulative[index++] = cumulative / statusSum;
+        }
+
+        slotCumulative = new double[settings.days() * HOURS_PER_DAY];
+        double[] hourWeights = settings.hourWeights();
+        double slotSum = 0;
+        for (int slot = 0; slot < slotCumulative.length; slot++) {
+            slotSum += hourWeights[slot % HOURS_PER_DAY];
+            slotCumulative[slot] = slotSum;
+        }
+        for (int slot = 0; slot < slotCumulative.length; slot++) {
+            slotCumulative[slot] /= slotSum;
+        }
+    }
+
+    /**
+     * Writes the log into the file (compressed by gzip if it is set)
+     *
+     * @param file path to the file, the existing file is replaced
+     * @return the exact statistics of the written log
+     * @throws IOException if an error occurs while writing the file
+     */
+    public ExpectedCounts write(Path file) throws IOException {
+        Cursor cursor = new Cursor();
+        try (OutputStream output = settings.gzip()
+            ? new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE), BUFFER_SIZE)
+            : new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE)) {
+            while (cursor.next()) {
+                output.write(cursor.line, 0, cursor.length);
+            }
+        }
+        return cursor.counts();
+    }
+
+    /**
+     * Generates the lines of the log lazily
+     *
+     * @return {@code Stream<String>} - lines of the log (without the line feeds)
+     */
+    public Stream<String> lines() {
+        Cursor cursor = new Cursor();
+        Spliterator<String> spliterator = new Spliterators.AbstractSpliterator<>(settings.lines(),
+            Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE) {
+            @Override
+            public boolean tryAdvance(Consumer<? super String> action) {
+                if (!cursor.next()) {
+                    return false;
+                }
+                action.accept(new String(cursor.line, 0, cursor.length - 1, StandardCharsets.ISO_8859_1));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Counts the exact statistics of the log without writing it
+     *
+     * @return the exact statistics of the log
+     */
+    public ExpectedCounts expectedCounts() {
+        Cursor cursor = new Cursor();
+        while (cursor.next()) {
+            // only the statistics are needed
+        }
+        return cursor.counts();
+    }
+
+    private static void validate(GeneratorSettings settings) {
+        if (settings.lines() < 0) {
+            throw new IllegalArgumentException("Количество строк не может быть отрицательным");
+        }
+        if (settings.days() < 1 || settings.startDate() == null) {
+            throw new IllegalArgumentException("Должны быть заданы дата начала и положительное количество дней");
+        }
+        if (settings.resources() < 1 || settings.addresses() < 1 || settings.addresses() > MAX_ADDRESSES
+            || settings.resourceSkew() < 0 || settings.addressSkew() < 0) {
+            throw new IllegalArgumentException("Некорректные параметры распределения ресурсов или адресов");
+        }
+        double[] hourWeights = settings.hourWeights();
+        if (hourWeights == null || hourWeights.length != HOURS_PER_DAY
+            || Arrays.stream(hourWeights).anyMatch(weight -> !(weight >= 0))
+            || Arrays.stream(hourWeights).sum() <= 0) {
+            throw new IllegalArgumentException("Веса часов должны быть заданы для 24 часов и быть неотрицательными");
+        }
+        if (settings.statusWeights() == null || settings.statusWeights().isEmpty()
+            || settings.statusWeights().entrySet().stream().anyMatch(status -> status.getKey() < MIN_STATUS
+            || status.getKey() > MAX_STATUS || !(status.getValue() >= 0))
+            || settings.statusWeights().values().stream().mapToDouble(Double::doubleValue).sum() <= 0) {
+            throw new IllegalArgumentException("Коды ответа должны находиться в диапазоне от 100 до 999, "
+                + "их веса должны быть неотрицательными");
+        }
+        if (settings.minBodySize() < 1 || !(settings.bodySizeTailIndex() > 0)) {
+            throw new IllegalArgumentException("Параметры распределения размера ответа должны быть положительными");
+        }
+        if (!(settings.malformedRate() >= 0 && settings.malformedRate() <= 1)) {
+            throw new IllegalArgumentException("Доля некорректных строк должна находиться в диапазоне от 0 до 1");
+        }
+    }
+
+    /**
+     * The state of the generation: the position in the log, the current line and the statistics
+     */
+    private final class Cursor {
+        private final SplittableRandom random = new SplittableRandom(settings.seed());
+        private final LocalDateTime start = settings.startDate().atStartOfDay();
+        private final byte[] line = new byte[LINE_CAPACITY];
+        private final long[] resourceCounts = new long[settings.resources()];
+        private final long[] addressCounts = new long[settings.addresses()];
+        private final long[] statusCounts = new long[statuses.length];
+        private final long[] hourCounts = new long[HOURS_PER_DAY];
+        private final boolean[] usedAgents = new boolean[AGENTS.length];
+        private int length;
+        private long generated;
+        private long malformedLines;
+        private long bodyBytesSum;
+        private int slot = -1;
+        private long slotStart;
+        private long slotLines;
+        private long timeSecond = -1;
+        private byte[] time;
+
+        private boolean next() {
+            if (generated == settings.lines()) {
+                return false;
+            }
+            while (slot < 0 || generated - slotStart == slotLines) {
+                slot++;
+                slotStart = generated;
+                slotLines = Math.round(settings.lines() * slotCumulative[slot]) - slotStart;
+                if (slot == slotCumulative.length - 1) {
+                    slotLines = settings.lines() - slotStart;
+                }
+            }
+            long second = (long) slot * SECONDS_PER_HOUR + (generated - slotStart) * SECONDS_PER_HOUR / slotLines;
+            if (second != timeSecond) {
+                timeSecond = second;
+                time = TIME_FORMAT.format(start.plusSeconds(second)).getBytes(StandardCharsets.ISO_8859_1);
+            }
+            generated++;
+
+            int address = addressDistribution.sample(random);
+            int resource = resourceDistribution.sample(random);
+            length = 0;
+            putAddress(address);
+            put(ADDRESS_END);
+            put(time);
+            put(TIME_END);
+            put(method());
+            put(RESOURCE_PREFIX);
+            putNumber(resource);
+            if (random.nextDouble() < settings.malformedRate()) {
+                malformedLines++;
+                line[length++] = '\n';
+                return true;
+            }
+
+            int status = status();
+            long bodyBytesSent = statuses[status] == NOT_MODIFIED ? 0 : bodySize();
+            int agent = random.nextInt(AGENTS.length);
+            put(PROTOCOL);
+            putNumber(statuses[status]);
+            line[length++] = ' ';
+            putNumber(bodyBytesSent);
+            put(REFERER);
+            put(AGENTS[agent]);
+            line[length++] = '"';
+            line[length++] = '\n';
+
+            resourceCounts[resource]++;
+            addressCounts[address]++;
+            statusCounts[status]++;
+            hourCounts[slot % HOURS_PER_DAY]++;
+            usedAgents[agent] = true;
+            bodyBytesSum += bodyBytesSent;
+            return true;
+        }
+
+        private byte[] method() {
+            double value = random.nextDouble();
+            return value < GET_SHARE ? GET : value < GET_SHARE + HEAD_SHARE ? HEAD : POST;
+        }
+
+        private int status() {
+            double value = random.nextDouble();
+            int status = 0;
+            while (status < statuses.length - 1 && statusCumulative[status] <= value) {
+                status++;
+            }
+            return status;
+        }
+
+        private long bodySize() {
+            double size = settings.minBodySize() / Math.pow(1 - random.nextDouble(), 1 / settings.bodySizeTailIndex());
+            return (long) Math.min(size, MAX_BODY_SIZE);
+        }
+
+        /**
+         * Writes the address of the rank: the first three octets are the rank multiplied
+         * by the odd number modulo 2^24 (so the addresses of the ranks are different and look random)
+         */
+        private void putAddress(int rank) {
+            int mixed = (rank * ADDRESS_MULTIPLIER) & ADDRESS_MASK;
+            putNumber(mixed >>> 16);
+            line[length++] = '.';
+            putNumber((mixed >>> 8) & OCTET_MASK);
+            line[length++] = '.';
+            putNumber(mixed & OCTET_MASK);
+            line[length++] = '.';
+            putNumber(1 + rank % LAST_OCTETS);
+        }
+
+        private void put(byte[] bytes) {
+            System.arraycopy(bytes, 0, line, length, bytes.length);
+            length += bytes.length;
+        }
+
+        private void putNumber(long number) {
+            int digits = 1;
+            for (long rest = number / RADIX; rest > 0; rest /= RADIX) {
+                digits++;
+            }
+            long rest = number;
+            for (int position = length + digits - 1; position >= length; position--) {
+                line[position] = (byte) ('0' + rest % RADIX);
+                rest /= RADIX;
+            }
+            length += digits;
+        }
+
+        private ExpectedCounts counts() {
+            Map<String, Long> resources = new HashMap<>();
+            for (int resource = 0; resource < resourceCounts.length; resource++) {
+                if (resourceCounts[resource] > 0) {
+                    resources.put("/product_" + resource, resourceCounts[resource]);
+                }
+            }
+            Map<String, Long> addresses = new HashMap<>();
+            for (int address = 0; address < addressCounts.length; address++) {
+                if (addressCounts[address] > 0) {
+                    length = 0;
+                    putAddress(address);
+                    addresses.put(new String(line, 0, length, StandardCharsets.ISO_8859_1), addressCounts[address]);
+                }
+            }
+            Map<Short, Long> responseCodes = new HashMap<>();
+            for (int status = 0; status < statuses.length; status++) {
+                if (statusCounts[status] > 0) {
+                    responseCodes.put(statuses[status], statusCounts[status]);
+                }
+            }
+            Map<Integer, Long> hours = new HashMap<>();
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                if (hourCounts[hour] > 0) {
+                    hours.put(hour, hourCounts[hour]);
+                }
+            }
+            long agents = 0;
+            for (boolean used : usedAgents) {
+                agents += used ? 1 : 0;
+            }
+            return new ExpectedCounts(generated, malformedLines, generated - malformedLines, bodyBytesSum,
+                resources, responseCodes, hours, addresses, agents, resources.size());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static final DateTimeFormatter TIME_FORMAT =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss", Locale.ENGLISH);
+    private static final byte[][] AGENTS = {
+        bytes("Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)"),
+        bytes("Debian APT-HTTP/1.3 (0.9.7.9)"),
+        bytes("Wget/1.13.4 (linux-gnu)"),
+        bytes("urlgrabber/3.9.1 yum/3.2.29"),
+        bytes("Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/41.0.2272.76"),
+        bytes("Mozilla/5.0 (Windows NT 6.1; WOW64; rv:37.0) Gecko/20100101 Firefox/37.0"),
+        bytes("curl/7.35.0"),
+        bytes("python-requests/2.6.0 CPython/2.7.6 Linux/3.13.0-48-generic")
+    };
+    private static final byte[] ADDRESS_END = bytes(" - - [");
+    private static final byte[] TIME_END = bytes(" +0000] \"");
+    private static final byte[] GET = bytes("GET");
+    private static final byte[] HEAD = bytes("HEAD");
+    private static final byte[] POST = bytes("POST");
+    private static final byte[] RESOURCE_PREFIX = bytes(" /downloads/product_");
+    private static final byte[] PROTOCOL = bytes(" HTTP/1.1\" ");
+    private static final byte[] REFERER = bytes(" \"-\" \"");
+    private static final double GET_SHARE = 0.9;
+    private static final double HEAD_SHARE = 0.05;
+    private static final short NOT_MODIFIED = 304;
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 999;
+    private static final double MAX_BODY_SIZE = 1 << 30;
+    private static final int MAX_ADDRESSES = 1 << 24;
+    private static final int ADDRESS_MULTIPLIER = 0x9E3779B1;
+    private static final int ADDRESS_MASK = 0xFFFFFF;
+    private static final int OCTET_MASK = 0xFF;
+    private static final int LAST_OCTETS = 254;
+    private static final int RADIX = 10;
+    private static final int HOURS_PER_DAY = 24;
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final int LINE_CAPACITY = 512;
+    private static final int BUFFER_SIZE = 1 << 20;
+}
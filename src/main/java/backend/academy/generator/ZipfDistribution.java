@@ -0,0 +1,45 @@
+package backend.academy.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * The distribution of the ranks from 0 to n - 1 according to Zipf's law:
+ * the probability of the rank k is proportional to 1 / (k + 1)^s.
+ * The cumulative probabilities are computed once, the rank is found by the binary search
+ */
+final class ZipfDistribution {
+    private final double[] cumulative;
+
+    ZipfDistribution(int size, double exponent) {
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    /**
+     * Chooses the random rank
+     *
+     * @param random source of the random values
+     * @return rank from 0 to n - 1
+     */
+    int sample(SplittableRandom random) {
+        double value = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,11 @@
+package backend.academy.log;
+
+/**
+ * The class contains the estimated numbers of the distinct values of the log fields
+ *
+ * @param remoteAddresses the number of the distinct IP addresses of the clients
+ * @param userAgents      the number of the distinct user agents
+ * @param requestPaths    the number of the distinct requested paths
+ */
+public record DistinctCounts(long remoteAddresses, long userAgents, long requestPaths) {
+}
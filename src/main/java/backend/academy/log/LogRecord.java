@@ -1,5 +1,7 @@
 package backend.academy.log;
 
+import backend.academy.parser.tokenizer.impl.LineSpans;
+import backend.academy.parser.tokenizer.impl.NginxLogTokenizer;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -33,17 +35,46 @@ public record LogRecord(String remoteAddress, String remoteUser, LocalDateTime t
     private static final byte BODY_SIZE_GROUP_NUMBER = 6;
     private static final byte HTTP_REFERER_GROUP_NUMBER = 7;
     private static final byte HTTP_USER_AGENT_GROUP_NUMBER = 8;
+    private static final Pattern LOG_PATTERN =
+        Pattern.compile("^(.+) - ([^\\[]+) \\[(.+)\\] \"(.+)\" (\\d+) (\\d+) \"(.+)\" \"(.+)\"$");
+    private static final DateTimeFormatter TIME_FORMATTER =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.US);
+    private static final NginxLogTokenizer TOKENIZER = new NginxLogTokenizer();
 
     /**
-     * Creates new LogRecord instance by parsing given string
+     * Creates new LogRecord instance by parsing given string.
+     * The line is split by the tokenizer, the regular expression is used
+     * only for the lines which the tokenizer does not accept
      *
      * @param log log in the form of a string
      * @return {@code LogRecord} object
      */
     public static LogRecord newLogRecord(String log) {
-        Matcher matcher =
-            Pattern.compile("^(.+) - ([^\\[]+) \\[(.+)\\] \"(.+)\" (\\d+) (\\d+) \"(.+)\" \"(.+)\"$")
-                .matcher(log);
+        LogRecord logRecord = TOKENIZER.tokenize(log);
+        return logRecord != null ? logRecord : parseWithPattern(log);
+    }
+
+    /**
+     * Creates new LogRecord instance from the string whose fields are already located by the tokenizer,
+     * so the string is not split again
+     *
+     * @param log   log in the form of a string
+     * @param spans fields found by {@link NginxLogTokenizer#locate(String)} or null if they are not found
+     * @return {@code LogRecord} object
+     */
+    public static LogRecord newLogRecord(String log, LineSpans spans) {
+        LogRecord logRecord = spans == null ? null : TOKENIZER.toRecord(log, spans);
+        return logRecord != null ? logRecord : parseWithPattern(log);
+    }
+
+    /**
+     * Creates new LogRecord instance by matching given string with the regular expression
+     *
+     * @param log log in the form of a string
+     * @return {@code LogRecord} object
+     */
+    static LogRecord parseWithPattern(String log) {
+        Matcher matcher = LOG_PATTERN.matcher(log);
 
         if (!matcher.matches()) {
             throw new RuntimeException("Parsing log record error! " + log);
@@ -51,8 +82,7 @@ public record LogRecord(String remoteAddress, String remoteUser, LocalDateTime t
 
         String remAddr = matcher.group(REMOTE_ADDRESS_GROUP_NUMBER);
         String remUser = matcher.group(REMOTE_USER_GROUP_NUMBER);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.US);
-        LocalDateTime localDateTime = LocalDateTime.parse(matcher.group(TIME_GROUP_NUMBER), formatter);
+        LocalDateTime localDateTime = LocalDateTime.parse(matcher.group(TIME_GROUP_NUMBER), TIME_FORMATTER);
         String request = matcher.group(REQUEST_GROUP_NUMBER);
         short status = Short.parseShort(matcher.group(STATUS_GROUP_NUMBER));
         int bodyBytesSent = Integer.parseInt(matcher.group(BODY_SIZE_GROUP_NUMBER));
@@ -1,15 +1,26 @@
 package backend.academy.log;
 
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongMaps;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
+import it.unimi.dsi.fastutil.shorts.Short2LongMap;
+import it.unimi.dsi.fastutil.shorts.Short2LongMaps;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * The class presents a report on processed log files.
  * The report contains statistics: general information (number of files, size, etc.),
- * information about the requested resources, information about the server response
+ * information about the requested resources, information about the server response.
+ * The counters are 64-bit and stored in the maps with primitive values (the order of the entries
+ * is the order of the rows in the tables)
  *
  * @param files                processed log files
  * @param fromDate             the earliest log file
@@ -20,33 +31,77 @@ import java.util.Map;
  * @param requestedResources   the storage of the requested resources
  * @param responseCodes        server response storage
  * @param requestsNumberByHour the number of requests during certain hours
+ * @param requestsNumberByRemoteAddress the number of requests from the most active addresses
+ * @param distinctCounts       the estimated numbers of the distinct addresses, user agents and paths
+ * @param sizeQuantiles        the quantiles of the response size by status classes and hours
  */
 @SuppressWarnings("RecordComponentNumber")
 public record LogReport(
     List<String> files,
     LocalDate fromDate,
     LocalDate toDate,
-    int requestsNumber,
+    long requestsNumber,
     double requestAverageSize,
     double percentile95,
-    Map<String, Integer> requestedResources,
-    Map<Short, Integer> responseCodes,
-    Map<Integer, Integer> requestsNumberByHour,
-    Map<String, Integer> requestsNumberByRemoteAddress
+    Object2LongMap<String> requestedResources,
+    Short2LongMap responseCodes,
+    Int2LongMap requestsNumberByHour,
+    Object2LongMap<String> requestsNumberByRemoteAddress,
+    DistinctCounts distinctCounts,
+    SizeQuantiles sizeQuantiles
 ) {
 
+    /**
+     * Allows getting the quantiles of the response size by status classes and hours in the form of a table
+     *
+     * @return table contains the quantiles of the response size
+     */
+    public List<List<String>> getSizeQuantilesAsTable() {
+        return toTable(getSizeQuantilesAsRows());
+    }
+
+    /**
+     * Allows getting the quantiles of the response size by status classes and hours row by row
+     * (the first row is the header, the rows are created while they are iterated)
+     *
+     * @return rows of the table of the quantiles of the response size
+     */
+    public Iterable<List<String>> getSizeQuantilesAsRows() {
+        List<String> header = new ArrayList<>(List.of("Класс ответа", "Часы", "Количество"));
+        for (double quantile : sizeQuantiles.quantiles()) {
+            header.add("p" + BigDecimal.valueOf(quantile * PERCENT).stripTrailingZeros().toPlainString());
+        }
+        return rows(header, sizeQuantiles.rows(), row -> {
+            List<String> cells = new ArrayList<>(header.size());
+            cells.add(row.statusClass() == SizeQuantiles.OTHER_STATUS_CLASS ? "Другие" : row.statusClass() + "xx");
+            cells.add(row.hour() == SizeQuantiles.ALL_HOURS ? "Все" : formatHour(row.hour()));
+            cells.add(String.valueOf(row.count()));
+            for (double value : row.values()) {
+                cells.add(String.valueOf((long) value));
+            }
+            return cells;
+        });
+    }
+
     /**
      * Allow getting info about requests number by hours in the form of a table
      *
      * @return table contains info about requests number by hour
      */
     public List<List<String>> getRequestsNumberByRemoteAddressAsTable() {
-        List<List<String>> table = new ArrayList<>(requestsNumberByRemoteAddress.size());
-        table.add(List.of("Адрес пользователя", "Количество запросов с адреса"));
-        for (Map.Entry<String, Integer> row : requestsNumberByRemoteAddress.entrySet()) {
-            table.add(List.of(row.getKey(), row.getValue().toString()));
-        }
-        return table;
+        return toTable(getRequestsNumberByRemoteAddressAsRows());
+    }
+
+    /**
+     * Allow getting info about requests number by addresses row by row
+     * (the first row is the header, the rows are created while they are iterated)
+     *
+     * @return rows of the table of requests number by address
+     */
+    public Iterable<List<String>> getRequestsNumberByRemoteAddressAsRows() {
+        return rows(List.of("Адрес пользователя", "Количество запросов с адреса"),
+            Object2LongMaps.fastIterable(requestsNumberByRemoteAddress),
+            row -> List.of(row.getKey(), String.valueOf(row.getLongValue())));
     }
 
     /**
@@ -55,16 +110,24 @@ public record LogReport(
      * @return table contains info about requests number by hour
      */
     public List<List<String>> getRequestsNumberByHourAsTable() {
-        List<List<String>> table = new ArrayList<>(requestsNumberByHour.size());
-        table.add(List.of("Часы", "Количество за час"));
-        for (Map.Entry<Integer, Integer> row : requestsNumberByHour.entrySet()) {
-            table.add(List.of(
-                LocalTime.of(row.getKey(), LocalTime.MIN.getMinute()).toString()
-                    + " - "
-                    + LocalTime.of(row.getKey(), LocalTime.MAX.getMinute()).toString(),
-                row.getValue().toString()));
-        }
-        return table;
+        return toTable(getRequestsNumberByHourAsRows());
+    }
+
+    /**
+     * Allow getting info about requests number by hours row by row
+     * (the first row is the header, the rows are created while they are iterated)
+     *
+     * @return rows of the table of requests number by hour
+     */
+    public Iterable<List<String>> getRequestsNumberByHourAsRows() {
+        return rows(List.of("Часы", "Количество за час"), Int2LongMaps.fastIterable(requestsNumberByHour),
+            row -> List.of(formatHour(row.getIntKey()), String.valueOf(row.getLongValue())));
+    }
+
+    private static String formatHour(int hour) {
+        return LocalTime.of(hour, LocalTime.MIN.getMinute()).toString()
+            + " - "
+            + LocalTime.of(hour, LocalTime.MAX.getMinute()).toString();
     }
 
     /**
@@ -73,12 +136,19 @@ public record LogReport(
      * @return table contains info about response codes
      */
     public List<List<String>> getResponseCodesAsTable() {
-        List<List<String>> table = new ArrayList<>(responseCodes.size());
-        table.add(List.of("Код", "Имя", "Всего"));
-        for (Map.Entry<Short, Integer> row : responseCodes.entrySet()) {
-            table.add(List.of(String.valueOf(row.getKey()), CODES.get(row.getKey()), String.valueOf(row.getValue())));
-        }
-        return table;
+        return toTable(getResponseCodesAsRows());
+    }
+
+    /**
+     * Allows getting info about response codes row by row
+     * (the first row is the header, the rows are created while they are iterated)
+     *
+     * @return rows of the table of response codes
+     */
+    public Iterable<List<String>> getResponseCodesAsRows() {
+        return rows(List.of("Код", "Имя", "Всего"), Short2LongMaps.fastIterable(responseCodes),
+            row -> List.of(String.valueOf(row.getShortKey()), CODES.get(row.getShortKey()),
+                String.valueOf(row.getLongValue())));
     }
 
     /**
@@ -87,12 +157,19 @@ public record LogReport(
      * @return table contains info about requested resources
      */
     public List<List<String>> getResourcesAsTable() {
-        List<List<String>> table = new ArrayList<>(requestedResources.size());
-        table.add(List.of("Ресурс", "Количество"));
-        for (Map.Entry<String, Integer> row : requestedResources.entrySet()) {
-            table.add(List.of(row.getKey(), String.valueOf(row.getValue())));
-        }
-        return table;
+        return toTable(getResourcesAsRows());
+    }
+
+    /**
+     * Allows getting info about requested resources row by row
+     * (the first row is the header, the rows are created while they are iterated),
+     * so the table of all the resources is not built in memory
+     *
+     * @return rows of the table of requested resources
+     */
+    public Iterable<List<String>> getResourcesAsRows() {
+        return rows(List.of("Ресурс", "Количество"), Object2LongMaps.fastIterable(requestedResources),
+            row -> List.of(row.getKey(), String.valueOf(row.getLongValue())));
     }
 
     /**
@@ -109,6 +186,41 @@ public record LogReport(
         table.add(List.of("Количество запросов", String.valueOf(requestsNumber)));
         table.add(List.of("Средний размер ответа", String.valueOf((int) requestAverageSize)));
         table.add(List.of("95p размера ответа", String.valueOf((int) percentile95)));
+        table.add(List.of("Уникальных IP-адресов (≈)", String.valueOf(distinctCounts.remoteAddresses())));
+        table.add(List.of("Уникальных User-Agent (≈)", String.valueOf(distinctCounts.userAgents())));
+        table.add(List.of("Уникальных путей запросов (≈)", String.valueOf(distinctCounts.requestPaths())));
+        return table;
+    }
+
+    /**
+     * Creates the rows of the table: the header goes first, then every entry is turned
+     * into the row when the iterator reaches it
+     */
+    private static <E> Iterable<List<String>> rows(List<String> header, Iterable<E> entries,
+        Function<E, List<String>> toRow) {
+        return () -> new Iterator<>() {
+            private final Iterator<E> iterator = entries.iterator();
+            private boolean headerReturned;
+
+            @Override
+            public boolean hasNext() {
+                return !headerReturned || iterator.hasNext();
+            }
+
+            @Override
+            public List<String> next() {
+                if (!headerReturned) {
+                    headerReturned = true;
+                    return header;
+                }
+                return toRow.apply(iterator.next());
+            }
+        };
+    }
+
+    private static List<List<String>> toTable(Iterable<List<String>> rows) {
+        List<List<String>> table = new ArrayList<>();
+        rows.forEach(table::add);
         return table;
     }
 
@@ -190,4 +302,6 @@ public record LogReport(
         Map.entry((short) 525, "SSL Handshake Failed"),
         Map.entry((short) 526, "Invalid SSL Certificate")
     );
+
+    private static final int PERCENT = 100;
 }
@@ -0,0 +1,34 @@
+package backend.academy.log;
+
+import java.util.List;
+
+/**
+ * The class contains the quantiles of the response size
+ * for every status class and hour
+ *
+ * @param quantiles the computed quantiles (for example, 0.5 and 0.99)
+ * @param rows      the values of the quantiles: for every status class the row for the whole day
+ *                  goes first, then the rows for the hours in ascending order
+ */
+public record SizeQuantiles(List<Double> quantiles, List<Row> rows) {
+    /**
+     * The hour of the row containing the quantiles for the whole day
+     */
+    public static final int ALL_HOURS = -1;
+
+    /**
+     * The status class of the row containing the codes outside the range from 100 to 599
+     */
+    public static final int OTHER_STATUS_CLASS = 0;
+
+    /**
+     * The quantiles of the response size of the bucket
+     *
+     * @param statusClass the first digit of the response codes or {@link #OTHER_STATUS_CLASS}
+     * @param hour        the hour of the requests or {@link #ALL_HOURS}
+     * @param count       the number of the requests in the bucket
+     * @param values      the response sizes at the quantiles (in the order of the quantiles)
+     */
+    public record Row(int statusClass, int hour, long count, List<Double> values) {
+    }
+}
@@ -0,0 +1,85 @@
+package backend.academy.parser.impl;
+
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMaps;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The counter keeps the exact count of every distinct key.
+ * When only a few most frequent keys are requested, they are selected
+ * by the bounded heap instead of sorting all the keys
+ */
+final class ExactKeyCounter implements KeyCounter {
+    private final Object2LongOpenHashMap<String> counters = new Object2LongOpenHashMap<>();
+    private final Comparator<String> order = (first, second) -> {
+        int byValue = Long.compare(counters.getLong(second), counters.getLong(first));
+        return byValue != 0 ? byValue : first.compareTo(second);
+    };
+
+    @Override
+    public void add(String key) {
+        counters.addTo(key, 1);
+    }
+
+    @Override
+    public void merge(KeyCounter other) {
+        for (Object2LongMap.Entry<String> entry : Object2LongMaps.fastIterable(((ExactKeyCounter) other).counters)) {
+            counters.addTo(entry.getKey(), entry.getLongValue());
+        }
+    }
+
+    @Override
+    public Object2LongMap<String> top(int limit) {
+        List<String> keys = limit < counters.size() ? selectTop(limit) : new ObjectArrayList<>(counters.keySet());
+        keys.sort(order);
+
+        Object2LongLinkedOpenHashMap<String> sorted = new Object2LongLinkedOpenHashMap<>(keys.size());
+        for (String key : keys) {
+            sorted.put(key, counters.getLong(key));
+        }
+        return sorted;
+    }
+
+    @Override
+    public void write(DataOutput output) throws IOException {
+        output.writeInt(counters.size());
+        for (Object2LongMap.Entry<String> entry : Object2LongMaps.fastIterable(counters)) {
+            ReportSnapshots.writeString(output, entry.getKey());
+            output.writeLong(entry.getLongValue());
+        }
+    }
+
+    @Override
+    public void read(DataInput input) throws IOException {
+        int size = ReportSnapshots.readSize(input);
+        counters.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            counters.addTo(ReportSnapshots.readString(input), input.readLong());
+        }
+    }
+
+    /**
+     * Selects the keys using the heap of the given size: the head of the heap
+     * is the least frequent of the selected keys and it is replaced by the more frequent key
+     */
+    private List<String> selectTop(int limit) {
+        PriorityQueue<String> heap = new PriorityQueue<>(limit + 1, order.reversed());
+        for (String key : counters.keySet()) {
+            if (heap.size() < limit) {
+                heap.add(key);
+            } else if (limit > 0 && order.compare(key, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(key);
+            }
+        }
+        return new ObjectArrayList<>(heap);
+    }
+}
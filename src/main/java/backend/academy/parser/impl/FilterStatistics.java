@@ -0,0 +1,19 @@
+package backend.academy.parser.impl;
+
+/**
+ * The class contains the number of the lines rejected at each stage of filtering
+ *
+ * @param linesRead             number of the lines read from the log files
+ * @param skippedByLineFilter   number of the lines rejected before creating the records
+ * @param skippedByRecordFilter number of the records rejected after parsing
+ */
+public record FilterStatistics(long linesRead, long skippedByLineFilter, long skippedByRecordFilter) {
+    /**
+     * Gets the number of the records that passed all the filters
+     *
+     * @return number of the accepted records
+     */
+    public long accepted() {
+        return linesRead - skippedByLineFilter - skippedByRecordFilter;
+    }
+}
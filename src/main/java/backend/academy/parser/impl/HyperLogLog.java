@@ -0,0 +1,160 @@
+package backend.academy.parser.impl;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+/**
+ * The class estimates the number of the distinct strings in the fixed memory
+ * using the HyperLogLog sketch: the string is hashed, the first bits of the hash
+ * choose the register and the register keeps the maximal position of the first
+ * one bit among the rest of the bits.
+ * The sketch has 2^13 one-byte registers (8 KB), the relative standard error
+ * of the estimate is about 1.1%. The estimate is calculated by the improved
+ * estimator of O. Ertl, which does not need bias correction for the small
+ * and the large numbers. The sketches built by different threads are merged
+ * by taking the maximum of each register, so the result does not depend
+ * on the order of processing
+ */
+public class HyperLogLog {
+    private final byte[] registers = new byte[REGISTERS_NUMBER];
+
+    /**
+     * Adds the string to the sketch
+     *
+     * @param value counted string
+     */
+    public void add(String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        long rest = hash << PRECISION | 1L << (PRECISION - 1);
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (registers[index] < rank) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Adds the strings counted by another sketch to this one
+     *
+     * @param other partial sketch (for example, built by another thread)
+     * @return this sketch
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS_NUMBER; i++) {
+            if (registers[i] < other.registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Writes the registers of the sketch (see {@link ReportSnapshots})
+     *
+     * @param output binary output
+     * @throws IOException if an error occurs while writing
+     */
+    void write(DataOutput output) throws IOException {
+        output.write(registers);
+    }
+
+    /**
+     * Reads the registers written by {@link #write} and adds them to the sketch
+     *
+     * @param input binary input
+     * @throws IOException if an error occurs while reading or the registers are incorrect
+     */
+    void read(DataInput input) throws IOException {
+        byte[] other = new byte[REGISTERS_NUMBER];
+        input.readFully(other);
+        for (int i = 0; i < REGISTERS_NUMBER; i++) {
+            if (other[i] < 0 || other[i] > MAX_RANK) {
+                throw new StreamCorruptedException("Некорректный регистр HyperLogLog: " + other[i]);
+            }
+            registers[i] = (byte) Math.max(registers[i], other[i]);
+        }
+    }
+
+    /**
+     * Estimates the number of the distinct added strings
+     *
+     * @return estimated number of the distinct strings
+     */
+    public long estimate() {
+        int[] histogram = new int[MAX_RANK + 1];
+        for (byte register : registers) {
+            histogram[register]++;
+        }
+
+        double z = REGISTERS_NUMBER * tau(1 - (double) histogram[MAX_RANK] / REGISTERS_NUMBER);
+        for (int rank = MAX_RANK - 1; rank >= 1; rank--) {
+            z = (z + histogram[rank]) / 2;
+        }
+        z += REGISTERS_NUMBER * sigma((double) histogram[0] / REGISTERS_NUMBER);
+        return Math.round(ALPHA * REGISTERS_NUMBER * REGISTERS_NUMBER / z);
+    }
+
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double square = x;
+        double power = 1;
+        double result = x;
+        double previous;
+        do {
+            square *= square;
+            previous = result;
+            result += square * power;
+            power += power;
+        } while (result != previous);
+        return result;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double root = x;
+        double power = 1;
+        double result = 1 - x;
+        double previous;
+        do {
+            root = Math.sqrt(root);
+            previous = result;
+            power /= 2;
+            result -= (1 - root) * (1 - root) * power;
+        } while (result != previous);
+        return result / TAU_DIVISOR;
+    }
+
+    /**
+     * Calculates the 64-bit hash of the string (FNV-1a followed by the MurmurHash3 finalizer)
+     * without encoding the string into bytes
+     */
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_FIRST_MULTIPLIER;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_SECOND_MULTIPLIER;
+        hash ^= hash >>> MIX_SHIFT;
+        return hash;
+    }
+
+    private static final int PRECISION = 13;
+    private static final int REGISTERS_NUMBER = 1 << PRECISION;
+    private static final int MAX_RANK = Long.SIZE - PRECISION + 1;
+    private static final double ALPHA = 1 / (2 * Math.log(2));
+    private static final double TAU_DIVISOR = 3;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int MIX_SHIFT = 33;
+    private static final long MIX_FIRST_MULTIPLIER = 0xff51afd7ed558ccdL;
+    private static final long MIX_SECOND_MULTIPLIER = 0xc4ceb9fe1a85ec53L;
+}
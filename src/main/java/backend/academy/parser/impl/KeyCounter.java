@@ -0,0 +1,54 @@
+package backend.academy.parser.impl;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The interface provides operations to count the occurrences of the string keys
+ * (for example, remote addresses) and to get the most frequent of them.
+ * The counters built by different threads can be merged into one.
+ * The state of the counter can be written in the binary form and read back
+ * into an empty counter of the same type (see {@link ReportSnapshots})
+ */
+interface KeyCounter {
+    /**
+     * Counts one occurrence of the key
+     *
+     * @param key counted key
+     */
+    void add(String key);
+
+    /**
+     * Adds the counts of another counter of the same type to this one
+     *
+     * @param other partial counter (for example, built by another thread)
+     */
+    void merge(KeyCounter other);
+
+    /**
+     * Gets the most frequent keys sorted by count in descending order,
+     * the keys with equal counts are sorted in natural order
+     *
+     * @param limit maximum number of the keys
+     * @return {@code Object2LongMap<String>} - the keys and their counts in the sorted order
+     */
+    Object2LongMap<String> top(int limit);
+
+    /**
+     * Writes the state of the counter
+     *
+     * @param output binary output
+     * @throws IOException if an error occurs while writing
+     */
+    void write(DataOutput output) throws IOException;
+
+    /**
+     * Reads the state written by the counter of the same type into this empty counter
+     *
+     * @param input binary input
+     * @throws IOException if an error occurs while reading or the state is incorrect
+     */
+    void read(DataInput input) throws IOException;
+}
@@ -0,0 +1,15 @@
+package backend.academy.parser.impl;
+
+/**
+ * The class contains the counters of the lines passed through the parsing.
+ * The counters are collected by every thread separately and summed at the end
+ *
+ * @param linesRead     number of the lines read from the log files by this run
+ * @param linesRestored number of the lines whose statistics are restored from the snapshots
+ * @param linesParsed   number of the lines successfully turned into the records
+ * @param parseFailures number of the lines which do not match the NGINX format
+ * @param linesFiltered number of the lines rejected by the filters (before or after parsing)
+ */
+public record LineCounters(long linesRead, long linesRestored, long linesParsed, long parseFailures,
+    long linesFiltered) {
+}
@@ -4,102 +4,237 @@ import backend.academy.filter.impl.LogFilter;
 import backend.academy.log.LogRecord;
 import backend.academy.log.LogReport;
 import backend.academy.parser.Parser;
-import com.datadoghq.sketch.ddsketch.DDSketch;
-import com.datadoghq.sketch.ddsketch.DDSketches;
+import backend.academy.parser.tokenizer.impl.LineSpans;
+import backend.academy.stats.ChunkParseEvent;
+import backend.academy.stats.FilterSelectivityEvent;
+import backend.academy.stats.ParseStepStatistics;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
+import lombok.Getter;
 
 /**
  * The class allows collecting statistics of the log files
- * using Stream API to transform, filter and collect data
+ * using Stream API to transform, filter and collect data.
+ * The lines are parsed by several threads into the partial statistics (see {@link ReportAccumulator}),
+ * the local files can be parsed with the snapshots (see {@link ReportSnapshots}) or followed (see {@link LogTail})
  */
+@Getter
 public class LogParser implements Parser {
+    private final int threads;
+    private final int topCapacity;
+    private final List<Double> quantiles;
+    private FilterStatistics filterStatistics = new FilterStatistics(0, 0, 0);
+    private LineCounters lineCounters = new LineCounters(0, 0, 0, 0, 0);
+    private List<ParseStepStatistics> stepStatistics = List.of();
+
+    public LogParser() {
+        this(1);
+    }
+
+    /**
+     * Parameterized constructor sets the number of threads used for parsing
+     *
+     * @param threads number of threads (1 means sequential processing)
+     */
+    public LogParser(int threads) {
+        this(threads, 0);
+    }
+
+    /**
+     * Parameterized constructor sets the number of threads and the way
+     * of counting the resources and the addresses
+     *
+     * @param threads     number of threads (1 means sequential processing)
+     * @param topCapacity number of the resources and the addresses monitored by the approximate top
+     *                    or 0 if they are counted exactly
+     */
+    public LogParser(int threads, int topCapacity) {
+        this(threads, topCapacity, DEFAULT_QUANTILES);
+    }
+
+    /**
+     * Parameterized constructor sets the number of threads, the way
+     * of counting the resources and the addresses and the quantiles of the response size
+     *
+     * @param threads     number of threads (1 means sequential processing)
+     * @param topCapacity number of the resources and the addresses monitored by the approximate top
+     *                    or 0 if they are counted exactly
+     * @param quantiles   quantiles of the response size computed for every status class and hour
+     */
+    public LogParser(int threads, int topCapacity, List<Double> quantiles) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть положительным");
+        }
+        if (topCapacity < 0) {
+            throw new IllegalArgumentException("Размер приближённого топа не может быть отрицательным");
+        }
+        if (quantiles.isEmpty() || quantiles.stream().anyMatch(quantile -> !(quantile >= 0 && quantile <= 1))) {
+            throw new IllegalArgumentException("Квантили должны находиться в диапазоне от 0 до 1");
+        }
+        this.threads = threads;
+        this.topCapacity = topCapacity;
+        this.quantiles = List.copyOf(quantiles);
+    }
+
     @Override
     public LogReport parse(
         List<Map.Entry<String, Stream<String>>> logRecords, LocalDate fromDate, LocalDate toDate,
         String filterField, String filterValue
     ) {
-        List<String> files = new ArrayList<>();
-        AtomicInteger requestsNumber = new AtomicInteger();
-        AtomicLong requestSizeSum = new AtomicLong();
-        Map<String, Integer> requestedResources = new LinkedHashMap<>();
-        Map<Short, Integer> responseCodes = new LinkedHashMap<>();
-        DDSketch ddSketch = DDSketches.unboundedDense(RELATIVE_ACCURACY);
-        Map<Integer, Integer> numberOfRequestsByHour = new LinkedHashMap<>();
-        Map<String, Integer> numberOfRequestsByRemoteAddress = new LinkedHashMap<>();
-
-        logRecords.stream().map(i -> Map.entry(i.getKey(), LogRecord.parseStringStreamToLogRecordStream(i.getValue())))
-            .forEach(i -> {
-                files.add(i.getKey());
-                i.getValue()
-                    .filter(
-                        logRecord -> (new LogFilter().filter(logRecord, fromDate, toDate, filterField, filterValue)))
-                    .sorted(new LogRecord.BodySizeInBytesComparator())
-                    .forEach(j -> {
-                        ddSketch.accept(j.bodyBytesSent());
-
-                        requestsNumber.getAndIncrement();
-
-                        requestSizeSum.getAndAdd(j.bodyBytesSent());
-
-                        String[] reqSourcePath = j.request().requestSource().split("/");
-                        String reqSourceKey = '/' + reqSourcePath[reqSourcePath.length - 1];
-                        requestedResources.merge(reqSourceKey, 1, Integer::sum);
-
-                        if (responseCodes.containsKey(j.status())) {
-                            responseCodes.put(j.status(), responseCodes.get(j.status()) + 1);
-                        } else {
-                            responseCodes.put(j.status(), 1);
-                        }
-
-                        int reqHour = j.timeLocal().getHour();
-                        numberOfRequestsByHour.merge(reqHour, 1, Integer::sum);
-
-                        String remoteAddress = j.remoteAddress();
-                        numberOfRequestsByRemoteAddress.merge(remoteAddress, 1, Integer::sum);
-                    });
-            });
-
-        if (requestsNumber.get() == 0) {
+        List<String> files = logRecords.stream().map(Map.Entry::getKey).toList();
+        LogFilter logFilter = new LogFilter();
+        Filters filters = new Filters(
+            logFilter.compileLocatedLine(fromDate, toDate, filterField, filterValue),
+            logFilter.compile(fromDate, toDate, filterField, filterValue));
+
+        ReportAccumulator reportAccumulator;
+        if (threads == 1) {
+            reportAccumulator = parseFiles(logRecords.stream(), filters, false);
+        } else {
+            reportAccumulator = parseInParallel(() -> parseFiles(logRecords.parallelStream(), filters, true));
+        }
+        FilterSelectivityEvent.emit(filterField, filterValue, reportAccumulator.filterStatistics());
+        return toReport(reportAccumulator, files, fromDate, toDate);
+    }
+
+    /**
+     * Collects statistics of the local log files using the snapshots: only the part of the file
+     * that was not processed by the previous runs is parsed, then the snapshot is updated.
+     * The snapshots of the files which no longer exist are deleted at the end
+     *
+     * @param logFiles    paths to the local log files
+     * @param snapshots   storage of the snapshots
+     * @param fromDate    the earliest date for a file
+     * @param toDate      the latest date for a file
+     * @param filterField field for additional filtering
+     * @param filterValue value for additional filtering
+     * @return {@code LogReport} object or null if there are no suitable records
+     */
+    public LogReport parseWithSnapshots(
+        List<Path> logFiles, ReportSnapshots snapshots, LocalDate fromDate, LocalDate toDate,
+        String filterField, String filterValue
+    ) {
+        List<String> files = logFiles.stream().map(file -> file.getFileName().toString()).toList();
+        LogFilter logFilter = new LogFilter();
+        Filters filters = new Filters(
+            logFilter.compileLocatedLine(fromDate, toDate, filterField, filterValue),
+            logFilter.compile(fromDate, toDate, filterField, filterValue));
+        String configuration = String.join("\n",
+            String.valueOf(fromDate), String.valueOf(toDate), String.valueOf(filterField), String.valueOf(filterValue));
+
+        ReportAccumulator reportAccumulator;
+        if (threads == 1) {
+            reportAccumulator = parseFiles(logFiles.stream(), snapshots, configuration, filters, false);
+        } else {
+            reportAccumulator = parseInParallel(
+                () -> parseFiles(logFiles.parallelStream(), snapshots, configuration, filters, true));
+        }
+        snapshots.prune();
+        FilterSelectivityEvent.emit(filterField, filterValue, reportAccumulator.filterStatistics());
+        return toReport(reportAccumulator, files, fromDate, toDate);
+    }
+
+    /**
+     * Creates the object following the growing local log files: every update parses only
+     * the lines appended since the previous update (see {@link LogTail})
+     *
+     * @param fromDate    the earliest date for a file
+     * @param toDate      the latest date for a file
+     * @param filterField field for additional filtering
+     * @param filterValue value for additional filtering
+     * @return {@code LogTail} object
+     */
+    public LogTail follow(LocalDate fromDate, LocalDate toDate, String filterField, String filterValue) {
+        LogFilter logFilter = new LogFilter();
+        Filters filters = new Filters(
+            logFilter.compileLocatedLine(fromDate, toDate, filterField, filterValue),
+            logFilter.compile(fromDate, toDate, filterField, filterValue));
+
+        return new LogTail((lines, parallel) -> parallel && threads > 1
+            ? parseInParallel(() -> parseFile(lines, filters, true))
+            : parseFile(lines, filters, false), topCapacity, quantiles, fromDate, toDate);
+    }
+
+    private LogReport toReport(ReportAccumulator reportAccumulator, List<String> files, LocalDate fromDate,
+        LocalDate toDate) {
+        filterStatistics = reportAccumulator.filterStatistics();
+        lineCounters = reportAccumulator.lineCounters();
+        stepStatistics = reportAccumulator.stepStatistics();
+
+        if (reportAccumulator.isEmpty()) {
             return null;
         }
 
-        return new LogReport(
-            files,
-            fromDate,
-            toDate,
-            requestsNumber.get(),
-            (double) requestSizeSum.get() / requestsNumber.get(),
-            ddSketch.getValueAtQuantile(PERCENTILE_95),
-            requestedResources.entrySet().stream()
-                .sorted(Collections.reverseOrder(Map.Entry.comparingByValue()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1,
-                    LinkedHashMap::new)),
-            responseCodes.entrySet().stream()
-                .sorted(Collections.reverseOrder(Map.Entry.comparingByValue()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1,
-                    LinkedHashMap::new)),
-            numberOfRequestsByHour.entrySet().stream()
-                .sorted(Collections.reverseOrder(Map.Entry.comparingByValue()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1,
-                    LinkedHashMap::new)),
-            numberOfRequestsByRemoteAddress.entrySet().stream()
-                .sorted(Collections.reverseOrder(Map.Entry.comparingByValue()))
-                .limit(REMOTE_ADDRESS_COUNT_LIMIT)
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1,
-                    LinkedHashMap::new))
-        );
+        return reportAccumulator.toReport(files, fromDate, toDate, quantiles);
+    }
+
+    private ReportAccumulator parseInParallel(Callable<ReportAccumulator> task) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Разбор логов был прерван", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ReportAccumulator parseFiles(
+        Stream<Map.Entry<String, Stream<String>>> logFiles, Filters filters, boolean parallel
+    ) {
+        return logFiles
+            .map(logFile -> parseFile(logFile.getValue(), filters, parallel))
+            .collect(() -> new ReportAccumulator(topCapacity), ReportAccumulator::merge, ReportAccumulator::merge);
+    }
+
+    private ReportAccumulator parseFiles(
+        Stream<Path> logFiles, ReportSnapshots snapshots, String configuration, Filters filters, boolean parallel
+    ) {
+        return logFiles
+            .map(logFile -> parseFile(logFile, snapshots, configuration, filters, parallel))
+            .collect(() -> new ReportAccumulator(topCapacity), ReportAccumulator::merge, ReportAccumulator::merge);
+    }
+
+    private ReportAccumulator parseFile(
+        Path logFile, ReportSnapshots snapshots, String configuration, Filters filters, boolean parallel
+    ) {
+        return snapshots.collect(logFile, configuration, topCapacity, lines -> parseFile(lines, filters, parallel));
+    }
+
+    private ReportAccumulator parseFile(Stream<String> lines, Filters filters, boolean parallel) {
+        ChunkParseEvent event = new ChunkParseEvent();
+        event.begin();
+        ReportAccumulator reportAccumulator;
+        try (Stream<String> logLines = parallel ? lines.parallel() : lines) {
+            reportAccumulator = logLines.collect(
+                () -> new ReportAccumulator(topCapacity),
+                (accumulator, line) -> accumulator.accept(line, filters.line(), filters.logRecord()),
+                ReportAccumulator::merge);
+        }
+        event.finish(reportAccumulator.lineCounters(), parallel);
+        return reportAccumulator;
+    }
+
+    private record Filters(BiPredicate<String, LineSpans> line, Predicate<LogRecord> logRecord) {
     }
 
-    private static final double PERCENTILE_95 = 0.95;
-    private static final double RELATIVE_ACCURACY = 0.01;
-    private static final int REMOTE_ADDRESS_COUNT_LIMIT = 5;
+    /**
+     * Quantiles of the response size computed if they are not set
+     */
+    @SuppressWarnings("checkstyle:magicnumber")
+    public static final List<Double> DEFAULT_QUANTILES = List.of(0.5, 0.9, 0.99, 0.999);
 }
@@ -0,0 +1,201 @@
+package backend.academy.parser.impl;
+
+import backend.academy.log.LogReport;
+import backend.academy.path.impl.GzipLogReader;
+import backend.academy.path.impl.LocalPathHandler;
+import backend.academy.path.impl.MappedLogReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * The class follows the growing local log files: every update reads only the complete lines
+ * appended to the files since the previous update and adds them to the statistics.
+ * The files are identified by the file key (the device and the inode in Unix), so the file
+ * renamed by the rotation keeps its position and the new file with the same name
+ * is read from the beginning. If the file becomes shorter (it has been truncated),
+ * it is read from the beginning, the statistics of the previous contents are kept.
+ * The statistics of the files that are no longer found are merged into one accumulator,
+ * so the memory does not grow with the number of the rotations (the top of the resources
+ * and the addresses should be approximate to keep the memory constant).
+ * The compressed files are read only by the first update: they are the rotated files
+ * whose contents have already been read or were read as the history
+ */
+public class LogTail {
+    private final LineParser parser;
+    private final int topCapacity;
+    private final List<Double> quantiles;
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+    private final Map<Object, FollowedFile> followedFiles = new HashMap<>();
+    private final ReportAccumulator removedFiles;
+    private final LongAdder bytesRead = new LongAdder();
+    private List<String> files = List.of();
+    private boolean started;
+
+    LogTail(LineParser parser, int topCapacity, List<Double> quantiles, LocalDate fromDate, LocalDate toDate) {
+        this.parser = parser;
+        this.topCapacity = topCapacity;
+        this.quantiles = quantiles;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.removedFiles = new ReportAccumulator(topCapacity);
+    }
+
+    /**
+     * Reads the lines appended to the files since the previous update
+     *
+     * @param logFiles currently found log files
+     * @throws UncheckedIOException if an error occurs while reading the files
+     */
+    public void update(List<Path> logFiles) {
+        Set<Object> found = new HashSet<>();
+        for (Path file : logFiles) {
+            try {
+                Object fileKey = fileKey(file);
+                found.add(fileKey);
+                FollowedFile followed = followedFiles.get(fileKey);
+                if (followed == null) {
+                    followed = new FollowedFile(new ReportAccumulator(topCapacity), GzipLogReader.isGzip(file));
+                    followedFiles.put(fileKey, followed);
+                    if (followed.compressed && started) {
+                        continue;
+                    }
+                }
+                read(file, followed);
+            } catch (NoSuchFileException e) {
+                // the file has been removed after it was found, it is read by the next update if it appears again
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        followedFiles.entrySet().removeIf(entry -> {
+            if (found.contains(entry.getKey())) {
+                return false;
+            }
+            removedFiles.merge(entry.getValue().accumulator);
+            return true;
+        });
+        files = logFiles.stream().map(file -> file.getFileName().toString()).toList();
+        started = true;
+    }
+
+    /**
+     * Creates the report from the statistics of all the lines read so far
+     *
+     * @return {@code LogReport} object or null if there are no suitable records
+     */
+    public LogReport toReport() {
+        ReportAccumulator total = collect();
+        return total.isEmpty() ? null : total.toReport(files, fromDate, toDate, quantiles);
+    }
+
+    /**
+     * Gets the number of the lines rejected at each stage of filtering so far
+     *
+     * @return {@code FilterStatistics} object
+     */
+    public FilterStatistics filterStatistics() {
+        return collect().filterStatistics();
+    }
+
+    /**
+     * Gets the counters of the read and parsed lines so far
+     *
+     * @return {@code LineCounters} object
+     */
+    public LineCounters lineCounters() {
+        return collect().lineCounters();
+    }
+
+    /**
+     * Gets the number of the bytes read from the files by all the updates
+     *
+     * @return number of the read bytes
+     */
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    private ReportAccumulator collect() {
+        ReportAccumulator total = new ReportAccumulator(topCapacity).merge(removedFiles);
+        for (FollowedFile followed : followedFiles.values()) {
+            total.merge(followed.accumulator);
+        }
+        return total;
+    }
+
+    private void read(Path file, FollowedFile followed) throws IOException {
+        long size = Files.size(file);
+        if (followed.compressed) {
+            if (followed.offset == 0) {
+                followed.accumulator.merge(parser.parse(LocalPathHandler.open(file, bytesRead), true));
+                followed.offset = size;
+            }
+            return;
+        }
+
+        if (size < followed.offset) {
+            followed.offset = 0;
+        }
+        long end = MappedLogReader.completeLinesEnd(file, followed.offset, size);
+        if (end > followed.offset) {
+            Stream<String> lines = LocalPathHandler.open(file, followed.offset, end, bytesRead);
+            followed.accumulator.merge(parser.parse(lines, end - followed.offset >= PARALLEL_SIZE));
+            followed.offset = end;
+        }
+    }
+
+    private static Object fileKey(Path file) throws IOException {
+        Object fileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        return fileKey != null ? fileKey : file.toAbsolutePath().normalize();
+    }
+
+    /**
+     * The function collecting the statistics of the lines
+     */
+    @FunctionalInterface
+    interface LineParser {
+        /**
+         * Collects the statistics of the lines
+         *
+         * @param lines    lines of the log file
+         * @param parallel true if there are enough lines to process them in parallel
+         * @return statistics of the lines
+         */
+        ReportAccumulator parse(Stream<String> lines, boolean parallel);
+    }
+
+    /**
+     * The state of the followed file: the offset after the last read line
+     * and the statistics of the read lines
+     */
+    private static final class FollowedFile {
+        private final ReportAccumulator accumulator;
+        private final boolean compressed;
+        private long offset;
+
+        private FollowedFile(ReportAccumulator accumulator, boolean compressed) {
+            this.accumulator = accumulator;
+            this.compressed = compressed;
+        }
+    }
+
+    /**
+     * Capacity of the approximate top used in the follow mode if the capacity is not set
+     */
+    public static final int DEFAULT_TOP_CAPACITY = 10_000;
+    private static final long PARALLEL_SIZE = 8L * 1024 * 1024;
+}
@@ -0,0 +1,427 @@
+package backend.academy.parser.impl;
+
+import backend.academy.log.DistinctCounts;
+import backend.academy.log.LogRecord;
+import backend.academy.log.LogReport;
+import backend.academy.parser.tokenizer.impl.LineSpans;
+import backend.academy.parser.tokenizer.impl.NginxLogTokenizer;
+import backend.academy.stats.ParseStep;
+import backend.academy.stats.ParseStepStatistics;
+import com.datadoghq.sketch.ddsketch.DDSketch;
+import com.datadoghq.sketch.ddsketch.DDSketches;
+import it.unimi.dsi.fastutil.ints.Int2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.shorts.Short2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2LongMap;
+import it.unimi.dsi.fastutil.shorts.Short2LongMaps;
+import it.unimi.dsi.fastutil.shorts.Short2LongOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.ShortArrays;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * The class accumulates statistics of the log records one by one.
+ * Only the counters and the sketches are kept, the records themselves are not stored,
+ * so the memory does not depend on the number of processed records.
+ * Partial accumulators built by different threads can be merged into one
+ */
+public class ReportAccumulator {
+    private final DDSketch ddSketch = DDSketches.unboundedDense(RELATIVE_ACCURACY);
+    private final KeyCounter requestedResources;
+    private final long[] responseCodes = new long[RESPONSE_CODES_LIMIT];
+    private final Short2LongOpenHashMap unusualResponseCodes = new Short2LongOpenHashMap();
+    private final long[] numberOfRequestsByHour = new long[HOURS_PER_DAY];
+    private final KeyCounter numberOfRequestsByRemoteAddress;
+    private final HyperLogLog distinctRemoteAddresses = new HyperLogLog();
+    private final HyperLogLog distinctUserAgents = new HyperLogLog();
+    private final HyperLogLog distinctRequestPaths = new HyperLogLog();
+    private final SizeSketches sizeSketches = new SizeSketches();
+    private final long[] sampledStepNanos = new long[ParseStep.values().length];
+    private long requestsNumber;
+    private long requestSizeSum;
+    private long linesRead;
+    private long linesRestored;
+    private long skippedByLineFilter;
+    private long parseFailures;
+    private long skippedByRecordFilter;
+    private boolean sampled;
+    private long lapStart;
+
+    public ReportAccumulator() {
+        this(EXACT_TOP);
+    }
+
+    /**
+     * Parameterized constructor sets the way of counting the resources and the addresses
+     *
+     * @param topCapacity number of the monitored resources and addresses
+     *                    or 0 if all of them are counted exactly
+     */
+    public ReportAccumulator(int topCapacity) {
+        this.requestedResources = newKeyCounter(topCapacity);
+        this.numberOfRequestsByRemoteAddress = newKeyCounter(topCapacity);
+    }
+
+    /**
+     * Adds the record to the statistics
+     *
+     * @param logRecord record that passed the filters
+     */
+    public void accept(LogRecord logRecord) {
+        ddSketch.accept(logRecord.bodyBytesSent());
+
+        requestsNumber++;
+
+        requestSizeSum += logRecord.bodyBytesSent();
+
+        requestedResources.add(resourceName(logRecord.request().requestSource()));
+
+        short status = logRecord.status();
+        int hour = logRecord.timeLocal().getHour();
+        if (status >= 0 && status < RESPONSE_CODES_LIMIT) {
+            responseCodes[status]++;
+        } else {
+            unusualResponseCodes.addTo(status, 1);
+        }
+
+        numberOfRequestsByHour[hour]++;
+
+        sizeSketches.accept(status, hour, logRecord.bodyBytesSent());
+
+        numberOfRequestsByRemoteAddress.add(logRecord.remoteAddress());
+
+        distinctRemoteAddresses.add(logRecord.remoteAddress());
+        distinctUserAgents.add(logRecord.httpUserAgent());
+        distinctRequestPaths.add(logRecord.request().requestSource());
+    }
+
+    /**
+     * Gets the last part of the path with the leading slash
+     * (the same as the last non-empty element of {@code requestSource.split("/")})
+     */
+    private static String resourceName(String requestSource) {
+        int end = requestSource.length();
+        while (end > 0 && requestSource.charAt(end - 1) == '/') {
+            end--;
+        }
+        int slash = requestSource.lastIndexOf('/', end - 1);
+        if (slash >= 0) {
+            return end == requestSource.length() ? requestSource.substring(slash) : requestSource.substring(slash, end);
+        }
+        return end == 0 ? "/" : '/' + requestSource.substring(0, end);
+    }
+
+    /**
+     * Passes the line through the filters and adds the record to the statistics.
+     * The fields of the line are located once: the line filter checks them and the record
+     * is created from them. The line rejected by the line filter is not parsed,
+     * the line which cannot be parsed is skipped. Every 64th line is timed step by step,
+     * so the time of the steps is estimated without reading the clock for every line
+     *
+     * @param line         log in the form of a string
+     * @param lineFilter   check of the raw line and its located fields
+     * @param recordFilter check of the parsed record
+     */
+    public void accept(String line, BiPredicate<String, LineSpans> lineFilter, Predicate<LogRecord> recordFilter) {
+        sampled = linesRead++ % SAMPLING_INTERVAL == 0;
+        if (sampled) {
+            lapStart = System.nanoTime();
+        }
+        LineSpans spans = TOKENIZER.locate(line);
+        lap(ParseStep.TOKENIZE);
+        boolean passed = lineFilter.test(line, spans);
+        lap(ParseStep.FILTER);
+        if (!passed) {
+            skippedByLineFilter++;
+            return;
+        }
+        LogRecord logRecord;
+        try {
+            logRecord = LogRecord.newLogRecord(line, spans);
+        } catch (RuntimeException e) {
+            logRecord = null;
+        }
+        lap(ParseStep.PARSE);
+        if (logRecord == null) {
+            parseFailures++;
+            return;
+        }
+        passed = recordFilter.test(logRecord);
+        lap(ParseStep.FILTER);
+        if (!passed) {
+            skippedByRecordFilter++;
+            return;
+        }
+        accept(logRecord);
+        lap(ParseStep.AGGREGATE);
+    }
+
+    /**
+     * Adds the time since the previous lap to the step if the current line is sampled
+     */
+    private void lap(ParseStep step) {
+        if (sampled) {
+            long now = System.nanoTime();
+            sampledStepNanos[step.ordinal()] += now - lapStart;
+            lapStart = now;
+        }
+    }
+
+    /**
+     * Adds the statistics of another accumulator to this one
+     *
+     * @param other partial statistics (for example, collected by another thread)
+     * @return this accumulator
+     */
+    public ReportAccumulator merge(ReportAccumulator other) {
+        ddSketch.mergeWith(other.ddSketch);
+        requestsNumber += other.requestsNumber;
+        requestSizeSum += other.requestSizeSum;
+        linesRead += other.linesRead;
+        linesRestored += other.linesRestored;
+        skippedByLineFilter += other.skippedByLineFilter;
+        parseFailures += other.parseFailures;
+        skippedByRecordFilter += other.skippedByRecordFilter;
+        for (int i = 0; i < sampledStepNanos.length; i++) {
+            sampledStepNanos[i] += other.sampledStepNanos[i];
+        }
+        requestedResources.merge(other.requestedResources);
+        numberOfRequestsByRemoteAddress.merge(other.numberOfRequestsByRemoteAddress);
+        distinctRemoteAddresses.merge(other.distinctRemoteAddresses);
+        distinctUserAgents.merge(other.distinctUserAgents);
+        distinctRequestPaths.merge(other.distinctRequestPaths);
+        sizeSketches.merge(other.sizeSketches);
+        for (Short2LongMap.Entry entry : Short2LongMaps.fastIterable(other.unusualResponseCodes)) {
+            unusualResponseCodes.addTo(entry.getShortKey(), entry.getLongValue());
+        }
+        for (int i = 0; i < RESPONSE_CODES_LIMIT; i++) {
+            responseCodes[i] += other.responseCodes[i];
+        }
+        for (int i = 0; i < HOURS_PER_DAY; i++) {
+            numberOfRequestsByHour[i] += other.numberOfRequestsByHour[i];
+        }
+        return this;
+    }
+
+    /**
+     * Writes the accumulated statistics. The response codes and the hours
+     * are written as the pairs of the index and the counter of the non-empty cells
+     *
+     * @param output binary output
+     * @throws IOException if an error occurs while writing
+     */
+    void write(DataOutput output) throws IOException {
+        output.writeLong(requestsNumber);
+        output.writeLong(requestSizeSum);
+        output.writeLong(linesRead + linesRestored);
+        output.writeLong(skippedByLineFilter);
+        output.writeLong(parseFailures);
+        output.writeLong(skippedByRecordFilter);
+        ReportSnapshots.writeSketch(output, ddSketch);
+        writeCounters(output, responseCodes);
+        output.writeInt(unusualResponseCodes.size());
+        for (Short2LongMap.Entry entry : Short2LongMaps.fastIterable(unusualResponseCodes)) {
+            output.writeShort(entry.getShortKey());
+            output.writeLong(entry.getLongValue());
+        }
+        writeCounters(output, numberOfRequestsByHour);
+        requestedResources.write(output);
+        numberOfRequestsByRemoteAddress.write(output);
+        distinctRemoteAddresses.write(output);
+        distinctUserAgents.write(output);
+        distinctRequestPaths.write(output);
+        sizeSketches.write(output);
+    }
+
+    /**
+     * Reads the statistics written by {@link #write}
+     *
+     * @param input       binary input
+     * @param topCapacity capacity of the top used when the statistics were written
+     * @return accumulator containing the read statistics
+     * @throws IOException if an error occurs while reading or the statistics are incorrect
+     */
+    static ReportAccumulator read(DataInput input, int topCapacity) throws IOException {
+        ReportAccumulator accumulator = new ReportAccumulator(topCapacity);
+        accumulator.requestsNumber = input.readLong();
+        accumulator.requestSizeSum = input.readLong();
+        accumulator.linesRestored = input.readLong();
+        accumulator.skippedByLineFilter = input.readLong();
+        accumulator.parseFailures = input.readLong();
+        accumulator.skippedByRecordFilter = input.readLong();
+        ReportSnapshots.readSketch(input, accumulator.ddSketch);
+        readCounters(input, accumulator.responseCodes);
+        int unusualCodes = ReportSnapshots.readSize(input);
+        for (int i = 0; i < unusualCodes; i++) {
+            accumulator.unusualResponseCodes.addTo(input.readShort(), input.readLong());
+        }
+        readCounters(input, accumulator.numberOfRequestsByHour);
+        accumulator.requestedResources.read(input);
+        accumulator.numberOfRequestsByRemoteAddress.read(input);
+        accumulator.distinctRemoteAddresses.read(input);
+        accumulator.distinctUserAgents.read(input);
+        accumulator.distinctRequestPaths.read(input);
+        accumulator.sizeSketches.read(input);
+        return accumulator;
+    }
+
+    private static void writeCounters(DataOutput output, long[] counters) throws IOException {
+        int nonEmpty = (int) Arrays.stream(counters).filter(counter -> counter != 0).count();
+        output.writeInt(nonEmpty);
+        for (int i = 0; i < counters.length; i++) {
+            if (counters[i] != 0) {
+                output.writeShort(i);
+                output.writeLong(counters[i]);
+            }
+        }
+    }
+
+    private static void readCounters(DataInput input, long[] counters) throws IOException {
+        int nonEmpty = ReportSnapshots.readSize(input);
+        for (int i = 0; i < nonEmpty; i++) {
+            int index = input.readUnsignedShort();
+            if (index >= counters.length) {
+                throw new StreamCorruptedException("Некорректный номер счётчика: " + index);
+            }
+            counters[index] = input.readLong();
+        }
+    }
+
+    /**
+     * Checks if no records have been accumulated
+     *
+     * @return true if there are no records
+     */
+    public boolean isEmpty() {
+        return requestsNumber == 0;
+    }
+
+    /**
+     * Gets the number of the lines rejected at each stage of filtering
+     *
+     * @return {@code FilterStatistics} object
+     */
+    public FilterStatistics filterStatistics() {
+        return new FilterStatistics(linesRead + linesRestored, skippedByLineFilter, skippedByRecordFilter);
+    }
+
+    /**
+     * Gets the counters of the read and parsed lines. The lines of the statistics read from the snapshots
+     * are counted as restored, not as read
+     *
+     * @return {@code LineCounters} object
+     */
+    public LineCounters lineCounters() {
+        return new LineCounters(linesRead, linesRestored,
+            linesRead + linesRestored - skippedByLineFilter - parseFailures, parseFailures,
+            skippedByLineFilter + skippedByRecordFilter);
+    }
+
+    /**
+     * Gets the estimated time of the steps of processing the lines.
+     * The time is not stored in the snapshots, so only the lines parsed by this run are timed
+     *
+     * @return the time of every step in the order of the steps
+     */
+    public List<ParseStepStatistics> stepStatistics() {
+        return Arrays.stream(ParseStep.values())
+            .map(step -> new ParseStepStatistics(step, sampledStepNanos[step.ordinal()] * SAMPLING_INTERVAL))
+            .toList();
+    }
+
+    /**
+     * Creates the report from the accumulated statistics
+     *
+     * @param files    processed log files
+     * @param fromDate the earliest date for a file
+     * @param toDate   the latest date for a file
+     * @return {@code LogReport} object that stores the collected statistics
+     */
+    public LogReport toReport(List<String> files, LocalDate fromDate, LocalDate toDate) {
+        return toReport(files, fromDate, toDate, LogParser.DEFAULT_QUANTILES);
+    }
+
+    /**
+     * Creates the report from the accumulated statistics
+     *
+     * @param files     processed log files
+     * @param fromDate  the earliest date for a file
+     * @param toDate    the latest date for a file
+     * @param quantiles quantiles of the response size computed for every status class and hour
+     * @return {@code LogReport} object that stores the collected statistics
+     */
+    public LogReport toReport(List<String> files, LocalDate fromDate, LocalDate toDate, List<Double> quantiles) {
+        return new LogReport(
+            files,
+            fromDate,
+            toDate,
+            requestsNumber,
+            (double) requestSizeSum / requestsNumber,
+            ddSketch.getValueAtQuantile(PERCENTILE_95),
+            requestedResources.top(Integer.MAX_VALUE),
+            sortResponseCodes(),
+            sortHours(),
+            numberOfRequestsByRemoteAddress.top(REMOTE_ADDRESS_COUNT_LIMIT),
+            new DistinctCounts(distinctRemoteAddresses.estimate(), distinctUserAgents.estimate(),
+                distinctRequestPaths.estimate()),
+            sizeSketches.toQuantiles(quantiles)
+        );
+    }
+
+    private static KeyCounter newKeyCounter(int topCapacity) {
+        return topCapacity == EXACT_TOP ? new ExactKeyCounter() : new SpaceSavingKeyCounter(topCapacity);
+    }
+
+    private Short2LongMap sortResponseCodes() {
+        Short2LongOpenHashMap counters = new Short2LongOpenHashMap(unusualResponseCodes);
+        for (int code = 0; code < RESPONSE_CODES_LIMIT; code++) {
+            if (responseCodes[code] > 0) {
+                counters.put((short) code, responseCodes[code]);
+            }
+        }
+
+        short[] codes = counters.keySet().toShortArray();
+        ShortArrays.quickSort(codes, (first, second) -> {
+            int byValue = Long.compare(counters.get(second), counters.get(first));
+            return byValue != 0 ? byValue : Short.compare(first, second);
+        });
+
+        Short2LongLinkedOpenHashMap sorted = new Short2LongLinkedOpenHashMap(codes.length);
+        for (short code : codes) {
+            sorted.put(code, counters.get(code));
+        }
+        return sorted;
+    }
+
+    private Int2LongMap sortHours() {
+        int[] hours = IntStream.range(0, HOURS_PER_DAY).filter(hour -> numberOfRequestsByHour[hour] > 0).toArray();
+        IntArrays.quickSort(hours, (first, second) -> {
+            int byValue = Long.compare(numberOfRequestsByHour[second], numberOfRequestsByHour[first]);
+            return byValue != 0 ? byValue : Integer.compare(first, second);
+        });
+
+        Int2LongLinkedOpenHashMap sorted = new Int2LongLinkedOpenHashMap(hours.length);
+        for (int hour : hours) {
+            sorted.put(hour, numberOfRequestsByHour[hour]);
+        }
+        return sorted;
+    }
+
+    private static final double PERCENTILE_95 = 0.95;
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final int REMOTE_ADDRESS_COUNT_LIMIT = 5;
+    private static final int RESPONSE_CODES_LIMIT = 600;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int EXACT_TOP = 0;
+    private static final int SAMPLING_INTERVAL = 64;
+    private static final NginxLogTokenizer TOKENIZER = new NginxLogTokenizer();
+}
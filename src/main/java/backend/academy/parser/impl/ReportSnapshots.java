@@ -0,0 +1,355 @@
+package backend.academy.parser.impl;
+
+import backend.academy.path.impl.FileChecksum;
+import backend.academy.path.impl.GzipLogReader;
+import backend.academy.path.impl.LocalPathHandler;
+import backend.academy.path.impl.MappedLogReader;
+import com.datadoghq.sketch.ddsketch.DDSketch;
+import com.datadoghq.sketch.ddsketch.encoding.ByteArrayInput;
+import com.datadoghq.sketch.ddsketch.encoding.GrowingByteArrayOutput;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The class stores the statistics of every parsed log file in the snapshot directory,
+ * so the next run parses only the new files and the lines appended to the old ones.
+ * The snapshot is the checkpoint of the file: it is a compressed binary file containing
+ * the fingerprint of the processed part of the file (path, file key (inode),
+ * offset after the last processed line and the checksum of the first and the last 64 KB
+ * of the part), the parameters that affect the statistics (filters and the capacity of the top)
+ * and the accumulated statistics of the part (see {@link ReportAccumulator#write}).
+ * If the file still begins with the processed part, only the lines after the offset are parsed
+ * and merged with the statistics of the snapshot. If the file has been truncated or rotated
+ * (the file key has changed), the file is parsed from the beginning.
+ * The last line without the line feed can still be being written, so it is parsed on every run
+ * and is not included in the snapshot. The compressed files are parsed from the beginning
+ * if they have changed. The damaged or outdated snapshot is replaced after parsing the file.
+ * The snapshots of the files which no longer exist (rotated and removed) are deleted after parsing
+ */
+public class ReportSnapshots {
+    private final Path directory;
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final AtomicInteger resumed = new AtomicInteger();
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final AtomicInteger pruned = new AtomicInteger();
+    private final LongAdder bytesRead = new LongAdder();
+
+    /**
+     * Parameterized constructor sets the directory of the snapshots
+     * (it is created when the first snapshot is saved)
+     *
+     * @param directory directory of the snapshots
+     */
+    public ReportSnapshots(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the number of the files whose statistics were entirely read from the snapshots
+     *
+     * @return number of the files
+     */
+    public int loaded() {
+        return loaded.get();
+    }
+
+    /**
+     * Gets the number of the files that were parsed from the offset stored in the snapshots
+     *
+     * @return number of the files
+     */
+    public int resumed() {
+        return resumed.get();
+    }
+
+    /**
+     * Gets the number of the files that were parsed from the beginning
+     * because there were no suitable snapshots
+     *
+     * @return number of the files
+     */
+    public int parsed() {
+        return parsed.get();
+    }
+
+    /**
+     * Gets the number of the deleted snapshots of the files which no longer exist
+     *
+     * @return number of the snapshots
+     */
+    public int pruned() {
+        return pruned.get();
+    }
+
+    /**
+     * Gets the number of the bytes read from the log files, the parts restored from the snapshots are not read
+     *
+     * @return number of the read bytes
+     */
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Collects the statistics of the log file: the statistics of the processed part
+     * are read from the snapshot, the rest of the file is parsed and the snapshot is updated
+     *
+     * @param file          log file
+     * @param configuration parameters that affect the statistics
+     * @param topCapacity   capacity of the top
+     * @param parser        function collecting the statistics of the lines
+     * @return statistics of the whole file
+     * @throws UncheckedIOException if an error occurs while reading the file or writing the snapshot
+     */
+    ReportAccumulator collect(
+        Path file, String configuration, int topCapacity, Function<Stream<String>, ReportAccumulator> parser
+    ) {
+        try {
+            long size = Files.size(file);
+            boolean compressed = GzipLogReader.isGzip(file);
+            Checkpoint checkpoint = load(file, configuration, topCapacity);
+            if (checkpoint != null && compressed && checkpoint.offset() != size) {
+                checkpoint = null;
+            }
+            long offset = checkpoint == null ? 0 : checkpoint.offset();
+            if (checkpoint != null && offset == size) {
+                loaded.incrementAndGet();
+                return checkpoint.accumulator();
+            }
+
+            long completeEnd = compressed ? size : MappedLogReader.completeLinesEnd(file, offset, size);
+            ReportAccumulator accumulator;
+            if (checkpoint == null) {
+                parsed.incrementAndGet();
+                accumulator = new ReportAccumulator(topCapacity);
+            } else {
+                resumed.incrementAndGet();
+                accumulator = checkpoint.accumulator();
+            }
+            if (completeEnd > offset) {
+                Fingerprint fingerprint = fingerprint(file, completeEnd);
+                accumulator.merge(parser.apply(compressed ? LocalPathHandler.open(file, bytesRead)
+                    : LocalPathHandler.open(file, offset, completeEnd, bytesRead)));
+                save(fingerprint, configuration, topCapacity, accumulator);
+            }
+            if (completeEnd < size) {
+                accumulator.merge(parser.apply(LocalPathHandler.open(file, completeEnd, size, bytesRead)));
+            }
+            return accumulator;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes the snapshots whose log files no longer exist, like the catalog of the log files drops
+     * the entries of the removed files. The unreadable snapshots are deleted as well: if their files exist,
+     * the snapshots are written again when the files are parsed. The errors are only logged,
+     * the statistics are already collected
+     */
+    void prune() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(directory, "*" + SNAPSHOT_EXTENSION)) {
+            for (Path snapshot : snapshots) {
+                String path = sourcePath(snapshot);
+                if (path == null || !Files.exists(Path.of(path))) {
+                    Files.deleteIfExists(snapshot);
+                    pruned.incrementAndGet();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Logger.log.warn("Snapshots of the removed files cannot be deleted from {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the path of the log file from its snapshot
+     *
+     * @return absolute path to the file or null if the snapshot cannot be read
+     */
+    private static String sourcePath(Path snapshot) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+            new InflaterInputStream(Files.newInputStream(snapshot)), BUFFER_SIZE))) {
+            return input.readInt() == MAGIC && input.readInt() == VERSION ? readFingerprint(input).path() : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Calculates the fingerprint of the beginning of the log file
+     *
+     * @param file   log file
+     * @param offset size of the beginning of the file
+     * @return {@code Fingerprint} of the beginning of the file
+     * @throws IOException if an error occurs while reading the file
+     */
+    private static Fingerprint fingerprint(Path file, long offset) throws IOException {
+        Object fileKey = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+        return new Fingerprint(file.toAbsolutePath().normalize().toString(), String.valueOf(fileKey), offset,
+            FileChecksum.of(file, offset));
+    }
+
+    /**
+     * Reads the statistics of the processed part of the file from its snapshot
+     *
+     * @return statistics of the part or null if there is no suitable snapshot
+     */
+    private Checkpoint load(Path file, String configuration, int topCapacity) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+            new InflaterInputStream(Files.newInputStream(snapshotPath(file))), BUFFER_SIZE))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return null;
+            }
+            Fingerprint stored = readFingerprint(input);
+            if (stored.offset() > Files.size(file) || !stored.equals(fingerprint(file, stored.offset()))
+                || !configuration.equals(readString(input)) || input.readInt() != topCapacity) {
+                return null;
+            }
+            return new Checkpoint(stored.offset(), ReportAccumulator.read(input, topCapacity));
+        } catch (IOException | RuntimeException e) {
+            // the missing or damaged snapshot is replaced after parsing the file
+            return null;
+        }
+    }
+
+    /**
+     * Writes the statistics of the processed part of the file into its snapshot.
+     * The snapshot is written into the temporary file which then replaces the previous snapshot
+     */
+    private void save(Fingerprint fingerprint, String configuration, int topCapacity, ReportAccumulator accumulator)
+        throws IOException {
+        Files.createDirectories(directory);
+        Path snapshot = snapshotPath(Path.of(fingerprint.path()));
+        Path temporary = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                new DeflaterOutputStream(Files.newOutputStream(temporary)), BUFFER_SIZE))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                writeFingerprint(output, fingerprint);
+                writeString(output, configuration);
+                output.writeInt(topCapacity);
+                accumulator.write(output);
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    static void writeString(DataOutput output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(DataInput input) throws IOException {
+        byte[] bytes = new byte[readSize(input)];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the number of the elements written before them
+     *
+     * @throws StreamCorruptedException if the number is negative
+     */
+    static int readSize(DataInput input) throws IOException {
+        int size = input.readInt();
+        if (size < 0) {
+            throw new StreamCorruptedException("Некорректный размер в снимке: " + size);
+        }
+        return size;
+    }
+
+    /**
+     * Writes the bins of the sketch without the index mapping
+     * (the sketch is read into the sketch created with the same mapping)
+     */
+    static void writeSketch(DataOutput output, DDSketch sketch) throws IOException {
+        GrowingByteArrayOutput encoded = GrowingByteArrayOutput.withDefaultInitialCapacity();
+        sketch.encode(encoded, true);
+        output.writeInt(encoded.numWrittenBytes());
+        output.write(encoded.backingArray(), 0, encoded.numWrittenBytes());
+    }
+
+    /**
+     * Reads the sketch written by {@link #writeSketch} and adds it to the given sketch
+     */
+    static void readSketch(DataInput input, DDSketch sketch) throws IOException {
+        byte[] bytes = new byte[readSize(input)];
+        input.readFully(bytes);
+        sketch.decodeAndMergeWith(ByteArrayInput.wrap(bytes));
+    }
+
+    private Path snapshotPath(Path file) {
+        String path = file.toAbsolutePath().normalize().toString();
+        UUID name = UUID.nameUUIDFromBytes(path.getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(name + SNAPSHOT_EXTENSION);
+    }
+
+    private static void writeFingerprint(DataOutput output, Fingerprint fingerprint) throws IOException {
+        writeString(output, fingerprint.path());
+        writeString(output, fingerprint.fileKey());
+        output.writeLong(fingerprint.offset());
+        output.writeLong(fingerprint.checksum());
+    }
+
+    private static Fingerprint readFingerprint(DataInput input) throws IOException {
+        return new Fingerprint(readString(input), readString(input), input.readLong(), input.readLong());
+    }
+
+    /**
+     * The fingerprint of the processed part of the log file
+     *
+     * @param path     absolute path to the file
+     * @param fileKey  key of the file (the device and the inode in Unix) which changes when the file is rotated
+     * @param offset   offset after the last processed line
+     * @param checksum checksum of the first and the last 64 KB of the processed part
+     */
+    private record Fingerprint(String path, String fileKey, long offset, long checksum) {
+    }
+
+    /**
+     * The statistics of the processed part of the log file read from the snapshot
+     *
+     * @param offset      offset after the last processed line
+     * @param accumulator statistics of the processed part
+     */
+    private record Checkpoint(long offset, ReportAccumulator accumulator) {
+    }
+
+    @Slf4j
+    private static class Logger {
+
+    }
+
+    private static final int MAGIC = 0x4c4f4753;
+    private static final int VERSION = 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+}
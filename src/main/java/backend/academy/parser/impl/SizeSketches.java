@@ -0,0 +1,141 @@
+package backend.academy.parser.impl;
+
+import backend.academy.log.SizeQuantiles;
+import com.datadoghq.sketch.ddsketch.DDSketch;
+import com.datadoghq.sketch.ddsketch.DDSketches;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The class keeps a sketch of the response size for every pair of the status class
+ * (1xx - 5xx and the other codes) and the hour.
+ * The sketches are created only for the buckets that receive requests, and every sketch
+ * has a bounded number of bins (the lowest bins are collapsed when the limit is reached,
+ * so the high quantiles keep their accuracy), so the memory does not grow
+ * with the number of records. The sketches of the same bucket are merged bin by bin
+ */
+class SizeSketches {
+    private final DDSketch[] sketches = new DDSketch[STATUS_CLASSES * HOURS_PER_DAY];
+
+    /**
+     * Adds the response size to the sketch of the bucket
+     *
+     * @param status        response code
+     * @param hour          hour of the request
+     * @param bodyBytesSent response size
+     */
+    void accept(short status, int hour, long bodyBytesSent) {
+        int bucket = bucket(statusClass(status), hour);
+        DDSketch sketch = sketches[bucket];
+        if (sketch == null) {
+            sketch = newSketch();
+            sketches[bucket] = sketch;
+        }
+        sketch.accept(bodyBytesSent);
+    }
+
+    /**
+     * Adds the sketches of another object to the sketches of the same buckets
+     *
+     * @param other partial sketches (for example, collected by another thread)
+     */
+    void merge(SizeSketches other) {
+        for (int bucket = 0; bucket < sketches.length; bucket++) {
+            DDSketch otherSketch = other.sketches[bucket];
+            if (otherSketch == null) {
+                continue;
+            }
+            if (sketches[bucket] == null) {
+                sketches[bucket] = newSketch();
+            }
+            sketches[bucket].mergeWith(otherSketch);
+        }
+    }
+
+    /**
+     * Writes the sketches of the non-empty buckets (see {@link ReportSnapshots})
+     *
+     * @param output binary output
+     * @throws IOException if an error occurs while writing
+     */
+    void write(DataOutput output) throws IOException {
+        for (DDSketch sketch : sketches) {
+            output.writeBoolean(sketch != null);
+            if (sketch != null) {
+                ReportSnapshots.writeSketch(output, sketch);
+            }
+        }
+    }
+
+    /**
+     * Reads the sketches written by {@link #write} and adds them to the sketches of the same buckets
+     *
+     * @param input binary input
+     * @throws IOException if an error occurs while reading or the sketches are incorrect
+     */
+    void read(DataInput input) throws IOException {
+        for (int bucket = 0; bucket < sketches.length; bucket++) {
+            if (input.readBoolean()) {
+                if (sketches[bucket] == null) {
+                    sketches[bucket] = newSketch();
+                }
+                ReportSnapshots.readSketch(input, sketches[bucket]);
+            }
+        }
+    }
+
+    /**
+     * Computes the quantiles of every non-empty bucket and of every status class for the whole day
+     *
+     * @param quantiles computed quantiles
+     * @return {@code SizeQuantiles} object
+     */
+    SizeQuantiles toQuantiles(List<Double> quantiles) {
+        double[] levels = quantiles.stream().mapToDouble(Double::doubleValue).toArray();
+        List<SizeQuantiles.Row> rows = new ArrayList<>();
+        for (int statusClass = 0; statusClass < STATUS_CLASSES; statusClass++) {
+            DDSketch day = newSketch();
+            List<SizeQuantiles.Row> hourRows = new ArrayList<>();
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                DDSketch sketch = sketches[bucket(statusClass, hour)];
+                if (sketch != null) {
+                    day.mergeWith(sketch);
+                    hourRows.add(row(statusClass, hour, sketch, levels));
+                }
+            }
+            if (!day.isEmpty()) {
+                rows.add(row(statusClass, SizeQuantiles.ALL_HOURS, day, levels));
+                rows.addAll(hourRows);
+            }
+        }
+        return new SizeQuantiles(List.copyOf(quantiles), rows);
+    }
+
+    private static SizeQuantiles.Row row(int statusClass, int hour, DDSketch sketch, double[] levels) {
+        List<Double> values = Arrays.stream(sketch.getValuesAtQuantiles(levels)).boxed().toList();
+        return new SizeQuantiles.Row(statusClass, hour, (long) sketch.getCount(), values);
+    }
+
+    private static int statusClass(short status) {
+        int statusClass = status / STATUS_CLASS_WIDTH;
+        return statusClass > 0 && statusClass < STATUS_CLASSES ? statusClass : SizeQuantiles.OTHER_STATUS_CLASS;
+    }
+
+    private static int bucket(int statusClass, int hour) {
+        return statusClass * HOURS_PER_DAY + hour;
+    }
+
+    private static DDSketch newSketch() {
+        return DDSketches.logarithmicCollapsingLowestDense(RELATIVE_ACCURACY, MAX_BINS);
+    }
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final int MAX_BINS = 1024;
+    private static final int STATUS_CLASSES = 6;
+    private static final int STATUS_CLASS_WIDTH = 100;
+    private static final int HOURS_PER_DAY = 24;
+}
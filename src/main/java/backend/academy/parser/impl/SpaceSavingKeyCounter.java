@@ -0,0 +1,207 @@
+package backend.academy.parser.impl;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.List;
+
+/**
+ * The counter finds the most frequent keys approximately in the fixed memory
+ * using the Space-Saving algorithm: only the given number of the keys is monitored,
+ * the new key replaces the least frequent monitored key and inherits its count.
+ * The count of the key is never underestimated and is overestimated by at most
+ * {@code n / capacity}, where n is the number of the counted occurrences,
+ * so every key occurring more than {@code n / capacity} times is monitored.
+ * The monitored keys are stored in the min-heap ordered by count.
+ * The merged counter keeps the same guarantees (the key which is not monitored
+ * by the full counter is estimated by the minimal count of that counter)
+ */
+final class SpaceSavingKeyCounter implements KeyCounter {
+    private final int capacity;
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Object2IntOpenHashMap<String> positions;
+    private int size;
+
+    /**
+     * Parameterized constructor sets the number of the monitored keys
+     *
+     * @param capacity number of the monitored keys
+     */
+    SpaceSavingKeyCounter(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Размер приближённого топа должен быть положительным");
+        }
+        this.capacity = capacity;
+        this.keys = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new Object2IntOpenHashMap<>(capacity);
+        this.positions.defaultReturnValue(-1);
+    }
+
+    @Override
+    public void add(String key) {
+        int position = positions.getInt(key);
+        if (position >= 0) {
+            counts[position]++;
+            siftDown(position);
+        } else if (size < capacity) {
+            keys[size] = key;
+            counts[size] = 1;
+            errors[size] = 0;
+            positions.put(key, size);
+            siftUp(size++);
+        } else {
+            positions.removeInt(keys[0]);
+            keys[0] = key;
+            errors[0] = counts[0];
+            counts[0]++;
+            positions.put(key, 0);
+            siftDown(0);
+        }
+    }
+
+    @Override
+    public void merge(KeyCounter other) {
+        SpaceSavingKeyCounter counter = (SpaceSavingKeyCounter) other;
+        long minimum = minimum();
+        long otherMinimum = counter.minimum();
+
+        Object2LongOpenHashMap<String> mergedCounts = new Object2LongOpenHashMap<>(size + counter.size);
+        Object2LongOpenHashMap<String> mergedErrors = new Object2LongOpenHashMap<>(size + counter.size);
+        for (int i = 0; i < size; i++) {
+            int otherPosition = counter.positions.getInt(keys[i]);
+            mergedCounts.put(keys[i], counts[i] + (otherPosition >= 0 ? counter.counts[otherPosition] : otherMinimum));
+            mergedErrors.put(keys[i], errors[i] + (otherPosition >= 0 ? counter.errors[otherPosition] : otherMinimum));
+        }
+        for (int i = 0; i < counter.size; i++) {
+            if (!positions.containsKey(counter.keys[i])) {
+                mergedCounts.put(counter.keys[i], counter.counts[i] + minimum);
+                mergedErrors.put(counter.keys[i], counter.errors[i] + minimum);
+            }
+        }
+
+        List<String> merged = new ObjectArrayList<>(mergedCounts.keySet());
+        merged.sort((first, second) -> Long.compare(mergedCounts.getLong(second), mergedCounts.getLong(first)));
+        positions.clear();
+        size = Math.min(capacity, merged.size());
+        for (int i = 0; i < size; i++) {
+            keys[i] = merged.get(size - 1 - i);
+            counts[i] = mergedCounts.getLong(keys[i]);
+            errors[i] = mergedErrors.getLong(keys[i]);
+            positions.put(keys[i], i);
+        }
+    }
+
+    @Override
+    public Object2LongMap<String> top(int limit) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        IntArrays.quickSort(order, (first, second) -> {
+            int byValue = Long.compare(counts[second], counts[first]);
+            return byValue != 0 ? byValue : keys[first].compareTo(keys[second]);
+        });
+
+        Object2LongLinkedOpenHashMap<String> sorted = new Object2LongLinkedOpenHashMap<>(Math.min(limit, size));
+        for (int i = 0; i < size && i < limit; i++) {
+            sorted.put(keys[order[i]], counts[order[i]]);
+        }
+        return sorted;
+    }
+
+    @Override
+    public void write(DataOutput output) throws IOException {
+        output.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            ReportSnapshots.writeString(output, keys[i]);
+            output.writeLong(counts[i]);
+            output.writeLong(errors[i]);
+        }
+    }
+
+    /**
+     * Reads the monitored keys in the order of the heap, so the heap is restored as it was written
+     */
+    @Override
+    public void read(DataInput input) throws IOException {
+        int written = ReportSnapshots.readSize(input);
+        if (written > capacity) {
+            throw new StreamCorruptedException("Размер приближённого топа не совпадает: " + written);
+        }
+        positions.clear();
+        for (int i = 0; i < written; i++) {
+            keys[i] = ReportSnapshots.readString(input);
+            counts[i] = input.readLong();
+            errors[i] = input.readLong();
+            positions.put(keys[i], i);
+        }
+        size = written;
+    }
+
+    /**
+     * Gets the maximal overestimation of the count of the key
+     *
+     * @param key monitored key
+     * @return maximal overestimation or -1 if the key is not monitored
+     */
+    long error(String key) {
+        int position = positions.getInt(key);
+        return position >= 0 ? errors[position] : -1;
+    }
+
+    /**
+     * Gets the count which every key that is not monitored can have at most
+     */
+    private long minimum() {
+        return size < capacity ? 0 : counts[0];
+    }
+
+    private void siftUp(int position) {
+        int current = position;
+        while (current > 0 && counts[(current - 1) / 2] > counts[current]) {
+            swap(current, (current - 1) / 2);
+            current = (current - 1) / 2;
+        }
+    }
+
+    private void siftDown(int position) {
+        int current = position;
+        int child = 2 * current + 1;
+        while (child < size) {
+            if (child + 1 < size && counts[child + 1] < counts[child]) {
+                child++;
+            }
+            if (counts[current] <= counts[child]) {
+                return;
+            }
+            swap(current, child);
+            current = child;
+            child = 2 * current + 1;
+        }
+    }
+
+    private void swap(int first, int second) {
+        String key = keys[first];
+        keys[first] = keys[second];
+        keys[second] = key;
+        long count = counts[first];
+        counts[first] = counts[second];
+        counts[second] = count;
+        long error = errors[first];
+        errors[first] = errors[second];
+        errors[second] = error;
+        positions.put(keys[first], first);
+        positions.put(keys[second], second);
+    }
+}
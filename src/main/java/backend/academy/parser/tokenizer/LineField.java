@@ -0,0 +1,18 @@
+package backend.academy.parser.tokenizer;
+
+/**
+ * The fields of the log line which can be located
+ * without creating the LogRecord object
+ */
+public enum LineField {
+    REMOTE_ADDRESS,
+    REMOTE_USER,
+    TIME,
+    REQUEST_TYPE,
+    REQUEST_SOURCE,
+    REQUEST_PROTOCOL,
+    STATUS,
+    BODY_SIZE,
+    HTTP_REFERER,
+    HTTP_USER_AGENT
+}
@@ -0,0 +1,17 @@
+package backend.academy.parser.tokenizer;
+
+import backend.academy.log.LogRecord;
+
+/**
+ * The interface provides operation to split a log line into its fields
+ * and create a LogRecord object without using regular expressions
+ */
+public interface Tokenizer {
+    /**
+     * Splits the log line into fields and creates a LogRecord object
+     *
+     * @param line log in the form of a string
+     * @return {@code LogRecord} object or null if the line does not have the expected layout
+     */
+    LogRecord tokenize(String line);
+}
@@ -0,0 +1,71 @@
+package backend.academy.parser.tokenizer.impl;
+
+import backend.academy.parser.tokenizer.LineField;
+import java.time.LocalDateTime;
+
+/**
+ * The class stores the boundaries of the fields found in the log line,
+ * so the fields can be checked without being copied out of the line
+ * and the record can be created without splitting the line again
+ */
+public final class LineSpans {
+    private final int[] bounds = new int[LineField.values().length * 2];
+    private int status;
+    private int bodyBytesSent;
+    private LocalDateTime time;
+    private boolean timeDecoded;
+
+    LineSpans() {
+    }
+
+    /**
+     * Gets the index of the first character of the field
+     *
+     * @param field field of the line
+     * @return index of the first character (inclusive)
+     */
+    public int start(LineField field) {
+        return bounds[field.ordinal() * 2];
+    }
+
+    /**
+     * Gets the index after the last character of the field
+     *
+     * @param field field of the line
+     * @return index after the last character (exclusive)
+     */
+    public int end(LineField field) {
+        return bounds[field.ordinal() * 2 + 1];
+    }
+
+    int status() {
+        return status;
+    }
+
+    int bodyBytesSent() {
+        return bodyBytesSent;
+    }
+
+    LocalDateTime time() {
+        return time;
+    }
+
+    boolean timeDecoded() {
+        return timeDecoded;
+    }
+
+    void time(LocalDateTime time) {
+        this.time = time;
+        timeDecoded = true;
+    }
+
+    void set(LineField field, int start, int end) {
+        bounds[field.ordinal() * 2] = start;
+        bounds[field.ordinal() * 2 + 1] = end;
+    }
+
+    void numbers(int status, int bodyBytesSent) {
+        this.status = status;
+        this.bodyBytesSent = bodyBytesSent;
+    }
+}
@@ -0,0 +1,231 @@
+package backend.academy.parser.tokenizer.impl;
+
+import backend.academy.log.LogRecord;
+import backend.academy.log.LogRecord.Request;
+import backend.academy.parser.tokenizer.LineField;
+import backend.academy.parser.tokenizer.Tokenizer;
+import java.time.LocalDateTime;
+
+/**
+ * The class splits the NGINX log lines (combined format) into fields
+ * in a single left-to-right pass over the line using the delimiters
+ * (" - ", "[", "]" and quotes) instead of a regular expression.
+ * Only the lines with the usual layout are accepted: the time is in the first square brackets,
+ * the request, the referer and the user agent do not contain quotes. The remote address ends
+ * at the last " - " before the time, like the greedy group of the regular expression used by LogRecord,
+ * and the quotes after the time can be matched by the regular expression only in one way,
+ * so the accepted lines are split as by the regular expression. Other lines (for example,
+ * with a request containing {@code ] "}) are rejected and should be parsed in the regular way
+ */
+public class NginxLogTokenizer implements Tokenizer {
+    private final TimestampDecoder timestampDecoder = new TimestampDecoder();
+
+    @Override
+    public LogRecord tokenize(String line) {
+        LineSpans spans = locate(line);
+        return spans == null ? null : toRecord(line, spans);
+    }
+
+    /**
+     * Creates the LogRecord object from the fields found by {@link #locate(String)},
+     * so the line is not split again
+     *
+     * @param line  log in the form of a string
+     * @param spans fields of the line
+     * @return {@code LogRecord} object or null if the time cannot be parsed
+     */
+    public LogRecord toRecord(String line, LineSpans spans) {
+        LocalDateTime timeLocal = decodeTime(line, spans);
+        if (timeLocal == null) {
+            return null;
+        }
+
+        return new LogRecord(
+            substring(line, spans, LineField.REMOTE_ADDRESS),
+            substring(line, spans, LineField.REMOTE_USER),
+            timeLocal,
+            new Request(
+                substring(line, spans, LineField.REQUEST_TYPE),
+                substring(line, spans, LineField.REQUEST_SOURCE),
+                substring(line, spans, LineField.REQUEST_PROTOCOL)),
+            (short) spans.status(),
+            spans.bodyBytesSent(),
+            substring(line, spans, LineField.HTTP_REFERER),
+            substring(line, spans, LineField.HTTP_USER_AGENT)
+        );
+    }
+
+    /**
+     * Finds the fields of the line without creating the LogRecord object.
+     * The spans are returned only for the lines which are accepted by {@link #tokenize(String)}
+     * (except the time, which is checked by {@link #decodeTime(String, LineSpans)}),
+     * so the checks of the spans give the same result as the checks of the record
+     *
+     * @param line log in the form of a string
+     * @return {@code LineSpans} object or null if the line does not have the expected layout
+     */
+    public LineSpans locate(String line) {
+        int[] bounds = new int[BOUNDS_LENGTH];
+        if (!locateFields(line, bounds)) {
+            return null;
+        }
+
+        LineSpans spans = new LineSpans();
+        int status = parseNumber(line, bounds[STATUS_START], bounds[STATUS_END], MAX_STATUS_DIGITS);
+        int bodyBytesSent = parseNumber(line, bounds[BODY_SIZE_START], bounds[BODY_SIZE_END], MAX_BODY_SIZE_DIGITS);
+        if (!locateRequest(line, bounds[REQUEST_START], bounds[REQUEST_END], spans)
+            || status < 0 || status > Short.MAX_VALUE || bodyBytesSent < 0) {
+            return null;
+        }
+
+        spans.set(LineField.REMOTE_ADDRESS, 0, bounds[REMOTE_ADDRESS_END]);
+        spans.set(LineField.REMOTE_USER, bounds[REMOTE_USER_START], bounds[REMOTE_USER_END]);
+        spans.set(LineField.TIME, bounds[TIME_START], bounds[TIME_END]);
+        spans.set(LineField.STATUS, bounds[STATUS_START], bounds[STATUS_END]);
+        spans.set(LineField.BODY_SIZE, bounds[BODY_SIZE_START], bounds[BODY_SIZE_END]);
+        spans.set(LineField.HTTP_REFERER, bounds[HTTP_REFERER_START], bounds[HTTP_REFERER_END]);
+        spans.set(LineField.HTTP_USER_AGENT, bounds[HTTP_USER_AGENT_START], bounds[HTTP_USER_AGENT_END]);
+        spans.numbers(status, bodyBytesSent);
+        return spans;
+    }
+
+    /**
+     * Decodes the time of the line found by {@link #locate(String)}.
+     * The time is remembered in the spans, so it is decoded only once
+     *
+     * @param line  log in the form of a string
+     * @param spans fields of the line
+     * @return {@code LocalDateTime} object or null if the time cannot be parsed
+     */
+    public LocalDateTime decodeTime(String line, LineSpans spans) {
+        if (!spans.timeDecoded()) {
+            spans.time(timestampDecoder.decode(line, spans.start(LineField.TIME), spans.end(LineField.TIME)));
+        }
+        return spans.time();
+    }
+
+    private String substring(String line, LineSpans spans, LineField field) {
+        return line.substring(spans.start(field), spans.end(field));
+    }
+
+    /**
+     * Finds the boundaries of all the fields of the line.
+     * Each step moves the position forward, a negative position means
+     * that the line does not have the expected layout
+     *
+     * @param line   log in the form of a string
+     * @param bounds array for the start (inclusive) and end (exclusive) indexes of the fields
+     * @return true if all the fields are found
+     */
+    private boolean locateFields(String line, int[] bounds) {
+        int timeOpen = line.indexOf('[');
+        int addressEnd = timeOpen < MIN_TIME_OPEN_INDEX
+            ? -1
+            : line.lastIndexOf(FIELD_SEPARATOR, timeOpen - FIELD_SEPARATOR.length() - 2);
+        int position = addressEnd > 0 && line.charAt(timeOpen - 1) == ' ' ? timeOpen + 1 : -1;
+        bounds[REMOTE_ADDRESS_END] = addressEnd;
+        bounds[REMOTE_USER_START] = addressEnd + FIELD_SEPARATOR.length();
+        bounds[REMOTE_USER_END] = timeOpen - 1;
+
+        bounds[TIME_START] = position;
+        position = skipTo(line, position, ']');
+        bounds[TIME_END] = position;
+
+        position = expect(line, position, "] \"");
+        bounds[REQUEST_START] = position;
+        position = skipTo(line, position, '"');
+        bounds[REQUEST_END] = position;
+
+        position = expect(line, position, "\" ");
+        bounds[STATUS_START] = position;
+        position = skipTo(line, position, ' ');
+        bounds[STATUS_END] = position;
+
+        position = expect(line, position, " ");
+        bounds[BODY_SIZE_START] = position;
+        position = skipTo(line, position, ' ');
+        bounds[BODY_SIZE_END] = position;
+
+        position = expect(line, position, " \"");
+        bounds[HTTP_REFERER_START] = position;
+        position = skipTo(line, position, '"');
+        bounds[HTTP_REFERER_END] = position;
+
+        position = expect(line, position, "\" \"");
+        bounds[HTTP_USER_AGENT_START] = position;
+        position = skipTo(line, position, '"');
+        bounds[HTTP_USER_AGENT_END] = position;
+
+        return position == line.length() - 1
+            && bounds[HTTP_REFERER_END] > bounds[HTTP_REFERER_START]
+            && bounds[HTTP_USER_AGENT_END] > bounds[HTTP_USER_AGENT_START]
+            && !hasLineTerminator(line);
+    }
+
+    private int skipTo(String line, int position, char delimiter) {
+        return position < 0 ? -1 : line.indexOf(delimiter, position);
+    }
+
+    private int expect(String line, int position, String delimiter) {
+        return position >= 0 && line.startsWith(delimiter, position) ? position + delimiter.length() : -1;
+    }
+
+    private boolean hasLineTerminator(String line) {
+        boolean found = false;
+        for (int i = 0; i < line.length() && !found; i++) {
+            char c = line.charAt(i);
+            found = c == '\n' || c == '\r' || c == NEXT_LINE || c == LINE_SEPARATOR || c == PARAGRAPH_SEPARATOR;
+        }
+        return found;
+    }
+
+    private boolean locateRequest(String line, int start, int end, LineSpans spans) {
+        int typeEnd = line.indexOf(' ', start, end);
+        int sourceEnd = typeEnd < 0 ? -1 : line.indexOf(' ', typeEnd + 1, end);
+        int protocolEnd = sourceEnd < 0 ? -1 : line.indexOf(' ', sourceEnd + 1, end);
+        if (protocolEnd < 0) {
+            protocolEnd = end;
+        }
+
+        spans.set(LineField.REQUEST_TYPE, start, typeEnd);
+        spans.set(LineField.REQUEST_SOURCE, typeEnd + 1, sourceEnd);
+        spans.set(LineField.REQUEST_PROTOCOL, sourceEnd + 1, protocolEnd);
+        return typeEnd > start && sourceEnd > typeEnd + 1 && protocolEnd > sourceEnd + 1;
+    }
+
+    private int parseNumber(String line, int start, int end, int maxDigits) {
+        int digits = end - start;
+        int result = digits > 0 && digits <= maxDigits ? 0 : -1;
+        for (int i = start; i < end && result >= 0; i++) {
+            int digit = line.charAt(i) - '0';
+            result = digit >= 0 && digit < RADIX ? result * RADIX + digit : -1;
+        }
+        return result;
+    }
+
+    private static final String FIELD_SEPARATOR = " - ";
+    private static final char NEXT_LINE = '\u0085';
+    private static final char LINE_SEPARATOR = '\u2028';
+    private static final char PARAGRAPH_SEPARATOR = '\u2029';
+    private static final int MIN_TIME_OPEN_INDEX = 6;
+    private static final int RADIX = 10;
+    private static final int MAX_STATUS_DIGITS = 5;
+    private static final int MAX_BODY_SIZE_DIGITS = 9;
+
+    private static final int REMOTE_ADDRESS_END = 0;
+    private static final int REMOTE_USER_START = 1;
+    private static final int REMOTE_USER_END = 2;
+    private static final int TIME_START = 3;
+    private static final int TIME_END = 4;
+    private static final int REQUEST_START = 5;
+    private static final int REQUEST_END = 6;
+    private static final int STATUS_START = 7;
+    private static final int STATUS_END = 8;
+    private static final int BODY_SIZE_START = 9;
+    private static final int BODY_SIZE_END = 10;
+    private static final int HTTP_REFERER_START = 11;
+    private static final int HTTP_REFERER_END = 12;
+    private static final int HTTP_USER_AGENT_START = 13;
+    private static final int HTTP_USER_AGENT_END = 14;
+    private static final int BOUNDS_LENGTH = 15;
+}
@@ -0,0 +1,152 @@
+package backend.academy.parser.tokenizer.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The class decodes the time of the NGINX log ("dd/MMM/yyyy:HH:mm:ss Z").
+ * The fixed-width layout is parsed by character arithmetic and the last
+ * decoded date and second are remembered, because consecutive lines almost
+ * always share them. The values which the fast path does not accept are
+ * parsed by the DateTimeFormatter, so the result is always the same as
+ * the result of {@code LocalDateTime.parse(time, formatter)}.
+ * The cached values are immutable, so one decoder can be shared by threads
+ */
+public class TimestampDecoder {
+    private CachedDate lastDate;
+    private CachedSecond lastSecond;
+
+    /**
+     * Decodes the time located in the given part of the string
+     *
+     * @param text  string containing the time
+     * @param start index of the first character of the time
+     * @param end   index after the last character of the time
+     * @return {@code LocalDateTime} object or null if the time cannot be parsed
+     */
+    public LocalDateTime decode(String text, int start, int end) {
+        if (end - start != TIME_LENGTH) {
+            return parseWithFormatter(text, start, end);
+        }
+
+        CachedSecond cachedSecond = lastSecond;
+        if (cachedSecond != null && text.regionMatches(start, cachedSecond.text(), 0, TIME_LENGTH)) {
+            return cachedSecond.dateTime();
+        }
+
+        LocalDateTime dateTime = decodeFields(text, start);
+        if (dateTime == null) {
+            return parseWithFormatter(text, start, end);
+        }
+        lastSecond = new CachedSecond(text.substring(start, end), dateTime);
+        return dateTime;
+    }
+
+    private LocalDateTime decodeFields(String text, int start) {
+        CachedDate cachedDate = lastDate;
+        LocalDate date = cachedDate != null && text.regionMatches(start, cachedDate.text(), 0, DATE_LENGTH)
+            ? cachedDate.date()
+            : decodeDate(text, start);
+
+        int hour = decodeNumber(text, start + HOUR_OFFSET, 2);
+        int minute = decodeNumber(text, start + MINUTE_OFFSET, 2);
+        int second = decodeNumber(text, start + SECOND_OFFSET, 2);
+        boolean valid = date != null
+            && text.charAt(start + DATE_LENGTH) == ':'
+            && text.charAt(start + MINUTE_OFFSET - 1) == ':'
+            && text.charAt(start + SECOND_OFFSET - 1) == ':'
+            && hour >= 0 && hour < HOURS_PER_DAY
+            && minute >= 0 && minute < MINUTES_PER_HOUR
+            && second >= 0 && second < MINUTES_PER_HOUR
+            && isValidOffset(text, start + OFFSET_OFFSET - 1);
+
+        return valid ? LocalDateTime.of(date, LocalTime.of(hour, minute, second)) : null;
+    }
+
+    private LocalDate decodeDate(String text, int start) {
+        int day = decodeNumber(text, start, 2);
+        int month = decodeMonth(text, start + MONTH_OFFSET);
+        int year = decodeNumber(text, start + YEAR_OFFSET, YEAR_DIGITS);
+        boolean valid = text.charAt(start + MONTH_OFFSET - 1) == '/'
+            && text.charAt(start + YEAR_OFFSET - 1) == '/'
+            && month > 0 && year > 0
+            && day > 0 && day <= Month.of(month).length(Year.isLeap(year));
+        if (!valid) {
+            return null;
+        }
+
+        LocalDate date = LocalDate.of(year, month, day);
+        lastDate = new CachedDate(text.substring(start, start + DATE_LENGTH), date);
+        return date;
+    }
+
+    private int decodeMonth(String text, int start) {
+        int month = -1;
+        for (int i = 0; i < MONTH_NAMES.length && month < 0; i++) {
+            if (text.startsWith(MONTH_NAMES[i], start)) {
+                month = i + 1;
+            }
+        }
+        return month;
+    }
+
+    private boolean isValidOffset(String text, int start) {
+        char sign = text.charAt(start + 1);
+        int hours = decodeNumber(text, start + 2, 2);
+        int minutes = decodeNumber(text, start + 2 + 2, 2);
+        return text.charAt(start) == ' '
+            && (sign == '+' || sign == '-')
+            && hours >= 0 && hours < MAX_OFFSET_HOURS
+            && minutes >= 0 && minutes < MINUTES_PER_HOUR;
+    }
+
+    private int decodeNumber(String text, int start, int digits) {
+        int result = 0;
+        for (int i = start; i < start + digits && result >= 0; i++) {
+            int digit = text.charAt(i) - '0';
+            result = digit >= 0 && digit < RADIX ? result * RADIX + digit : -1;
+        }
+        return result;
+    }
+
+    private LocalDateTime parseWithFormatter(String text, int start, int end) {
+        try {
+            return LocalDateTime.parse(text.substring(start, end), TIME_FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private record CachedDate(String text, LocalDate date) {
+    }
+
+    private record CachedSecond(String text, LocalDateTime dateTime) {
+    }
+
+    private static final DateTimeFormatter TIME_FORMATTER =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.US);
+    private static final String[] MONTH_NAMES = Arrays.stream(Month.values())
+        .map(month -> DateTimeFormatter.ofPattern("MMM", Locale.US).format(month))
+        .toArray(String[]::new);
+
+    private static final int TIME_LENGTH = 26;
+    private static final int DATE_LENGTH = 11;
+    private static final int MONTH_OFFSET = 3;
+    private static final int YEAR_OFFSET = 7;
+    private static final int YEAR_DIGITS = 4;
+    private static final int HOUR_OFFSET = 12;
+    private static final int MINUTE_OFFSET = 15;
+    private static final int SECOND_OFFSET = 18;
+    private static final int OFFSET_OFFSET = 21;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int MAX_OFFSET_HOURS = 18;
+    private static final int RADIX = 10;
+}
@@ -18,4 +18,11 @@ public interface PathHandler {
      * @throws Exception if an error occurs while trying to access or read a file
      */
     List<Map.Entry<String, Stream<String>>> handlePath(String path) throws Exception;
+
+    /**
+     * Gets the number of the bytes read from the files or the connections whose streams have been closed
+     *
+     * @return number of the read bytes
+     */
+    long bytesRead();
 }
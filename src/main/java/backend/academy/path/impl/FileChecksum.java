@@ -0,0 +1,49 @@
+package backend.academy.path.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * The class calculates the checksum of the beginning of the local log file.
+ * Only the first and the last 64 KB of the beginning are read, so the checksum
+ * is cheap for the large files and still changes if the file has been truncated,
+ * rotated or rewritten. The checksum is used to check that the stored metadata
+ * of the file (the snapshots, the time index and the catalog) is up to date
+ */
+public final class FileChecksum {
+    private FileChecksum() {
+    }
+
+    /**
+     * Calculates the checksum of the first and the last 64 KB of the beginning of the file
+     *
+     * @param file path to the log file
+     * @param end  size of the beginning of the file
+     * @return checksum of the beginning of the file
+     * @throws IOException if an error occurs while reading the file
+     */
+    public static long of(Path file, long end) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CRC32C checksum = new CRC32C();
+            long headSize = Math.min(end, CHECKED_SIZE);
+            update(checksum, channel, 0, headSize);
+            update(checksum, channel, Math.max(headSize, end - CHECKED_SIZE), end);
+            return checksum.getValue();
+        }
+    }
+
+    private static void update(CRC32C checksum, FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (to - from));
+        long position = from;
+        while (buffer.hasRemaining() && channel.read(buffer, position) > 0) {
+            position = from + buffer.position();
+        }
+        checksum.update(buffer.flip());
+    }
+
+    private static final long CHECKED_SIZE = 64 * 1024;
+}
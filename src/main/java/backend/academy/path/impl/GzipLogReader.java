@@ -0,0 +1,235 @@
+package backend.academy.path.impl;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The class reads the compressed (gzip) log files without unpacking them to disk.
+ * The file is recognized by the magic bytes, not by the extension.
+ * The local file is mapped into memory. The files compressed by bgzip (BGZF)
+ * store the size of every gzip member in its header, so they are split into parts
+ * at the member boundaries without decompressing them and the parts are decompressed
+ * by several threads. Other files (as the usual single-member files of logrotate)
+ * are decompressed sequentially. A part owns the lines which start inside its
+ * decompressed data, the line crossing the end of the part is completed
+ * using the beginning of the next parts
+ */
+public final class GzipLogReader {
+    private GzipLogReader() {
+    }
+
+    /**
+     * Checks that the file is compressed by gzip
+     *
+     * @param file path to the file
+     * @return true if the file starts with the gzip magic bytes
+     * @throws IOException if an error occurs while reading the file
+     */
+    public static boolean isGzip(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return isGzipMagic(input.readNBytes(2));
+        }
+    }
+
+    /**
+     * Decompresses the stream if it starts with the gzip magic bytes
+     *
+     * @param input stream of the log file
+     * @return {@code InputStream} - decompressed stream or the original data if it is not compressed
+     * @throws IOException if an error occurs while reading the stream
+     */
+    public static InputStream decompressIfGzip(InputStream input) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(input, BUFFER_SIZE);
+        buffered.mark(2);
+        byte[] magic = buffered.readNBytes(2);
+        buffered.reset();
+        return isGzipMagic(magic) ? new GZIPInputStream(buffered, BUFFER_SIZE) : buffered;
+    }
+
+    /**
+     * Maps the compressed file into memory and returns its decompressed lines.
+     * The file is unmapped when the stream is closed
+     *
+     * @param file path to the gzip file
+     * @return {@code Stream<String>} - lines of the decompressed file
+     * @throws IOException if an error occurs while trying to open or map the file
+     */
+    public static Stream<String> lines(Path file) throws IOException {
+        return lines(file, PART_SIZE);
+    }
+
+    static Stream<String> lines(Path file, long partSize) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            List<Long> starts = findPartStarts(segment, partSize);
+            return IntStream.range(0, starts.size()).boxed()
+                .flatMap(part -> StreamSupport.stream(new PartSpliterator(segment, starts, part), false))
+                .onClose(arena::close);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    static boolean isGzipMagic(byte[] magic) {
+        return magic.length == 2 && magic[0] == GZIP_MAGIC_FIRST && magic[1] == GZIP_MAGIC_SECOND;
+    }
+
+    /**
+     * Finds the first BGZF member starting at or after the end of each part of the given size.
+     * The members are followed by the sizes from their headers, so only the headers are read.
+     * The file is not split if it does not start with a BGZF member
+     *
+     * @return offsets of the beginnings of the parts (the first part starts at 0)
+     */
+    static List<Long> findPartStarts(MemorySegment segment, long partSize) {
+        List<Long> starts = new ArrayList<>();
+        starts.add(0L);
+        long offset = 0;
+        long blockSize = GzipMemberInputStream.blockSize(segment, offset);
+        while (blockSize > 0 && offset + blockSize < segment.byteSize()) {
+            offset += blockSize;
+            blockSize = GzipMemberInputStream.blockSize(segment, offset);
+            if (blockSize > 0 && offset >= starts.getLast() + partSize) {
+                starts.add(offset);
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * The spliterator decompresses the part of the file and returns its lines.
+     * The beginning of the part up to the first line feed belongs to the previous part
+     */
+    private static final class PartSpliterator implements Spliterator<String> {
+        private final MemorySegment segment;
+        private final List<Long> starts;
+        private final int part;
+        private final List<String> pending = new ArrayList<>();
+        private int pendingIndex;
+        private GzipMemberInputStream input;
+        private LineSegmentReader reader;
+        private boolean done;
+
+        private PartSpliterator(MemorySegment segment, List<Long> starts, int part) {
+            this.segment = segment;
+            this.starts = starts;
+            this.part = part;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            while (pendingIndex == pending.size() && !done) {
+                pending.clear();
+                pendingIndex = 0;
+                try {
+                    readLines();
+                } catch (IOException e) {
+                    close();
+                    throw new UncheckedIOException(e);
+                }
+            }
+            if (pendingIndex == pending.size()) {
+                return false;
+            }
+            action.accept(pending.get(pendingIndex++));
+            return true;
+        }
+
+        private void readLines() throws IOException {
+            if (reader == null) {
+                input = openPart(part);
+                reader = new LineSegmentReader(input);
+                if (part > 0) {
+                    reader.readSegment();
+                    if (!reader.lineFeedFound()) {
+                        close();
+                        return;
+                    }
+                }
+            }
+
+            long length = reader.readSegment();
+            if (length > 0 && reader.lineFeedFound()) {
+                reader.addLines(pending);
+                return;
+            }
+
+            completeLastLine(reader.segmentEmpty());
+            close();
+        }
+
+        /**
+         * Completes the last line of the part by the beginnings of the next parts
+         * up to the first line feed
+         */
+        private void completeLastLine(boolean emptyTail) throws IOException {
+            boolean empty = emptyTail;
+            for (int next = part + 1; next < starts.size(); next++) {
+                try (GzipMemberInputStream nextInput = openPart(next)) {
+                    LineSegmentReader head = new LineSegmentReader(nextInput);
+                    head.readSegment();
+                    head.appendSegmentTo(reader);
+                    empty &= head.segmentEmpty();
+                    if (head.lineFeedFound()) {
+                        reader.addLines(pending);
+                        return;
+                    }
+                }
+            }
+            if (!empty) {
+                reader.addLines(pending);
+            }
+        }
+
+        private GzipMemberInputStream openPart(int index) {
+            boolean last = index == starts.size() - 1;
+            long end = last ? segment.byteSize() : starts.get(index + 1);
+            return new GzipMemberInputStream(segment, starts.get(index), end, last);
+        }
+
+        private void close() {
+            done = true;
+            if (input != null) {
+                input.close();
+            }
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    private static final byte GZIP_MAGIC_FIRST = (byte) 0x1f;
+    private static final byte GZIP_MAGIC_SECOND = (byte) 0x8b;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long PART_SIZE = 8L * 1024 * 1024;
+}
@@ -0,0 +1,238 @@
+package backend.academy.path.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * The class decompresses the sequence of the gzip members located in the part
+ * of the mapped file. The stream ends when the last member ends exactly
+ * at the end of the part. The checksum and the size of every member are checked.
+ * In the last part of the file the bytes after the last member are ignored
+ * if they are not a gzip member (the same way as in {@code GZIPInputStream})
+ */
+final class GzipMemberInputStream extends InputStream {
+    private final MemorySegment file;
+    private final long end;
+    private final boolean lastPart;
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private final byte[] input = new byte[INPUT_CHUNK_SIZE];
+    private long position;
+    private long inputOffset;
+    private long inputLength;
+    private long memberSize;
+    private boolean inMember;
+    private boolean finished;
+    private int members;
+
+    /**
+     * Parameterized constructor sets the part of the file
+     *
+     * @param file     mapped gzip file
+     * @param start    offset of the first member of the part
+     * @param end      offset after the last member of the part
+     * @param lastPart true if the part ends at the end of the file
+     */
+    GzipMemberInputStream(MemorySegment file, long start, long end, boolean lastPart) {
+        this.file = file;
+        this.position = start;
+        this.end = end;
+        this.lastPart = lastPart;
+    }
+
+    /**
+     * Gets the size of the BGZF block (the gzip member storing its size
+     * in the "BC" subfield of the extra field, as written by bgzip) starting at the given offset
+     *
+     * @param file   mapped gzip file
+     * @param offset offset of the member
+     * @return size of the member in bytes or -1 if there is no BGZF member at the offset
+     */
+    static long blockSize(MemorySegment file, long offset) {
+        if (!hasMagic(file, offset) || offset + HEADER_SIZE + Short.BYTES > file.byteSize()
+            || (file.get(ValueLayout.JAVA_BYTE, offset + FLAGS_OFFSET) & FLAG_EXTRA) == 0) {
+            return -1;
+        }
+        long subfield = offset + HEADER_SIZE + Short.BYTES;
+        long extraEnd = subfield + Short.toUnsignedInt(file.get(SHORT_LE, offset + HEADER_SIZE));
+        while (subfield + SUBFIELD_HEADER_SIZE <= extraEnd && extraEnd <= file.byteSize()) {
+            int length = Short.toUnsignedInt(file.get(SHORT_LE, subfield + Short.BYTES));
+            if (file.get(ValueLayout.JAVA_BYTE, subfield) == BGZF_FIRST
+                && file.get(ValueLayout.JAVA_BYTE, subfield + 1) == BGZF_SECOND
+                && length == Short.BYTES && subfield + SUBFIELD_HEADER_SIZE + Short.BYTES <= extraEnd) {
+                return Short.toUnsignedInt(file.get(SHORT_LE, subfield + SUBFIELD_HEADER_SIZE)) + 1;
+            }
+            subfield += SUBFIELD_HEADER_SIZE + length;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks that the gzip magic bytes are located at the given offset
+     *
+     * @param file   mapped file
+     * @param offset checked offset
+     * @return true if there are gzip magic bytes at the offset
+     */
+    static boolean hasMagic(MemorySegment file, long offset) {
+        return offset + 2 < file.byteSize()
+            && file.get(ValueLayout.JAVA_BYTE, offset) == GZIP_MAGIC_FIRST
+            && file.get(ValueLayout.JAVA_BYTE, offset + 1) == GZIP_MAGIC_SECOND
+            && file.get(ValueLayout.JAVA_BYTE, offset + 2) == DEFLATE;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int count = read(single, 0, 1);
+        return count < 0 ? -1 : single[0] & BYTE_MASK;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        int count = 0;
+        while (count == 0 && length > 0 && !finished) {
+            if (inMember) {
+                count = inflate(bytes, offset, length);
+            } else {
+                startMember();
+            }
+        }
+        return count == 0 && length > 0 ? -1 : count;
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+    }
+
+    private void startMember() throws IOException {
+        if (position == end || lastPart && members > 0 && !hasMagic(file, position)) {
+            finished = true;
+            return;
+        }
+        if (position > end || !hasMagic(file, position)) {
+            throw new ZipException("Некорректный заголовок gzip по смещению " + position);
+        }
+
+        inputOffset = skipHeader(position);
+        inputLength = 0;
+        inflater.reset();
+        crc.reset();
+        memberSize = 0;
+        inMember = true;
+    }
+
+    private int inflate(byte[] bytes, int offset, int length) throws IOException {
+        if (inflater.needsInput()) {
+            inputOffset += inputLength;
+            inputLength = Math.min(INPUT_CHUNK_SIZE, file.byteSize() - inputOffset);
+            if (inputLength <= 0) {
+                throw new EOFException("Неожиданный конец файла gzip");
+            }
+            MemorySegment.copy(file, ValueLayout.JAVA_BYTE, inputOffset, input, 0, (int) inputLength);
+            inflater.setInput(input, 0, (int) inputLength);
+        }
+
+        int count;
+        try {
+            count = inflater.inflate(bytes, offset, length);
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        }
+        if (inflater.needsDictionary()) {
+            throw new ZipException("Некорректные сжатые данные gzip");
+        }
+
+        crc.update(bytes, offset, count);
+        memberSize += count;
+        if (inflater.finished()) {
+            finishMember(inputOffset + inputLength - inflater.getRemaining());
+        }
+        return count;
+    }
+
+    private void finishMember(long trailerOffset) throws IOException {
+        if (trailerOffset + TRAILER_SIZE > file.byteSize()) {
+            throw new EOFException("Неожиданный конец файла gzip");
+        }
+        long expectedCrc = Integer.toUnsignedLong(file.get(INT_LE, trailerOffset));
+        long expectedSize = Integer.toUnsignedLong(file.get(INT_LE, trailerOffset + Integer.BYTES));
+        if (expectedCrc != crc.getValue() || expectedSize != (memberSize & UINT_MASK)) {
+            throw new ZipException("Контрольная сумма gzip не совпадает");
+        }
+        position = trailerOffset + TRAILER_SIZE;
+        inMember = false;
+        members++;
+    }
+
+    private long skipHeader(long offset) throws IOException {
+        int flags = unsignedByte(offset + FLAGS_OFFSET);
+        if ((flags & RESERVED_FLAGS) != 0) {
+            throw new ZipException("Неподдерживаемые флаги gzip");
+        }
+
+        long current = offset + HEADER_SIZE;
+        if ((flags & FLAG_EXTRA) != 0) {
+            current += Short.BYTES + (unsignedByte(current) | unsignedByte(current + 1) << Byte.SIZE);
+        }
+        if ((flags & FLAG_NAME) != 0) {
+            current = skipZeroTerminated(current);
+        }
+        if ((flags & FLAG_COMMENT) != 0) {
+            current = skipZeroTerminated(current);
+        }
+        if ((flags & FLAG_HEADER_CRC) != 0) {
+            current += Short.BYTES;
+        }
+        if (current >= file.byteSize()) {
+            throw new EOFException("Неожиданный конец файла gzip");
+        }
+        return current;
+    }
+
+    private long skipZeroTerminated(long offset) throws IOException {
+        long current = offset;
+        while (unsignedByte(current) != 0) {
+            current++;
+        }
+        return current + 1;
+    }
+
+    private int unsignedByte(long offset) throws IOException {
+        if (offset >= file.byteSize()) {
+            throw new EOFException("Неожиданный конец файла gzip");
+        }
+        return file.get(ValueLayout.JAVA_BYTE, offset) & BYTE_MASK;
+    }
+
+    private static final ValueLayout.OfInt INT_LE =
+        ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfShort SHORT_LE =
+        ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final byte GZIP_MAGIC_FIRST = (byte) 0x1f;
+    private static final byte GZIP_MAGIC_SECOND = (byte) 0x8b;
+    private static final byte DEFLATE = 8;
+    private static final byte BGZF_FIRST = 'B';
+    private static final byte BGZF_SECOND = 'C';
+    private static final int SUBFIELD_HEADER_SIZE = 4;
+    private static final int FLAG_HEADER_CRC = 2;
+    private static final int FLAG_EXTRA = 4;
+    private static final int FLAG_NAME = 8;
+    private static final int FLAG_COMMENT = 16;
+    private static final int RESERVED_FLAGS = 0xe0;
+    private static final int FLAGS_OFFSET = 3;
+    private static final int HEADER_SIZE = 10;
+    private static final int TRAILER_SIZE = 8;
+    private static final int BYTE_MASK = 0xff;
+    private static final long UINT_MASK = 0xffffffffL;
+    private static final int INPUT_CHUNK_SIZE = 64 * 1024;
+}
@@ -0,0 +1,113 @@
+package backend.academy.path.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The class reads the stream of bytes by the segments ending with the line feed.
+ * The segment is split into lines in the same way as in {@code BufferedReader}
+ * ("\n", "\r" or "\r\n")
+ */
+final class LineSegmentReader {
+    private final InputStream input;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPosition;
+    private int bufferLimit;
+    private byte[] segment = new byte[BUFFER_SIZE];
+    private int segmentLength;
+    private boolean lineFeedFound;
+
+    LineSegmentReader(InputStream input) {
+        this.input = input;
+    }
+
+    /**
+     * Reads the bytes up to and including the next line feed
+     *
+     * @return the number of the read bytes (0 at the end of the stream)
+     * @throws IOException if an error occurs while reading the stream
+     */
+    long readSegment() throws IOException {
+        segmentLength = 0;
+        lineFeedFound = false;
+        long length = 0;
+        while (!lineFeedFound && fillBuffer()) {
+            int lineFeed = bufferPosition;
+            while (lineFeed < bufferLimit && buffer[lineFeed] != '\n') {
+                lineFeed++;
+            }
+            lineFeedFound = lineFeed < bufferLimit;
+            append(buffer, bufferPosition, lineFeed - bufferPosition);
+            length += lineFeed - bufferPosition + (lineFeedFound ? 1 : 0);
+            bufferPosition = lineFeedFound ? lineFeed + 1 : lineFeed;
+        }
+        return length;
+    }
+
+    /**
+     * @return true if the last read segment ends with the line feed
+     */
+    boolean lineFeedFound() {
+        return lineFeedFound;
+    }
+
+    /**
+     * @return true if the current segment does not contain any bytes except the line feed
+     */
+    boolean segmentEmpty() {
+        return segmentLength == 0;
+    }
+
+    /**
+     * Adds the bytes to the end of the current segment
+     *
+     * @param bytes  array containing the bytes
+     * @param offset index of the first byte
+     * @param count  number of the bytes
+     */
+    void append(byte[] bytes, int offset, int count) {
+        if (segmentLength + count > segment.length) {
+            segment = Arrays.copyOf(segment, Math.max(segment.length * 2, segmentLength + count));
+        }
+        System.arraycopy(bytes, offset, segment, segmentLength, count);
+        segmentLength += count;
+    }
+
+    /**
+     * Adds the current segment to the end of the segment of the other reader
+     *
+     * @param other reader which segment is extended
+     */
+    void appendSegmentTo(LineSegmentReader other) {
+        other.append(segment, 0, segmentLength);
+    }
+
+    /**
+     * Splits the current segment into lines
+     *
+     * @param lines list the lines are added to
+     */
+    void addLines(List<String> lines) {
+        String text = new String(segment, 0, segmentLength, StandardCharsets.UTF_8);
+        if (text.isEmpty()) {
+            lines.add(text);
+        } else {
+            text.lines().forEach(lines::add);
+        }
+    }
+
+    private boolean fillBuffer() throws IOException {
+        if (bufferPosition < bufferLimit) {
+            return true;
+        }
+        int read = input.read(buffer);
+        bufferPosition = 0;
+        bufferLimit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+}
@@ -1,6 +1,7 @@
 package backend.academy.path.impl;
 
 import backend.academy.path.PathHandler;
+import backend.academy.stats.FileReadEvent;
 import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
@@ -11,20 +12,96 @@ import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * The class contains method to handle the path in the local file system (on the device)
- * and find log files using a special pattern
+ * and find log files using a special pattern.
+ * The found files are mapped into memory (see {@link MappedLogReader}),
+ * so a large file can be split into parts processed in parallel.
+ * The files compressed by gzip are decompressed on the fly (see {@link GzipLogReader}).
+ * If the date range and the index directory are set, the files which cannot contain the records of the range
+ * are not opened (see {@link LogCatalog}) and only the part of the large plain file
+ * which can contain the records of the range is read (see {@link TimeIndex}).
+ * The catalogs and the indexes are written only into the index directory.
+ * The reading of every opened file is recorded as the JFR event (see {@link FileReadEvent})
+ * and the read bytes are summed when the streams are closed
  */
 public class LocalPathHandler implements PathHandler {
+    private final LocalDateTime fromTime;
+    private final LocalDateTime toTime;
+    private final Path indexDirectory;
+    private final LongAdder bytesRead = new LongAdder();
+
+    public LocalPathHandler() {
+        this(null, null, null);
+    }
+
+    /**
+     * Parameterized constructor sets the date range of the read records and the directory of the indexes
+     *
+     * @param fromDate       the earliest date of the records or null if it is not limited
+     * @param toDate         the latest date of the records or null if it is not limited
+     * @param indexDirectory directory of the catalogs and the time indexes of the log files
+     *                       or null if the files are always read entirely
+     */
+    public LocalPathHandler(LocalDate fromDate, LocalDate toDate, Path indexDirectory) {
+        this.fromTime = fromDate == null ? null : fromDate.atStartOfDay();
+        this.toTime = toDate == null ? null : LocalDateTime.of(toDate, LocalTime.MAX.withNano(0));
+        this.indexDirectory = indexDirectory;
+    }
 
     @Override
     public List<Map.Entry<String, Stream<String>>> handlePath(String path) throws IOException {
         List<Map.Entry<String, Stream<String>>> matchesList = new ArrayList<>();
+        if (indexDirectory == null || (fromTime == null && toTime == null)) {
+            for (Path file : findFiles(path)) {
+                matchesList.add(Map.entry(file.getFileName().toString(), read(file)));
+            }
+            return matchesList;
+        }
+
+        Map<Path, LogCatalog> catalogs = new HashMap<>();
+        for (Path file : findFiles(path)) {
+            LogCatalog catalog = catalogs.computeIfAbsent(file.toAbsolutePath().getParent(),
+                directory -> LogCatalog.load(directory, indexDirectory));
+            matchesList.add(Map.entry(file.getFileName().toString(), catalog.mayContain(file, fromTime, toTime)
+                ? read(file) : Stream.empty()));
+        }
+        for (LogCatalog catalog : catalogs.values()) {
+            try {
+                catalog.save();
+            } catch (IOException e) {
+                Logger.log.warn("Catalog of the log files cannot be saved into {}: {}", indexDirectory,
+                    e.getMessage());
+            }
+        }
+        return matchesList;
+    }
+
+    @Override
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Finds the log files matching the pattern without opening them
+     *
+     * @param path pattern of the path to the log files
+     * @return the list of the found files
+     * @throws IOException if an error occurs while walking the directories
+     */
+    public List<Path> findFiles(String path) throws IOException {
+        List<Path> matchesList = new ArrayList<>();
         String rootDir = FileSystems.getDefault().getPath(".").toAbsolutePath() + "/src/main/resources/";
         Path rootDirAsPath = Path.of(rootDir);
         String fullPath = ("glob:" + rootDir + path);
@@ -37,9 +114,10 @@ public class LocalPathHandler implements PathHandler {
             public FileVisitResult visitFile(Path file, BasicFileAttributes attribs) throws IOException {
                 FileSystem fs = FileSystems.getDefault();
                 PathMatcher matcher = fs.getPathMatcher(finalFullPath);
-                Path name = file.getFileName();
-                if (matcher.matches(file.toAbsolutePath())) {
-                    matchesList.add(Map.entry(name.toString(), Files.lines(file)));
+                String name = file.getFileName().toString();
+                if (matcher.matches(file.toAbsolutePath())
+                    && !name.endsWith(TimeIndex.EXTENSION) && !name.endsWith(LogCatalog.EXTENSION)) {
+                    matchesList.add(file);
                 }
                 return FileVisitResult.CONTINUE;
             }
@@ -47,4 +125,78 @@ public class LocalPathHandler implements PathHandler {
         Files.walkFileTree(rootDirAsPath, matcherVisitor);
         return matchesList;
     }
+
+    /**
+     * Opens the log file: the compressed file is decompressed, the plain file is mapped into memory
+     *
+     * @param file path to the log file
+     * @return {@code Stream<String>} - lines of the file
+     * @throws IOException if an error occurs while trying to open the file
+     */
+    public static Stream<String> open(Path file) throws IOException {
+        return GzipLogReader.isGzip(file) ? GzipLogReader.lines(file) : MappedLogReader.lines(file);
+    }
+
+    /**
+     * Opens the log file as {@link #open(Path)} does. The reading is recorded as the JFR event
+     * and the size of the file is added to the counter when the stream is closed
+     *
+     * @param file      path to the log file
+     * @param bytesRead counter of the read bytes
+     * @return {@code Stream<String>} - lines of the file
+     * @throws IOException if an error occurs while trying to open the file
+     */
+    public static Stream<String> open(Path file, LongAdder bytesRead) throws IOException {
+        long size = Files.size(file);
+        return FileReadEvent.track(file.toString(), open(file), () -> size, bytesRead);
+    }
+
+    /**
+     * Opens the part of the plain log file (see {@link MappedLogReader#lines(Path, long, long)}).
+     * The reading is recorded as the JFR event and the size of the part is added to the counter
+     * when the stream is closed
+     *
+     * @param file      path to the log file
+     * @param from      offset of the beginning of the part
+     * @param to        offset after the end of the part
+     * @param bytesRead counter of the read bytes
+     * @return {@code Stream<String>} - lines of the part of the file
+     * @throws IOException if an error occurs while trying to open the file
+     */
+    public static Stream<String> open(Path file, long from, long to, LongAdder bytesRead) throws IOException {
+        return FileReadEvent.track(file.toString(), MappedLogReader.lines(file, from, to), () -> to - from, bytesRead);
+    }
+
+    /**
+     * Opens the part of the log file which can contain the records of the date range.
+     * The compressed and the small files and the files without the index directory are read entirely.
+     * The reading is recorded as the JFR event with the size of the mapped part of the file
+     *
+     * @param file path to the log file
+     * @return {@code Stream<String>} - lines of the part of the file
+     * @throws IOException if an error occurs while trying to open the file
+     */
+    Stream<String> read(Path file) throws IOException {
+        long size = Files.size(file);
+        if (indexDirectory == null || (fromTime == null && toTime == null) || size < MIN_INDEXED_SIZE
+            || GzipLogReader.isGzip(file)) {
+            return open(file, bytesRead);
+        }
+
+        TimeIndex index = TimeIndex.of(file, indexDirectory);
+        long[] part = index.seek(fromTime, toTime);
+        Stream<String> lines = part[0] < part[1] ? MappedLogReader.lines(file, part[0], part[1]) : Stream.empty();
+        if (index.indexedEnd() < size) {
+            lines = Stream.concat(lines, MappedLogReader.lines(file, index.indexedEnd(), size));
+        }
+        long readSize = Math.max(part[1] - part[0], 0) + size - index.indexedEnd();
+        return FileReadEvent.track(file.toString(), lines, () -> readSize, bytesRead);
+    }
+
+    @Slf4j
+    private static class Logger {
+
+    }
+
+    private static final long MIN_INDEXED_SIZE = 1024 * 1024;
 }
@@ -0,0 +1,223 @@
+package backend.academy.path.impl;
+
+import backend.academy.parser.tokenizer.impl.LineSpans;
+import backend.academy.parser.tokenizer.impl.NginxLogTokenizer;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * The catalog of the log files of one directory. For every file it keeps the size
+ * and the modification time of the file when it was scanned, the fingerprint
+ * (the checksum of the first and the last 64 KB), the number of lines and
+ * the earliest and the latest time of the lines. If the time of a line cannot be decoded,
+ * the file is considered as containing any time, so the lines which are passed on
+ * by the filters are never skipped.
+ * The catalog allows skipping the files which cannot contain the records of the time range
+ * without opening them: only the attributes of the file are read to check that the entry
+ * is up to date. The entry of the changed file is built again when the file is checked:
+ * the entry of the plain file is taken from its time index (see {@link TimeIndex}),
+ * which is then used to read the file, and only the compressed file is read entirely.
+ * The catalog is stored in the given index directory ({@code <UUID of the path>.logcatalog}),
+ * never next to the log files
+ */
+final class LogCatalog {
+    private final Path directory;
+    private final Path indexDirectory;
+    private final Map<String, Entry> entries;
+    private boolean changed;
+
+    private LogCatalog(Path directory, Path indexDirectory, Map<String, Entry> entries) {
+        this.directory = directory;
+        this.indexDirectory = indexDirectory;
+        this.entries = entries;
+    }
+
+    /**
+     * Reads the catalog of the directory (the missing or damaged catalog is empty)
+     *
+     * @param directory      directory of the log files
+     * @param indexDirectory directory of the stored catalogs and indexes
+     * @return {@code LogCatalog} of the directory
+     */
+    static LogCatalog load(Path directory, Path indexDirectory) {
+        Path catalog = catalogPath(directory, indexDirectory);
+        Map<String, Entry> entries = new HashMap<>();
+        if (Files.isRegularFile(catalog)) {
+            try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(catalog), BUFFER_SIZE))) {
+                if (input.readInt() == MAGIC && input.readInt() == VERSION) {
+                    int size = input.readInt();
+                    for (int i = 0; i < size; i++) {
+                        entries.put(input.readUTF(), new Entry(input.readLong(), input.readLong(), input.readLong(),
+                            input.readLong(), input.readLong(), input.readLong()));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // the damaged catalog is built again
+                entries.clear();
+            }
+        }
+        return new LogCatalog(directory, indexDirectory, entries);
+    }
+
+    /**
+     * Checks that the file can contain the records of the time range
+     *
+     * @param file path to the log file of the directory
+     * @param from the earliest time or null if it is not limited
+     * @param to   the latest time or null if it is not limited
+     * @return false if the file certainly does not contain the records of the range
+     * @throws IOException if an error occurs while scanning the changed file
+     */
+    boolean mayContain(Path file, LocalDateTime from, LocalDateTime to) throws IOException {
+        Entry entry = entry(file);
+        return (from == null || entry.maxTime() >= from.toEpochSecond(ZoneOffset.UTC))
+            && (to == null || entry.minTime() <= to.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    /**
+     * Gets the entry of the file, the entry is built if the file has been changed since it was scanned
+     *
+     * @param file path to the log file of the directory
+     * @return {@code Entry} of the file
+     * @throws IOException if an error occurs while scanning the file
+     */
+    Entry entry(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+        Entry entry = entries.get(name);
+        if (entry == null || entry.size() != attributes.size() || entry.modified() != modified) {
+            entry = scan(file, attributes.size(), modified);
+            entries.put(name, entry);
+            changed = true;
+        }
+        return entry;
+    }
+
+    /**
+     * Writes the catalog if the entries have been changed. The entries of the removed files are dropped
+     *
+     * @throws IOException if an error occurs while writing the catalog
+     */
+    void save() throws IOException {
+        if (!changed) {
+            return;
+        }
+        entries.keySet().removeIf(name -> !Files.exists(directory.resolve(name)));
+        Path catalog = catalogPath(directory, indexDirectory);
+        Files.createDirectories(indexDirectory);
+        Path temporary = Files.createTempFile(indexDirectory, catalog.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(entries.size());
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    Entry value = entry.getValue();
+                    output.writeUTF(entry.getKey());
+                    output.writeLong(value.size());
+                    output.writeLong(value.modified());
+                    output.writeLong(value.fingerprint());
+                    output.writeLong(value.lines());
+                    output.writeLong(value.minTime());
+                    output.writeLong(value.maxTime());
+                }
+            }
+            Files.move(temporary, catalog,
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            changed = false;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Builds the entry of the file. The span of the plain file is taken from its time index,
+     * only the incomplete last line is read; the compressed file is read entirely
+     */
+    private Entry scan(Path file, long size, long modified) throws IOException {
+        NginxLogTokenizer tokenizer = new NginxLogTokenizer();
+        long lines = 0;
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        long scannedFrom = 0;
+        boolean compressed = GzipLogReader.isGzip(file);
+        if (!compressed) {
+            TimeIndex index = TimeIndex.of(file, indexDirectory);
+            lines = index.lines();
+            minTime = index.minTime();
+            maxTime = index.maxTime();
+            scannedFrom = index.indexedEnd();
+        }
+        try (Stream<String> fileLines = compressed ? LocalPathHandler.open(file)
+            : scannedFrom < size ? MappedLogReader.lines(file, scannedFrom, size) : Stream.empty()) {
+            Iterator<String> iterator = fileLines.iterator();
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                LineSpans spans = tokenizer.locate(line);
+                LocalDateTime time = spans == null ? null : tokenizer.decodeTime(line, spans);
+                if (time == null) {
+                    minTime = Long.MIN_VALUE;
+                    maxTime = Long.MAX_VALUE;
+                } else {
+                    long second = time.toEpochSecond(ZoneOffset.UTC);
+                    minTime = Math.min(minTime, second);
+                    maxTime = Math.max(maxTime, second);
+                }
+                lines++;
+            }
+        }
+        return new Entry(size, modified, FileChecksum.of(file, size), lines, minTime, maxTime);
+    }
+
+    /**
+     * The metadata of the log file
+     *
+     * @param size        size of the file in bytes
+     * @param modified    modification time of the file in milliseconds
+     * @param fingerprint checksum of the first and the last 64 KB of the file
+     * @param lines       number of the lines
+     * @param minTime     the earliest time of the lines in seconds (the local time as UTC)
+     * @param maxTime     the latest time of the lines in seconds (the local time as UTC)
+     */
+    record Entry(long size, long modified, long fingerprint, long lines, long minTime, long maxTime) {
+    }
+
+    /**
+     * Gets the path of the stored catalog of the directory, the name is derived from the absolute path of the directory
+     *
+     * @param directory      directory of the log files
+     * @param indexDirectory directory of the stored catalogs and indexes
+     * @return path of the stored catalog
+     */
+    static Path catalogPath(Path directory, Path indexDirectory) {
+        UUID name = UUID.nameUUIDFromBytes(directory.toAbsolutePath().normalize().toString()
+            .getBytes(StandardCharsets.UTF_8));
+        return indexDirectory.resolve(name + EXTENSION);
+    }
+
+    /**
+     * Extension of the stored catalogs, these files are not log files
+     */
+    static final String EXTENSION = ".logcatalog";
+    private static final int MAGIC = 0x4c434154;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+}
@@ -0,0 +1,201 @@
+package backend.academy.path.impl;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The class reads the local log files by mapping them into memory.
+ * The mapped file is split into chunks aligned to the line boundaries,
+ * so every chunk can be parsed independently by its own thread
+ * (the chunks are produced when the stream of lines is processed in parallel).
+ * The lines are decoded directly from the mapped bytes: the ASCII lines are
+ * copied into strings without decoding, the other lines are decoded as UTF-8.
+ * The lines are separated in the same way as in {@code Files.lines}
+ * ("\n", "\r" or "\r\n")
+ */
+public final class MappedLogReader {
+    private MappedLogReader() {
+    }
+
+    /**
+     * Maps the file into memory and returns its lines.
+     * The file is unmapped when the stream is closed
+     *
+     * @param file path to the log file
+     * @return {@code Stream<String>} - lines of the file
+     * @throws IOException if an error occurs while trying to open or map the file
+     */
+    public static Stream<String> lines(Path file) throws IOException {
+        return lines(file, MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Maps the part of the file into memory and returns its lines.
+     * The part must begin at the beginning of a line
+     *
+     * @param file path to the log file
+     * @param from offset of the beginning of the part
+     * @param to   offset after the end of the part
+     * @return {@code Stream<String>} - lines of the part
+     * @throws IOException if an error occurs while trying to open or map the file
+     */
+    public static Stream<String> lines(Path file, long from, long to) throws IOException {
+        return lines(file, from, to, MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Finds the end of the last complete line of the part of the file,
+     * that is the offset after the last line feed of the part.
+     * The part after this offset can be the line which is still being written
+     *
+     * @param file path to the log file
+     * @param from offset of the beginning of the part
+     * @param to   offset after the end of the part
+     * @return offset after the last line feed or {@code from} if there are no line feeds in the part
+     * @throws IOException if an error occurs while reading the file
+     */
+    public static long completeLinesEnd(Path file, long from, long to) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+            long end = to;
+            while (end > from) {
+                long start = Math.max(from, end - SCAN_BUFFER_SIZE);
+                buffer.clear().limit((int) (end - start));
+                long position = start;
+                while (buffer.hasRemaining() && channel.read(buffer, position) > 0) {
+                    position = start + buffer.position();
+                }
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == LINE_FEED) {
+                        return start + i + 1;
+                    }
+                }
+                end = start;
+            }
+            return from;
+        }
+    }
+
+    static Stream<String> lines(Path file, long minChunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return lines(file, 0, channel.size(), minChunkSize);
+        }
+    }
+
+    private static Stream<String> lines(Path file, long from, long to, long minChunkSize) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from, arena);
+            return StreamSupport.stream(new LineSpliterator(segment, 0, segment.byteSize(), minChunkSize), false)
+                .onClose(arena::close);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The spliterator iterates over the lines of the part of the mapped file.
+     * The part is split in half at the nearest line feed after the middle
+     * until the parts become smaller than the minimal chunk size
+     */
+    private static final class LineSpliterator implements Spliterator<String> {
+        private final MemorySegment segment;
+        private final long end;
+        private final long minChunkSize;
+        private long position;
+
+        private LineSpliterator(MemorySegment segment, long start, long end, long minChunkSize) {
+            this.segment = segment;
+            this.position = start;
+            this.end = end;
+            this.minChunkSize = minChunkSize;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            if (position >= end) {
+                return false;
+            }
+            action.accept(nextLine());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super String> action) {
+            while (position < end) {
+                action.accept(nextLine());
+            }
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            long size = end - position;
+            if (size < 2 * minChunkSize) {
+                return null;
+            }
+
+            long middle = position + size / 2;
+            while (middle < end && segment.get(ValueLayout.JAVA_BYTE, middle - 1) != LINE_FEED) {
+                middle++;
+            }
+            if (middle >= end) {
+                return null;
+            }
+
+            LineSpliterator prefix = new LineSpliterator(segment, position, middle, minChunkSize);
+            position = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+
+        private String nextLine() {
+            long lineStart = position;
+            long lineEnd = lineStart;
+            boolean ascii = true;
+            byte current = 0;
+            while (lineEnd < end) {
+                current = segment.get(ValueLayout.JAVA_BYTE, lineEnd);
+                if (current == LINE_FEED || current == CARRIAGE_RETURN) {
+                    break;
+                }
+                ascii &= current >= 0;
+                lineEnd++;
+            }
+
+            position = lineEnd + 1;
+            if (current == CARRIAGE_RETURN && position < end
+                && segment.get(ValueLayout.JAVA_BYTE, position) == LINE_FEED) {
+                position++;
+            }
+
+            byte[] bytes = segment.asSlice(lineStart, lineEnd - lineStart).toArray(ValueLayout.JAVA_BYTE);
+            return new String(bytes, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+}
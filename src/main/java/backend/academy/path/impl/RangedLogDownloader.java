@@ -0,0 +1,264 @@
+package backend.academy.path.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The class downloads the remote log file in several parts at the same time
+ * using the HTTP range requests. Every part is downloaded on its own virtual thread
+ * and its lines are put into a bounded queue, so the parser can process
+ * the part while it is being downloaded.
+ * The part owns the lines which start inside its byte range: the line crossing
+ * the end of the range is read to the end, the line crossing the start is skipped,
+ * so every line is read exactly once and the lines keep the original order.
+ * The part requests its range with a small slack after the end for the crossing line;
+ * only if the line is longer than the slack, the rest of it is requested by one more request
+ */
+public class RangedLogDownloader {
+    private final HttpClient httpClient;
+    private final URI uri;
+    private final long contentLength;
+    private final long boundarySlack;
+    private final List<Part> parts;
+    private final LongAdder bytesRead = new LongAdder();
+
+    /**
+     * Parameterized constructor splits the file into equal byte ranges
+     *
+     * @param httpClient    client used to send the range requests
+     * @param uri           address of the log file
+     * @param contentLength size of the file in bytes
+     * @param connections   number of the parts downloaded at the same time
+     */
+    public RangedLogDownloader(HttpClient httpClient, URI uri, long contentLength, int connections) {
+        this(httpClient, uri, contentLength, connections, BOUNDARY_SLACK);
+    }
+
+    RangedLogDownloader(HttpClient httpClient, URI uri, long contentLength, int connections, long boundarySlack) {
+        this.httpClient = httpClient;
+        this.uri = uri;
+        this.contentLength = contentLength;
+        this.boundarySlack = boundarySlack;
+        this.parts = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            parts.add(new Part(contentLength * i / connections, contentLength * (i + 1) / connections));
+        }
+    }
+
+    /**
+     * Starts the download of all the parts and returns the lines of the file.
+     * The parts are the elements of the stream, so the parallel stream processes
+     * them independently. The downloads are stopped when the stream is closed
+     *
+     * @return {@code Stream<String>} - lines of the file
+     */
+    public Stream<String> lines() {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        parts.forEach(part -> executor.submit(part::download));
+        return parts.stream()
+            .flatMap(Part::lines)
+            .onClose(() -> {
+                executor.shutdownNow();
+                executor.close();
+            });
+    }
+
+    /**
+     * Gets the number of the bytes received by all the parts
+     *
+     * @return number of the bytes received so far
+     */
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Sends the range request
+     *
+     * @param range range of the bytes ({@code <first>-<last>} or {@code <first>-} for the rest of the file)
+     * @return body of the response
+     * @throws IOException if the server does not return the part of the file
+     */
+    private InputStream requestRange(String range) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(uri)
+            .header("Range", "bytes=" + range)
+            .GET()
+            .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() != PARTIAL_CONTENT) {
+            response.body().close();
+            throw new IOException("Сервер не вернул запрошенную часть файла: " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private record Batch(List<String> lines, IOException error) {
+    }
+
+    /**
+     * The part of the file. The downloaded lines are passed to the parser
+     * in batches through the bounded queue
+     */
+    private final class Part {
+        private final long start;
+        private final long end;
+        private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        private Part(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private void download() {
+            try {
+                downloadLines();
+                queue.put(END_OF_PART);
+            } catch (IOException e) {
+                putError(e);
+            } catch (RuntimeException e) {
+                putError(new IOException(e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void downloadLines() throws IOException, InterruptedException {
+            long from = start == 0 ? 0 : start - 1;
+            long rangeEnd = Math.min(end + boundarySlack, contentLength);
+            try (InputStream body = requestRange(from + "-" + (rangeEnd - 1))) {
+                LineSegmentReader reader = new LineSegmentReader(body);
+                long position = from;
+                if (start > 0) {
+                    position += reader.readSegment();
+                }
+                bytesRead.add(position - from);
+
+                List<String> batch = new ArrayList<>(BATCH_SIZE);
+                long length = position < end ? reader.readSegment() : 0;
+                while (length > 0) {
+                    position += length;
+                    bytesRead.add(length);
+                    if (!reader.lineFeedFound() && position < contentLength) {
+                        position += readRestOfLine(position, reader);
+                    }
+                    reader.addLines(batch);
+                    if (batch.size() >= BATCH_SIZE) {
+                        queue.put(new Batch(batch, null));
+                        batch = new ArrayList<>(BATCH_SIZE);
+                    }
+                    length = position < end ? reader.readSegment() : 0;
+                }
+                queue.put(new Batch(batch, null));
+            }
+        }
+
+        /**
+         * Requests the rest of the file and appends its first line to the segment of the reader
+         *
+         * @return number of the read bytes
+         */
+        private long readRestOfLine(long position, LineSegmentReader reader)
+            throws IOException, InterruptedException {
+            try (InputStream body = requestRange(position + "-")) {
+                LineSegmentReader rest = new LineSegmentReader(body);
+                long length = rest.readSegment();
+                rest.appendSegmentTo(reader);
+                bytesRead.add(length);
+                return length;
+            }
+        }
+
+        private void putError(IOException error) {
+            try {
+                queue.put(new Batch(List.of(), error));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private Stream<String> lines() {
+            return StreamSupport.stream(new PartSpliterator(queue), false);
+        }
+    }
+
+    /**
+     * The spliterator takes the batches of the lines from the queue
+     * until the end of the part
+     */
+    private static final class PartSpliterator implements Spliterator<String> {
+        private final BlockingQueue<Batch> queue;
+        private Iterator<String> batch = Collections.emptyIterator();
+        private boolean finished;
+
+        private PartSpliterator(BlockingQueue<Batch> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            while (!batch.hasNext() && !finished) {
+                Batch next = takeBatch();
+                if (next.error() != null) {
+                    throw new UncheckedIOException(next.error());
+                }
+                finished = next == END_OF_PART;
+                batch = next.lines().iterator();
+            }
+            if (!batch.hasNext()) {
+                return false;
+            }
+            action.accept(batch.next());
+            return true;
+        }
+
+        private Batch takeBatch() {
+            try {
+                return queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new InterruptedIOException("Загрузка файла была прервана"));
+            }
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    private static final Batch END_OF_PART = new Batch(List.of(), null);
+    private static final int PARTIAL_CONTENT = 206;
+    private static final long BOUNDARY_SLACK = 64 * 1024;
+    private static final int BATCH_SIZE = 1024;
+    private static final int QUEUE_CAPACITY = 16;
+}
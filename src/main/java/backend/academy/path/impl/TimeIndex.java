@@ -0,0 +1,319 @@
+package backend.academy.path.impl;
+
+import backend.academy.parser.tokenizer.impl.LineSpans;
+import backend.academy.parser.tokenizer.impl.NginxLogTokenizer;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The sparse time index of the local log file. The file is divided into blocks
+ * of about 64 KB beginning at the line boundaries, and the index keeps the offset
+ * of every block with the earliest and the latest time of its lines.
+ * The block containing a line whose time cannot be decoded is marked as containing any time,
+ * so the lines which are passed on by the filters are never skipped.
+ * The lines are not required to be sorted: the blocks before the first block
+ * that can contain a time after the beginning of the range and the blocks after the last block
+ * that can contain a time before the end of the range are skipped (the bounds are found
+ * by the binary search), so for the almost sorted logs only the blocks of the range are read.
+ * The index also counts the indexed lines, so the time span and the number of the lines
+ * of the file are known without reading it again (see {@link LogCatalog}).
+ * The index is built by the first scan of the file and is stored in the given index directory
+ * ({@code <UUID of the path>.tidx}), never next to the log file. When the log file grows, only the appended lines
+ * are indexed; if the indexed part has changed (the file has been truncated or rotated),
+ * the index is built again. If the index cannot be written, it is used only once
+ */
+final class TimeIndex {
+    private final LongArrayList offsets;
+    private final LongArrayList minTimes;
+    private final LongArrayList maxTimes;
+    private long indexedEnd;
+    private long lines;
+
+    private TimeIndex(LongArrayList offsets, LongArrayList minTimes, LongArrayList maxTimes, long indexedEnd,
+        long lines) {
+        this.offsets = offsets;
+        this.minTimes = minTimes;
+        this.maxTimes = maxTimes;
+        this.indexedEnd = indexedEnd;
+        this.lines = lines;
+    }
+
+    /**
+     * Reads the index of the file from the index directory and indexes the appended lines.
+     * The index is built from the beginning if there is no suitable stored index
+     *
+     * @param file           path to the log file
+     * @param indexDirectory directory of the stored indexes
+     * @return {@code TimeIndex} covering all the complete lines of the file
+     * @throws IOException if an error occurs while reading the log file
+     */
+    static TimeIndex of(Path file, Path indexDirectory) throws IOException {
+        long size = Files.size(file);
+        Path stored = indexPath(file, indexDirectory);
+        TimeIndex index = load(file, stored, size);
+        if (index == null) {
+            index = new TimeIndex(new LongArrayList(), new LongArrayList(), new LongArrayList(), 0, 0);
+        }
+
+        long completeEnd = MappedLogReader.completeLinesEnd(file, index.indexedEnd, size);
+        if (completeEnd > index.indexedEnd) {
+            index.append(file, completeEnd);
+            try {
+                index.save(file, stored);
+            } catch (IOException e) {
+                Logger.log.warn("Time index of {} cannot be saved: {}", file, e.getMessage());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Finds the part of the file which can contain the lines of the time range
+     *
+     * @param from the earliest time or null if it is not limited
+     * @param to   the latest time or null if it is not limited
+     * @return offsets of the beginning and the end of the part
+     *     (the beginning is not less than the end if there are no such lines)
+     */
+    long[] seek(LocalDateTime from, LocalDateTime to) {
+        int blocks = offsets.size();
+        long fromSecond = from == null ? Long.MIN_VALUE : from.toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to == null ? Long.MAX_VALUE : to.toEpochSecond(ZoneOffset.UTC);
+
+        long[] latestBefore = new long[blocks];
+        long[] earliestAfter = new long[blocks];
+        for (int block = 0; block < blocks; block++) {
+            latestBefore[block] = Math.max(block == 0 ? Long.MIN_VALUE : latestBefore[block - 1],
+                maxTimes.getLong(block));
+            int reversed = blocks - 1 - block;
+            earliestAfter[reversed] = Math.min(block == 0 ? Long.MAX_VALUE : earliestAfter[reversed + 1],
+                minTimes.getLong(reversed));
+        }
+
+        int first = firstNotLess(latestBefore, fromSecond);
+        int last = firstNotLess(earliestAfter, toSecond == Long.MAX_VALUE ? toSecond : toSecond + 1) - 1;
+        if (first > last) {
+            return new long[] {indexedEnd, indexedEnd};
+        }
+        return new long[] {offsets.getLong(first), last + 1 < blocks ? offsets.getLong(last + 1) : indexedEnd};
+    }
+
+    /**
+     * Gets the offset after the last indexed line
+     *
+     * @return offset after the last line feed of the indexed part
+     */
+    long indexedEnd() {
+        return indexedEnd;
+    }
+
+    /**
+     * Gets the number of the indexed lines
+     *
+     * @return number of the lines of the indexed part
+     */
+    long lines() {
+        return lines;
+    }
+
+    /**
+     * Gets the earliest time of the indexed lines
+     *
+     * @return the earliest time in seconds (the local time as UTC), {@code Long.MIN_VALUE}
+     *     if the time of a line cannot be decoded or {@code Long.MAX_VALUE} if there are no lines
+     */
+    long minTime() {
+        long minTime = Long.MAX_VALUE;
+        for (int block = 0; block < minTimes.size(); block++) {
+            minTime = Math.min(minTime, minTimes.getLong(block));
+        }
+        return minTime;
+    }
+
+    /**
+     * Gets the latest time of the indexed lines
+     *
+     * @return the latest time in seconds (the local time as UTC), {@code Long.MAX_VALUE}
+     *     if the time of a line cannot be decoded or {@code Long.MIN_VALUE} if there are no lines
+     */
+    long maxTime() {
+        long maxTime = Long.MIN_VALUE;
+        for (int block = 0; block < maxTimes.size(); block++) {
+            maxTime = Math.max(maxTime, maxTimes.getLong(block));
+        }
+        return maxTime;
+    }
+
+    /**
+     * Finds the first element of the non-decreasing array which is not less than the value
+     *
+     * @return index of the element or the length of the array if there is no such element
+     */
+    private static int firstNotLess(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Indexes the complete lines between the end of the indexed part and the given offset.
+     * The lines are added to the last block until it reaches the size of the block
+     */
+    private void append(Path file, long end) throws IOException {
+        NginxLogTokenizer tokenizer = new NginxLogTokenizer();
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, indexedEnd, end - indexedEnd, arena);
+            long position = 0;
+            while (position < segment.byteSize()) {
+                long lineEnd = position;
+                while (segment.get(ValueLayout.JAVA_BYTE, lineEnd) != LINE_FEED) {
+                    lineEnd++;
+                }
+                long offset = indexedEnd + position;
+                if (offsets.isEmpty() || offset - offsets.getLong(offsets.size() - 1) >= BLOCK_SIZE) {
+                    offsets.add(offset);
+                    minTimes.add(Long.MAX_VALUE);
+                    maxTimes.add(Long.MIN_VALUE);
+                }
+                addTime(decodeTime(tokenizer, segment, position, lineEnd));
+                lines++;
+                position = lineEnd + 1;
+            }
+        }
+        indexedEnd = end;
+    }
+
+    private void addTime(LocalDateTime time) {
+        int block = offsets.size() - 1;
+        long minTime = time == null ? Long.MIN_VALUE : time.toEpochSecond(ZoneOffset.UTC);
+        long maxTime = time == null ? Long.MAX_VALUE : minTime;
+        minTimes.set(block, Math.min(minTimes.getLong(block), minTime));
+        maxTimes.set(block, Math.max(maxTimes.getLong(block), maxTime));
+    }
+
+    /**
+     * Decodes the time of the line in the same way as the filters do.
+     * The fields of the line are located by the ASCII delimiters, so the line
+     * is decoded as ISO-8859-1 without checking UTF-8
+     */
+    private static LocalDateTime decodeTime(NginxLogTokenizer tokenizer, MemorySegment segment, long from, long to) {
+        long end = to > from && segment.get(ValueLayout.JAVA_BYTE, to - 1) == CARRIAGE_RETURN ? to - 1 : to;
+        String line = new String(segment.asSlice(from, end - from).toArray(ValueLayout.JAVA_BYTE),
+            StandardCharsets.ISO_8859_1);
+        LineSpans spans = tokenizer.locate(line);
+        return spans == null ? null : tokenizer.decodeTime(line, spans);
+    }
+
+    private static TimeIndex load(Path file, Path stored, long size) {
+        if (!Files.isRegularFile(stored)) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(
+            new BufferedInputStream(Files.newInputStream(stored), BUFFER_SIZE))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                return null;
+            }
+            long indexedEnd = input.readLong();
+            if (indexedEnd > size || input.readLong() != FileChecksum.of(file, indexedEnd)) {
+                return null;
+            }
+            long lines = input.readLong();
+            int blocks = input.readInt();
+            LongArrayList offsets = new LongArrayList(blocks);
+            LongArrayList minTimes = new LongArrayList(blocks);
+            LongArrayList maxTimes = new LongArrayList(blocks);
+            for (int block = 0; block < blocks; block++) {
+                offsets.add(input.readLong());
+                minTimes.add(input.readLong());
+                maxTimes.add(input.readLong());
+            }
+            return new TimeIndex(offsets, minTimes, maxTimes, indexedEnd, lines);
+        } catch (IOException | RuntimeException e) {
+            // the damaged index is built again
+            return null;
+        }
+    }
+
+    /**
+     * Writes the index into the temporary file which then replaces the stored index
+     */
+    private void save(Path file, Path stored) throws IOException {
+        Files.createDirectories(stored.toAbsolutePath().getParent());
+        Path temporary = Files.createTempFile(stored.toAbsolutePath().getParent(),
+            stored.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeLong(indexedEnd);
+                output.writeLong(FileChecksum.of(file, indexedEnd));
+                output.writeLong(lines);
+                output.writeInt(offsets.size());
+                for (int block = 0; block < offsets.size(); block++) {
+                    output.writeLong(offsets.getLong(block));
+                    output.writeLong(minTimes.getLong(block));
+                    output.writeLong(maxTimes.getLong(block));
+                }
+            }
+            Files.move(temporary, stored, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Gets the path of the stored index of the file, the name is derived from the absolute path of the file
+     *
+     * @param file           path to the log file
+     * @param indexDirectory directory of the stored indexes
+     * @return path of the stored index
+     */
+    static Path indexPath(Path file, Path indexDirectory) {
+        UUID name = UUID.nameUUIDFromBytes(file.toAbsolutePath().normalize().toString()
+            .getBytes(StandardCharsets.UTF_8));
+        return indexDirectory.resolve(name + EXTENSION);
+    }
+
+    @Slf4j
+    private static class Logger {
+
+    }
+
+    /**
+     * Extension of the stored indexes, these files are not log files
+     */
+    static final String EXTENSION = ".tidx";
+    private static final int MAGIC = 0x5449445a;
+    private static final int VERSION = 2;
+    private static final long BLOCK_SIZE = 64 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+}
@@ -1,43 +1,200 @@
 package backend.academy.path.impl;
 
 import backend.academy.path.PathHandler;
+import backend.academy.stats.FileReadEvent;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * The class contains method to handle the path in the network
- * and find log files using a URL
+ * and find log files using a URL.
+ * The response body is not loaded into memory: the lines are read
+ * from the connection while they are being parsed, so the remote log
+ * of any size is processed in constant memory.
+ * If the server supports the range requests, the large file is downloaded
+ * in several parts at the same time (see {@link RangedLogDownloader}).
+ * The file compressed by gzip is decompressed while it is being downloaded.
+ * The connection is closed when the stream of lines is closed,
+ * the reading of the file is recorded as the JFR event (see {@link FileReadEvent})
  */
 public class URLPathHandler implements PathHandler {
     private static final int OK = 200;
+    private static final int PARTIAL_CONTENT = 206;
+    private final int connections;
+    private final long minRangeSize;
+    private final LongAdder bytesRead = new LongAdder();
+
+    public URLPathHandler() {
+        this(1);
+    }
+
+    /**
+     * Parameterized constructor sets the maximum number of the parts
+     * of the file downloaded at the same time
+     *
+     * @param connections number of the connections (1 means single-stream download)
+     * @throws IllegalArgumentException if the number of the connections is not positive
+     */
+    public URLPathHandler(int connections) {
+        this(connections, MIN_RANGE_SIZE);
+        if (connections < 1) {
+            throw new IllegalArgumentException("Количество соединений должно быть положительным");
+        }
+    }
+
+    URLPathHandler(int connections, long minRangeSize) {
+        this.connections = connections;
+        this.minRangeSize = minRangeSize;
+    }
 
     @Override
     public List<Map.Entry<String, Stream<String>>> handlePath(String path) throws Exception {
-        try (HttpClient httpClient = HttpClient.newHttpClient()) {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        try {
+            URI uri = new URI(path);
+            long contentLength = connections > 1 ? requestRangeContentLength(httpClient, uri) : -1;
+            long parts = Math.min(connections, contentLength / minRangeSize);
+            if (parts > 1) {
+                RangedLogDownloader downloader = new RangedLogDownloader(httpClient, uri, contentLength, (int) parts);
+                return List.of(Map.entry(path, FileReadEvent.track(path,
+                    downloader.lines().onClose(httpClient::close), downloader::bytesRead, bytesRead)));
+            }
+
             HttpRequest request = HttpRequest.newBuilder()
-                .uri(new URI(path))
-                .header("Content-type", "application/json")
+                .uri(uri)
                 .GET()
                 .build();
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            HttpResponse<InputStream> response =
+                httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
             if (response.statusCode() != OK) {
+                response.body().close();
+                httpClient.close();
                 return List.of();
             }
-            return List.of(Map.entry(path, response.body().lines()));
-
+            CountingInputStream body = new CountingInputStream(response.body());
+            return List.of(Map.entry(path, FileReadEvent.track(path, streamLines(body, httpClient), body::count,
+                bytesRead)));
         } catch (URISyntaxException | IOException | InterruptedException e) {
+            httpClient.close();
             throw new Exception(e);
+        } catch (RuntimeException e) {
+            httpClient.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public long bytesRead() {
+        return bytesRead.sum();
+    }
+
+    /**
+     * Checks that the server supports the range requests for the file.
+     * The compressed file cannot be split into parts, so it is downloaded by a single request
+     *
+     * @return the size of the file or -1 if the file cannot be downloaded in parts
+     */
+    private long requestRangeContentLength(HttpClient httpClient, URI uri)
+        throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(uri)
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        boolean acceptsRanges = response.headers().allValues("Accept-Ranges").contains("bytes");
+        long contentLength = response.statusCode() == OK && acceptsRanges
+            ? response.headers().firstValueAsLong("Content-Length").orElse(-1)
+            : -1;
+        return contentLength > 0 && isSplittable(httpClient, uri) ? contentLength : -1;
+    }
+
+    private boolean isSplittable(HttpClient httpClient, URI uri) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+            .uri(uri)
+            .header("Range", "bytes=0-1")
+            .GET()
+            .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        return response.statusCode() == PARTIAL_CONTENT && !GzipLogReader.isGzipMagic(response.body());
+    }
+
+    private Stream<String> streamLines(InputStream body, HttpClient httpClient) throws IOException {
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(GzipLogReader.decompressIfGzip(body), StandardCharsets.UTF_8));
+        return StreamSupport.stream(new LineSpliterator(reader), false)
+            .onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    httpClient.close();
+                }
+            });
+    }
+
+    /**
+     * The spliterator reads the lines from the response body one by one.
+     * It is never split: the lines are not collected into batches,
+     * so the parallel processing does not buffer the body in memory
+     */
+    private static final class LineSpliterator implements Spliterator<String> {
+        private final BufferedReader reader;
+
+        private LineSpliterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+            String line;
+            try {
+                line = reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (line == null) {
+                return false;
+            }
+            action.accept(line);
+            return true;
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
         }
     }
 
+    private static final long MIN_RANGE_SIZE = 8L * 1024 * 1024;
+
     public static final Pattern URL_PATH_PATTERN =
         Pattern.compile("^https?:\\/\\/(?:www\\.)?[-a-zA-Z0-9@:%._\\+~#=]{1,256}\\.[a-zA-Z0-9()]{1,6}"
             + "\\b(?:[-a-zA-Z0-9()@:%_\\+.~#?&\\/=]*)$");
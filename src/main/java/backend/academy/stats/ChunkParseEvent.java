@@ -0,0 +1,48 @@
+package backend.academy.stats;
+
+import backend.academy.parser.impl.LineCounters;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event of parsing the chunk of lines (the file or the part appended to the file).
+ * The thread of the event is the thread which completed the chunk
+ */
+@Name(ChunkParseEvent.NAME)
+@Label("Log Chunk Parse")
+@Category({"Log Analyzer", "Parsing"})
+@Description("Filtering and parsing of the chunk of lines")
+public final class ChunkParseEvent extends jdk.jfr.Event {
+    @Label("Lines")
+    private long lines;
+
+    @Label("Parse Failures")
+    @Description("Lines which do not match the NGINX format")
+    private long failures;
+
+    @Label("Parallel")
+    @Description("The lines of the chunk are parsed by several threads")
+    private boolean parallel;
+
+    /**
+     * Sets the counters of the chunk and commits the event if it is recorded
+     *
+     * @param counters counters of the parsed chunk
+     * @param parallel whether the chunk is parsed by several threads
+     */
+    public void finish(LineCounters counters, boolean parallel) {
+        if (shouldCommit()) {
+            this.lines = counters.linesRead();
+            this.failures = counters.parseFailures();
+            this.parallel = parallel;
+            commit();
+        }
+    }
+
+    /**
+     * Name of the event type
+     */
+    public static final String NAME = "backend.academy.ChunkParse";
+}
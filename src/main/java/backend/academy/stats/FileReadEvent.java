@@ -0,0 +1,79 @@
+package backend.academy.stats;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event of reading the log file: the event lasts from taking the first line of the file
+ * until its stream of lines is closed (the files are opened before they are read)
+ * and contains the number of the read lines and bytes.
+ * The bytes are counted by the reader as they are stored in the file or received from the connection
+ * (before decompression and decoding)
+ */
+@Name(FileReadEvent.NAME)
+@Label("Log File Read")
+@Category({"Log Analyzer", "Files"})
+@Description("Reading of the log file from the first line until closing")
+public final class FileReadEvent extends jdk.jfr.Event {
+    @Label("Source")
+    @Description("Path or URL of the log file")
+    private String source;
+
+    @Label("Bytes")
+    @DataAmount
+    @Description("Bytes read from the file or the connection")
+    private long bytes;
+
+    @Label("Lines")
+    private long lines;
+
+    /**
+     * Records the reading of the stream of lines, the event begins when the first line is taken.
+     * The bytes read by the reader are added to the total when the stream is closed;
+     * if the event is not recorded, the lines are not counted
+     *
+     * @param source         path or URL of the log file
+     * @param lines          lines of the log file
+     * @param bytesRead      number of the bytes read by the reader so far, it is taken when the stream is closed
+     * @param totalBytesRead total number of the bytes read from all the files
+     * @return the stream of lines committing the event when it is closed
+     */
+    public static Stream<String> track(String source, Stream<String> lines, LongSupplier bytesRead,
+        LongAdder totalBytesRead) {
+        FileReadEvent event = new FileReadEvent();
+        if (!event.isEnabled()) {
+            return lines.onClose(() -> totalBytesRead.add(bytesRead.getAsLong()));
+        }
+        event.source = source;
+        AtomicBoolean started = new AtomicBoolean();
+        LongAdder count = new LongAdder();
+        return lines
+            .peek(line -> {
+                if (!started.get() && started.compareAndSet(false, true)) {
+                    event.begin();
+                }
+                count.increment();
+            })
+            .onClose(() -> {
+                if (started.compareAndSet(false, true)) {
+                    event.begin();
+                }
+                event.bytes = bytesRead.getAsLong();
+                event.lines = count.sum();
+                totalBytesRead.add(event.bytes);
+                event.commit();
+            });
+    }
+
+    /**
+     * Name of the event type
+     */
+    public static final String NAME = "backend.academy.FileRead";
+}
@@ -0,0 +1,64 @@
+package backend.academy.stats;
+
+import backend.academy.parser.impl.FilterStatistics;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+
+/**
+ * The JFR event with the selectivity of the filters of the analysis:
+ * the number of the lines rejected before and after parsing and the share of the accepted lines
+ */
+@Name(FilterSelectivityEvent.NAME)
+@Label("Log Filter Selectivity")
+@Category({"Log Analyzer", "Parsing"})
+@Description("Lines rejected by the filters of the analysis")
+public final class FilterSelectivityEvent extends jdk.jfr.Event {
+    @Label("Filter Field")
+    private String filterField;
+
+    @Label("Filter Value")
+    private String filterValue;
+
+    @Label("Lines Read")
+    private long linesRead;
+
+    @Label("Skipped By Line Filter")
+    private long skippedByLineFilter;
+
+    @Label("Skipped By Record Filter")
+    private long skippedByRecordFilter;
+
+    @Label("Selectivity")
+    @Percentage
+    @Description("Share of the read lines which passed all the filters")
+    private double selectivity;
+
+    /**
+     * Commits the event if it is recorded
+     *
+     * @param filterField      field for additional filtering or null
+     * @param filterValue      value for additional filtering or null
+     * @param filterStatistics number of the lines rejected at each stage
+     */
+    public static void emit(String filterField, String filterValue, FilterStatistics filterStatistics) {
+        FilterSelectivityEvent event = new FilterSelectivityEvent();
+        if (event.shouldCommit()) {
+            event.filterField = filterField;
+            event.filterValue = filterValue;
+            event.linesRead = filterStatistics.linesRead();
+            event.skippedByLineFilter = filterStatistics.skippedByLineFilter();
+            event.skippedByRecordFilter = filterStatistics.skippedByRecordFilter();
+            event.selectivity = filterStatistics.linesRead() == 0
+                ? 0 : (double) filterStatistics.accepted() / filterStatistics.linesRead();
+            event.commit();
+        }
+    }
+
+    /**
+     * Name of the event type
+     */
+    public static final String NAME = "backend.academy.FilterSelectivity";
+}
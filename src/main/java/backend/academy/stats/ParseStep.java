@@ -0,0 +1,22 @@
+package backend.academy.stats;
+
+import lombok.Getter;
+
+/**
+ * The steps of processing a line inside the parsing stage (see {@link Stage#PARSE}).
+ * The lines are processed by one stream, so the steps are timed on the sampled lines
+ * (see {@link ParseStepStatistics})
+ */
+@Getter
+public enum ParseStep {
+    TOKENIZE("Разметка строк"),
+    FILTER("Фильтрация"),
+    PARSE("Создание записей"),
+    AGGREGATE("Сбор статистики");
+
+    private final String title;
+
+    ParseStep(String title) {
+        this.title = title;
+    }
+}
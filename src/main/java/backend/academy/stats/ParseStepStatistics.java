@@ -0,0 +1,11 @@
+package backend.academy.stats;
+
+/**
+ * The class contains the estimated time spent on the step of processing the lines.
+ * Only every 64th line of every thread is timed, the time of the timed lines is multiplied by 64
+ *
+ * @param step        the step
+ * @param threadNanos estimated time of the step summed over all the parsing threads in nanoseconds
+ */
+public record ParseStepStatistics(ParseStep step, long threadNanos) {
+}
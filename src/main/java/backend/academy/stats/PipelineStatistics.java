@@ -0,0 +1,180 @@
+package backend.academy.stats;
+
+import backend.academy.parser.impl.LineCounters;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The class measures the stages of the analysis: the elapsed and the CPU time of every stage,
+ * the estimated time of the steps of parsing, the counters of the read and parsed lines, the number
+ * of the read bytes and the sum of the peak usages of the heap pools.
+ * The time is measured once per stage, the steps are timed on the sampled lines, the line counters
+ * are collected by the parsing threads without synchronization (see {@link LineCounters})
+ * and the bytes are summed once per file when its stream is closed,
+ * so the measurement does not slow down the analysis.
+ * The pools reach their peaks at different moments, so the sum of the peaks is the upper bound
+ * of the peak usage of the whole heap
+ */
+public class PipelineStatistics {
+    private final Map<Stage, StageStatistics> stages = new EnumMap<>(Stage.class);
+    private final List<MemoryPoolMXBean> heapPools;
+    private LineCounters lineCounters = new LineCounters(0, 0, 0, 0, 0);
+    private long bytesRead;
+    private List<ParseStepStatistics> stepStatistics = List.of();
+
+    /**
+     * The constructor resets the peak usages of the heap pools, so the peaks of the analysis are measured
+     */
+    public PipelineStatistics() {
+        heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+            .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    /**
+     * Runs the stage and adds its time to the statistics
+     *
+     * @param stage  the measured stage
+     * @param action the work of the stage
+     * @param <T>    type of the result of the stage
+     * @param <E>    type of the exception thrown by the stage
+     * @return the result of the stage
+     * @throws E if the stage fails (the time is counted anyway)
+     */
+    public <T, E extends Exception> T measure(Stage stage, Action<T, E> action) throws E {
+        long wallStart = System.nanoTime();
+        long cpuStart = cpuTime();
+        try {
+            return action.run();
+        } finally {
+            StageStatistics measured = new StageStatistics(stage, System.nanoTime() - wallStart, cpuTime() - cpuStart);
+            stages.merge(stage, measured, (previous, next) -> new StageStatistics(stage,
+                previous.wallNanos() + next.wallNanos(), previous.cpuNanos() + next.cpuNanos()));
+        }
+    }
+
+    /**
+     * Sets the counters of the read and parsed lines
+     *
+     * @param lineCounters counters collected by the parser
+     */
+    public void lineCounters(LineCounters lineCounters) {
+        this.lineCounters = lineCounters;
+    }
+
+    /**
+     * Sets the number of the bytes read from the files or the connections
+     *
+     * @param bytesRead number of the bytes summed by the readers of the log files
+     */
+    public void bytesRead(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    /**
+     * Sets the estimated time of the steps of parsing
+     *
+     * @param stepStatistics time of the steps collected by the parser
+     */
+    public void stepStatistics(List<ParseStepStatistics> stepStatistics) {
+        this.stepStatistics = List.copyOf(stepStatistics);
+    }
+
+    /**
+     * Collects the measured values
+     *
+     * @return {@code Summary} object
+     */
+    public Summary summary() {
+        long heapPoolPeaks = heapPools.stream().filter(MemoryPoolMXBean::isValid)
+            .mapToLong(pool -> pool.getPeakUsage().getUsed())
+            .sum();
+        return new Summary(lineCounters, bytesRead, List.copyOf(stages.values()), stepStatistics, heapPoolPeaks);
+    }
+
+    /**
+     * Formats the measured values for the user
+     *
+     * @return the text with the counters, the time of the stages and the steps and the peaks of the heap pools
+     */
+    public String format() {
+        Summary summary = summary();
+        LineCounters counters = summary.lineCounters();
+        StringBuilder text = new StringBuilder("Статистика выполнения\n")
+            .append("Прочитано строк: ").append(counters.linesRead())
+            .append(" (").append(summary.bytesRead()).append(" байт)\n");
+        if (counters.linesRestored() > 0) {
+            text.append("Восстановлено строк из снимков: ").append(counters.linesRestored()).append('\n');
+        }
+        text            .append("Разобрано строк: ").append(counters.linesParsed()).append('\n')
+            .append("Ошибок разбора: ").append(counters.parseFailures()).append('\n')
+            .append("Отброшено фильтрами: ").append(counters.linesFiltered()).append('\n');
+        for (StageStatistics stage : summary.stages()) {
+            text.append(stage.stage().title()).append(": ").append(stage.wallNanos() / NANOS_PER_MILLI)
+                .append(" мс, процессорное время: ").append(stage.cpuNanos() / NANOS_PER_MILLI).append(" мс\n");
+        }
+        if (!summary.parseSteps().isEmpty()) {
+            text.append("Этапы разбора (оценка по выборке строк, время всех потоков):\n");
+            for (ParseStepStatistics step : summary.parseSteps()) {
+                text.append("  ").append(step.step().title()).append(": ").append(step.threadNanos() / NANOS_PER_MILLI)
+                    .append(" мс\n");
+            }
+        }
+        return text.append("Сумма пиков пулов кучи (не меньше пика всей кучи): ")
+            .append(summary.heapPoolPeaksBytes() / BYTES_PER_MEGABYTE).append(" МБ\n").toString();
+    }
+
+    /**
+     * Gets the CPU time of the process or, if it is not available, of the current thread
+     */
+    private static long cpuTime() {
+        OperatingSystemMXBean system = ManagementFactory.getOperatingSystemMXBean();
+        if (system instanceof com.sun.management.OperatingSystemMXBean processBean
+            && processBean.getProcessCpuTime() >= 0) {
+            return processBean.getProcessCpuTime();
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * The work of the measured stage
+     *
+     * @param <T> type of the result
+     * @param <E> type of the exception
+     */
+    @FunctionalInterface
+    public interface Action<T, E extends Exception> {
+        /**
+         * Runs the stage
+         *
+         * @return the result of the stage
+         * @throws E if the stage fails
+         */
+        T run() throws E;
+    }
+
+    /**
+     * The measured values of the analysis (emitted as JSON for monitoring)
+     *
+     * @param lineCounters       counters of the read and parsed lines
+     * @param bytesRead          number of the bytes read from the files or the connections
+     * @param stages             time of the stages in the order of the stages
+     * @param parseSteps         estimated time of the steps of parsing in the order of the steps
+     * @param heapPoolPeaksBytes sum of the peak usages of the heap pools in bytes
+     *                           (the upper bound of the peak usage of the heap)
+     */
+    public record Summary(LineCounters lineCounters, long bytesRead, List<StageStatistics> stages,
+        List<ParseStepStatistics> parseSteps, long heapPoolPeaksBytes) {
+    }
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+    private static final long BYTES_PER_MEGABYTE = 1 << 20;
+}
@@ -0,0 +1,47 @@
+package backend.academy.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event of formatting the report
+ */
+@Name(ReportFormatEvent.NAME)
+@Label("Log Report Format")
+@Category({"Log Analyzer", "Report"})
+@Description("Formatting of the report")
+public final class ReportFormatEvent extends jdk.jfr.Event {
+    @Label("Formatter")
+    private String formatter;
+
+    @Label("Requests")
+    @Description("Number of the requests in the report")
+    private long requests;
+
+    @Label("Characters")
+    @Description("Length of the formatted report")
+    private long characters;
+
+    /**
+     * Sets the description of the report and commits the event if it is recorded
+     *
+     * @param formatter  name of the formatter
+     * @param requests   number of the requests in the report
+     * @param characters length of the formatted report
+     */
+    public void finish(String formatter, long requests, long characters) {
+        if (shouldCommit()) {
+            this.formatter = formatter;
+            this.requests = requests;
+            this.characters = characters;
+            commit();
+        }
+    }
+
+    /**
+     * Name of the event type
+     */
+    public static final String NAME = "backend.academy.ReportFormat";
+}
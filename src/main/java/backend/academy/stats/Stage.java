@@ -0,0 +1,23 @@
+package backend.academy.stats;
+
+import lombok.Getter;
+
+/**
+ * The stages of the analysis measured by {@link PipelineStatistics}.
+ * The lines are read, filtered and parsed lazily by one stream,
+ * so these steps make up one stage and are distinguished by the line counters
+ * and by the time of the steps measured on the sampled lines (see {@link ParseStep}).
+ * The report is formatted straight into the output, so the formatting and the output make up one stage too
+ */
+@Getter
+public enum Stage {
+    FILES("Поиск файлов"),
+    PARSE("Чтение, фильтрация и разбор"),
+    OUTPUT("Форматирование и вывод отчёта");
+
+    private final String title;
+
+    Stage(String title) {
+        this.title = title;
+    }
+}
@@ -0,0 +1,12 @@
+package backend.academy.stats;
+
+/**
+ * The class contains the time spent on the stage of the analysis
+ *
+ * @param stage     the stage
+ * @param wallNanos elapsed time in nanoseconds
+ * @param cpuNanos  CPU time of all the threads of the process in nanoseconds
+ *                  (or of the current thread if the process time is not available)
+ */
+public record StageStatistics(Stage stage, long wallNanos, long cpuNanos) {
+}
@@ -14,6 +14,19 @@ public interface IOHandler {
      */
     void write(String data) throws IOException;
 
+    /**
+     * Write the data produced piece by piece to the output stream
+     * (by default the data is collected into a string and written at once)
+     *
+     * @param content producer of the data
+     * @throws IOException if an output error has occurred
+     */
+    default void write(Content content) throws IOException {
+        StringBuilder data = new StringBuilder();
+        content.writeTo(data);
+        write(data.toString());
+    }
+
     /**
      * Read a string from the input stream
      *
@@ -21,4 +34,18 @@ public interface IOHandler {
      * @throws IOException if an input error has occurred
      */
     String read() throws IOException;
+
+    /**
+     * The data written piece by piece into the output
+     */
+    @FunctionalInterface
+    interface Content {
+        /**
+         * Writes the data into the output
+         *
+         * @param output destination of the data
+         * @throws IOException if an output error has occurred
+         */
+        void writeTo(Appendable output) throws IOException;
+    }
 }
@@ -0,0 +1,63 @@
+package backend.academy.tools.impl;
+
+import backend.academy.tools.IOHandler;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Scanner;
+
+/**
+ * The handler replaces the whole output file by every write, so the file always contains
+ * only the last written data (for example, the last refresh of the report in the follow mode).
+ * The data is written into a temporary file of the same directory which is then moved
+ * in place of the output file, so the reader of the file never sees a partially written report
+ */
+public class FileRewriteHandler implements IOHandler {
+    private final Scanner inputStream;
+    private final Path file;
+
+    /**
+     * Parameterized constructor sets the input stream and the replaced file
+     *
+     * @param inputStream data reading stream
+     * @param file        output file
+     */
+    public FileRewriteHandler(InputStream inputStream, Path file) {
+        this.inputStream = new Scanner(inputStream, StandardCharsets.UTF_8);
+        this.file = file;
+    }
+
+    @Override
+    public void write(String data) throws IOException {
+        write(output -> output.append(data));
+    }
+
+    /**
+     * Writes the data into the temporary file and moves it in place of the output file
+     *
+     * @param content producer of the data
+     * @throws IOException if an output error has occurred
+     */
+    @Override
+    public void write(Content content) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                content.writeTo(writer);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Override
+    public String read() {
+        return inputStream.nextLine();
+    }
+}
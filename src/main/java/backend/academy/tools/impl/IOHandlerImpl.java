@@ -1,9 +1,13 @@
 package backend.academy.tools.impl;
 
 import backend.academy.tools.IOHandler;
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 import lombok.Getter;
@@ -48,10 +52,25 @@ public class IOHandlerImpl implements IOHandler {
         outputStream.print(data);
     }
 
+    /**
+     * Writes the data through the buffer, so the large data is not kept in memory
+     * and the output stream is not flushed after every line
+     *
+     * @param content producer of the data
+     * @throws IOException if an output error has occurred
+     */
+    @Override
+    public void write(Content content) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        content.writeTo(writer);
+        writer.flush();
+    }
+
     public String read() {
         return inputStream.nextLine();
     }
 
     public static final String PATH_TO_OUTPUT_FILE = "src/main/resources/";
+    private static final int BUFFER_SIZE = 1 << 16;
 }
 
@@ -1,7 +1,9 @@
 package backend.academy.cliparams;
 
+import backend.academy.parser.impl.LogParser;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.ParameterException;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,8 +11,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CliParamsTest {
     CliParams cliParams;
@@ -175,4 +179,168 @@ class CliParamsTest {
         assertThrows(ParameterException.class,
             () -> JCommander.newBuilder().addObject(cliParams).build().parse(params));
     }
+
+    @Test
+    @DisplayName("Ensure the number of threads is initialized correctly")
+    void ensureThreadsAreInitializedCorrectly() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt", "--threads", "4"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertEquals(4, cliParams.threads());
+    }
+
+    @Test
+    @DisplayName("Ensure the number of threads is the number of processors by default")
+    void ensureThreadsAreNumberOfProcessorsByDefault() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertEquals(Runtime.getRuntime().availableProcessors(), cliParams.threads());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-2", "abc", " "})
+    @DisplayName("Ensure the wrong number of threads throws exception")
+    void ensureWrongThreadsThrowException(String current) {
+        String[] params = new String[] {"--path", "somePath/someFile.txt", "--threads", current};
+
+        assertThrows(ParameterException.class,
+            () -> JCommander.newBuilder().addObject(cliParams).build().parse(params));
+    }
+
+    @Test
+    @DisplayName("Ensure the capacity of the approximate top is initialized correctly")
+    void ensureTopCapacityIsInitializedCorrectly() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt", "--top-capacity", "1000"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertEquals(1000, cliParams.topCapacity());
+    }
+
+    @Test
+    @DisplayName("Ensure the exact top is used by default")
+    void ensureExactTopIsUsedByDefault() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertEquals(0, cliParams.topCapacity());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-5", "many"})
+    @DisplayName("Ensure the wrong capacity of the approximate top throws exception")
+    void ensureWrongTopCapacityThrowsException(String current) {
+        String[] params = new String[] {"--path", "somePath/someFile.txt", "--top-capacity", current};
+
+        assertThrows(ParameterException.class,
+            () -> JCommander.newBuilder().addObject(cliParams).build().parse(params));
+    }
+
+    @Test
+    @DisplayName("Ensure the quantiles of the response size are initialized correctly")
+    void ensureQuantilesAreInitializedCorrectly() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt", "--quantiles", "0.5,0.99,1"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertEquals(List.of(0.5, 0.99, 1.0), cliParams.quantiles());
+    }
+
+    @Test
+    @DisplayName("Ensure the default quantiles of the response size are used if the flag is not set")
+    void ensureDefaultQuantilesAreUsed() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertEquals(LogParser.DEFAULT_QUANTILES, cliParams.quantiles());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1.5", "-0.1", "0.5,p99", "NaN"})
+    @DisplayName("Ensure the wrong quantiles throw exception")
+    void ensureWrongQuantilesThrowException(String current) {
+        String[] params = new String[] {"--path", "somePath/someFile.txt", "--quantiles", current};
+
+        assertThrows(ParameterException.class,
+            () -> JCommander.newBuilder().addObject(cliParams).build().parse(params));
+    }
+
+    @Test
+    @DisplayName("Ensure the snapshot directory is initialized correctly")
+    void ensureSnapshotDirectoryIsInitializedCorrectly() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt", "--snapshot-dir", "snapshots"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertEquals("snapshots", cliParams.snapshotDirectory());
+    }
+
+    @Test
+    @DisplayName("Ensure the index directory is initialized correctly")
+    void ensureIndexDirectoryIsInitializedCorrectly() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt", "--index-dir", "indexes"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertEquals("indexes", cliParams.indexDirectory());
+    }
+
+    @Test
+    @DisplayName("Ensure the follow mode and the refresh interval are initialized correctly")
+    void ensureFollowModeIsInitializedCorrectly() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt", "--follow", "--refresh-interval", "5"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertTrue(cliParams.follow());
+        assertEquals(5, cliParams.refreshInterval());
+    }
+
+    @Test
+    @DisplayName("Ensure the follow mode is disabled by default")
+    void ensureFollowModeIsDisabledByDefault() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertFalse(cliParams.follow());
+        assertEquals(10, cliParams.refreshInterval());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-1", "often"})
+    @DisplayName("Ensure the wrong refresh interval throws exception")
+    void ensureWrongRefreshIntervalThrowsException(String current) {
+        String[] params = new String[] {"--path", "somePath/someFile.txt", "--follow", "--refresh-interval", current};
+
+        assertThrows(ParameterException.class,
+            () -> JCommander.newBuilder().addObject(cliParams).build().parse(params));
+    }
+
+    @Test
+    @DisplayName("Ensure the statistics flags are initialized correctly")
+    void ensureStatisticsFlagsAreInitializedCorrectly() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt", "--stats", "--stats-json", "stats.json"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertTrue(cliParams.stats());
+        assertEquals("stats.json", cliParams.statsFile());
+    }
+
+    @Test
+    @DisplayName("Ensure the statistics are not printed by default")
+    void ensureStatisticsAreDisabledByDefault() {
+        String[] params = new String[] {"--path", "somePath/someFile.txt"};
+
+        JCommander.newBuilder().addObject(cliParams).build().parse(params);
+
+        assertFalse(cliParams.stats());
+        assertNull(cliParams.statsFile());
+    }
 }
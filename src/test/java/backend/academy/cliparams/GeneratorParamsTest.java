@@ -0,0 +1,68 @@
+package backend.academy.cliparams;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.ParameterException;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeneratorParamsTest {
+    @Test
+    @DisplayName("Ensure the parameters of the distributions are parsed")
+    void ensureDistributionParametersAreParsed() {
+        GeneratorParams params = new GeneratorParams();
+        String[] args = {"--file", "access.log", "--resource-skew", "0", "--address-skew", "0.8",
+            "--status-weights", "200:90,404:10", "--hour-weights", hourWeights(), "--min-body-size", "100",
+            "--body-size-tail", "2.5"};
+
+        JCommander.newBuilder().addObject(params).build().parse(args);
+
+        assertEquals(0.0, params.resourceSkew());
+        assertEquals(0.8, params.addressSkew());
+        assertEquals(Map.of(200, 90.0, 404, 10.0), params.statusWeights());
+        assertEquals(24, params.hourWeights().length);
+        assertEquals(100L, params.minBodySize());
+        assertEquals(2.5, params.bodySizeTail());
+    }
+
+    @Test
+    @DisplayName("Ensure the weights of the response codes are converted")
+    void ensureStatusWeightsAreConverted() {
+        assertEquals(Map.of(200, 80.0, 304, 10.0, 500, 0.5),
+            new GeneratorParams.StatusWeightsConverter().convert("200:80, 304:10,500:0.5"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"200", "200:80,200:10", "ok:80", "200:many", "200:1:2"})
+    @DisplayName("Ensure the incorrect weights of the response codes are rejected")
+    void ensureIncorrectStatusWeightsAreRejected(String weights) {
+        assertThrows(ParameterException.class, () -> new GeneratorParams.StatusWeightsConverter().convert(weights));
+    }
+
+    @Test
+    @DisplayName("Ensure the weights of the hours are converted")
+    void ensureHourWeightsAreConverted() {
+        double[] expected = new double[24];
+        Arrays.fill(expected, 1);
+        expected[23] = 2.5;
+
+        assertArrayEquals(expected, new GeneratorParams.HourWeightsConverter().convert(hourWeights()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1,2,3", "1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,x"})
+    @DisplayName("Ensure the weights of the hours must contain 24 numbers")
+    void ensureIncorrectHourWeightsAreRejected(String weights) {
+        assertThrows(ParameterException.class, () -> new GeneratorParams.HourWeightsConverter().convert(weights));
+    }
+
+    private static String hourWeights() {
+        return "1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,2.5";
+    }
+}
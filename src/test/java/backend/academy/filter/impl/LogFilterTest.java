@@ -3,14 +3,20 @@ package backend.academy.filter.impl;
 import backend.academy.filter.Filter;
 import backend.academy.log.LogRecord;
 import backend.academy.log.LogRecord.Request;
+import backend.academy.parser.tokenizer.impl.LineSpans;
+import backend.academy.parser.tokenizer.impl.NginxLogTokenizer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.Mockito;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -89,4 +95,78 @@ class LogFilterTest {
         assertThrows(IllegalArgumentException.class,
             () -> logFilter.filter(logRecord, null, null, filterField, "value"));
     }
+
+    @ParameterizedTest
+    @CsvSource(value = {
+        "2010-02-20, 2017-03-10, method, ^GET$, true",
+        "2015-05-17, NULL, agent, ^Debian.*$, true",
+        "NULL, 2015-05-17, agent, ^Debian APT-HTTP/1\\.4.*$, false",
+        "2015-05-18, NULL, NULL, NULL, false",
+        "NULL, 2015-05-16, NULL, NULL, false",
+        "NULL, NULL, remote_address, ^93\\.180\\.71\\.3$, true",
+        "NULL, NULL, http_version, ^HTTP/1\\..$, true",
+        "NULL, NULL, NULL, NULL, true"
+    }, nullValues = "NULL")
+    @DisplayName("Ensure the compiled predicate gives the same result as the filter method")
+    void ensureCompiledPredicateIsSameAsFilter(
+        LocalDate fromDate, LocalDate toDate, String field, String value, boolean expected
+    ) {
+        boolean actual = logFilter.compile(fromDate, toDate, field, value).test(logRecord);
+
+        assertEquals(expected, actual);
+        assertEquals(expected, logFilter.filter(logRecord, fromDate, toDate, field, value));
+    }
+
+    @Test
+    @DisplayName("Ensure compile method throws exception if there are wrong filterField")
+    void ensureCompileThrowsExceptionIfWrongFilterField() {
+        assertThrows(IllegalArgumentException.class, () -> logFilter.compile(null, null, "wrong", "value"));
+    }
+
+    @ParameterizedTest
+    @CsvSource(value = {
+        "2015-05-17, 2015-05-17, agent, ^Debian.*$",
+        "2015-05-18, NULL, NULL, NULL",
+        "NULL, 2015-05-17, method, ^HEAD$",
+        "NULL, NULL, remote_user, ^-$",
+        "NULL, NULL, referer, ^.*google.*$",
+        "NULL, NULL, http_version, ^HTTP/1\\.0$",
+        "NULL, NULL, remote_address, ^93\\.180\\.71\\.3$",
+        "NULL, NULL, NULL, NULL"
+    }, nullValues = "NULL")
+    @DisplayName("Ensure the line check gives the same result as the check of the parsed record")
+    void ensureLineCheckIsSameAsRecordCheck(LocalDate fromDate, LocalDate toDate, String field, String value) {
+        Predicate<String> lineFilter = logFilter.compileLine(fromDate, toDate, field, value);
+        BiPredicate<String, LineSpans> locatedLineFilter = logFilter.compileLocatedLine(fromDate, toDate, field, value);
+        Predicate<LogRecord> recordFilter = logFilter.compile(fromDate, toDate, field, value);
+        NginxLogTokenizer tokenizer = new NginxLogTokenizer();
+
+        for (String line : LINES) {
+            LineSpans spans = tokenizer.locate(line);
+            assertEquals(recordFilter.test(LogRecord.newLogRecord(line)), lineFilter.test(line), line);
+            assertEquals(lineFilter.test(line), locatedLineFilter.test(line, spans), line);
+            assertEquals(LogRecord.newLogRecord(line), LogRecord.newLogRecord(line, spans), line);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensure the line check passes the lines which are not recognized by the tokenizer")
+    void ensureLineCheckPassesUnrecognizedLines() {
+        String line = "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\""
+            + " \"A \"B\" C\"";
+
+        assertTrue(logFilter.compileLine(null, null, "agent", "^Debian.*$").test(line));
+        assertThrows(IllegalArgumentException.class, () -> logFilter.compileLine(null, null, "wrong", "value"));
+    }
+
+    private static final List<String> LINES = List.of(
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" "
+            + "\"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"",
+        "80.91.33.133 - bob [17/May/2015:23:59:59 +0000] \"HEAD /downloads/product_2 HTTP/1.0\" 200 12 "
+            + "\"http://google.com/\" \"Wget/1.13.4\"",
+        "93.180.71.30 - - [18/May/2015:00:00:00 +0000] \"GET /downloads/product_1 HTTP/1.1\" 404 332 \"-\" "
+            + "\"Debian\"",
+        "217.168.17.5 - - [16/May/2015:08:05:34 +0000] \"POST /downloads/product_1 HTTP/1.1\" 200 490 \"-\" "
+            + "\"Mozilla/5.0\""
+    );
 }
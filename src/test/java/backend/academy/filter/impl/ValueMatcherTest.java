@@ -0,0 +1,64 @@
+package backend.academy.filter.impl;
+
+import backend.academy.cliparams.CliParams;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ValueMatcherTest {
+    private static final List<String> VALUES = List.of(
+        "", "GET", "get", "GETS", "HEAD", "-", "+", "a", "ab", "abc", "a.c", "a\\c", "aXc", "a+b", "aab",
+        "Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)", "Debian", "Debian\n", "Debian x\ny", "Debian ",
+        "93.180.71.3", "93x180x71x3", "HTTP/1.1", "HTTP/1.1\n", "Mozilla/5.0", "Zgrab/0.x", "^GET$", "GET$"
+    );
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "^GET$", "GET", "^-$", "-", "^Debian.*$", "Debian.*", "^Debian APT-HTTP/1\\.3.*$", "^93\\.180\\.71\\.3$",
+        "93\\.180\\.71\\.3", "^a\\\\c$", "^.*$", ".*", "^$", "", "^a.c$", ".*ubuntu.*", "^a+b$", "a+b", "^.*1\\.1.*$",
+        "^HTTP/1\\.1$", "^HTTP/1\\.1\\$", "\\+", "^Zgrab/0\\..*$", "GET$", "^GET", "(GET|HEAD)", "[a-c]+",
+        "^a\\\\\\\\c$", "a\\\\$"
+    })
+    @DisplayName("Ensure the compiled matcher gives the same result as the regular expression")
+    void ensureMatcherIsSameAsRegularExpression(String regex) {
+        Predicate<String> matcher = ValueMatcher.compile(regex);
+        Pattern pattern = Pattern.compile(regex);
+
+        for (String value : VALUES) {
+            assertEquals(pattern.matcher(value).matches(), matcher.test(value), regex + " / " + value);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"GET", "Debian*", "*ubuntu*", "a?c", "93.180.71.3", "a\\c", "a+b", "*", "HTTP/1.*"})
+    @DisplayName("Ensure the matcher compiled from the glob gives the same result as the regular expression")
+    void ensureMatcherOfGlobIsSameAsRegularExpression(String glob) {
+        String regex = new CliParams.GlobToRegexConverter().convert(glob);
+        Predicate<String> matcher = ValueMatcher.compile(regex);
+        Pattern pattern = Pattern.compile(regex);
+
+        for (String value : VALUES) {
+            assertEquals(pattern.matcher(value).matches(), matcher.test(value), glob + " / " + value);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "^GET$", "-", "^Debian.*$", "^93\\.180\\.71\\.3$", "^a\\\\c$", "^.*$", "^$", ".*ubuntu.*", "(GET|HEAD)", "GET$"
+    })
+    @DisplayName("Ensure the value checked in place gives the same result as the regular expression")
+    void ensureRegionMatcherIsSameAsRegularExpression(String regex) {
+        ValueMatcher.RegionPredicate matcher = ValueMatcher.compileRegion(regex);
+        Pattern pattern = Pattern.compile(regex);
+
+        for (String value : VALUES) {
+            String line = "\"" + value + "\" GET";
+            assertEquals(pattern.matcher(value).matches(), matcher.test(line, 1, value.length() + 1),
+                regex + " / " + value);
+        }
+    }
+}
@@ -2,8 +2,17 @@ package backend.academy.format;
 
 import backend.academy.format.impl.AsciiDocFormatter;
 import backend.academy.format.impl.MarkdownFormatter;
+import backend.academy.log.DistinctCounts;
 import backend.academy.log.LogReport;
-import java.util.LinkedHashMap;
+import backend.academy.log.SizeQuantiles;
+import it.unimi.dsi.fastutil.ints.Int2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.shorts.Short2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2LongMap;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.DisplayName;
@@ -48,6 +57,9 @@ class FormatHandlerTest {
             |Количество запросов|51462|
             |Средний размер ответа|659509|
             |95p размера ответа|1768|
+            |Уникальных IP-адресов (≈)|2660|
+            |Уникальных User-Agent (≈)|22|
+            |Уникальных путей запросов (≈)|3|
             #### Запрашиваемые ресурсы
             |Ресурс|Количество|
             |:----------:|:----------:|
@@ -74,6 +86,12 @@ class FormatHandlerTest {
             |:----------:|:----------:|
             |41.57.211.225|14|
             |123.30.122.240|13|
+            #### Квантили размера ответа по классам ответа и часам
+            |Класс ответа|Часы|Количество|p50|p99.9|
+            |:----------:|:----------:|:----------:|:----------:|:----------:|
+            |2xx|Все|4214|1768|84214|
+            |2xx|20:00 - 20:59|412|1700|2010|
+            |4xx|Все|33918|0|338|
             """;
         String ansForAdoc = """
             ==== Общая информация
@@ -85,6 +103,9 @@ class FormatHandlerTest {
             ^|Количество запросов >|51462\s
             ^|Средний размер ответа >|659509\s
             ^|95p размера ответа >|1768\s
+            ^|Уникальных IP-адресов (≈) >|2660\s
+            ^|Уникальных User-Agent (≈) >|22\s
+            ^|Уникальных путей запросов (≈) >|3\s
             |===
             ==== Запрашиваемые ресурсы
             |===
@@ -116,6 +137,13 @@ class FormatHandlerTest {
             ^|41.57.211.225 >|14\s
             ^|123.30.122.240 >|13\s
             |===
+            ==== Квантили размера ответа по классам ответа и часам
+            |===
+            ^|Класс ответа ^|Часы ^|Количество ^|p50 >|p99.9\s
+            ^|2xx ^|Все ^|4214 ^|1768 >|84214\s
+            ^|2xx ^|20:00 - 20:59 ^|412 ^|1700 >|2010\s
+            ^|4xx ^|Все ^|33918 ^|0 >|338\s
+            |===
             """;
         return List.of(
             Map.entry(new MarkdownFormatter(), ansForMarkdown),
@@ -126,16 +154,16 @@ class FormatHandlerTest {
     @ParameterizedTest
     @MethodSource("formatReportData")
     @DisplayName("Ensure formatReport works correctly")
-    void ensureFormatReportWorksCorrectly(Map.Entry<Formatter, String> current) {
+    void ensureFormatReportWorksCorrectly(Map.Entry<Formatter, String> current) throws IOException {
         formatHandler = new FormatHandler(current.getKey());
         String expected = current.getValue();
 
-        Map<String, Integer> requestResources = new LinkedHashMap<>();
+        Object2LongMap<String> requestResources = new Object2LongLinkedOpenHashMap<>();
         requestResources.put("/product_1", 30285);
         requestResources.put("/product_2", 21104);
         requestResources.put("/product_3", 73);
 
-        Map<Short, Integer> responseCodes = new LinkedHashMap<>();
+        Short2LongMap responseCodes = new Short2LongLinkedOpenHashMap();
         responseCodes.put((short) 404, 33876);
         responseCodes.put((short) 304, 13330);
         responseCodes.put((short) 200, 4028);
@@ -143,12 +171,12 @@ class FormatHandlerTest {
         responseCodes.put((short) 403, 38);
         responseCodes.put((short) 416, 4);
 
-        Map<Integer, Integer> requestsByHour = new LinkedHashMap<>();
+        Int2LongMap requestsByHour = new Int2LongLinkedOpenHashMap();
         requestsByHour.put(20, 5600);
         requestsByHour.put(10, 1312);
         requestsByHour.put(8, 145);
 
-        Map<String, Integer> requestsByRemoteAddress = new LinkedHashMap<>();
+        Object2LongMap<String> requestsByRemoteAddress = new Object2LongLinkedOpenHashMap<>();
         requestsByRemoteAddress.put("41.57.211.225", 14);
         requestsByRemoteAddress.put("123.30.122.240", 13);
 
@@ -164,11 +192,19 @@ class FormatHandlerTest {
             requestResources,
             responseCodes,
             requestsByHour,
-            requestsByRemoteAddress
+            requestsByRemoteAddress,
+            new DistinctCounts(2660, 22, 3),
+            new SizeQuantiles(List.of(0.5, 0.999), List.of(
+                new SizeQuantiles.Row(2, SizeQuantiles.ALL_HOURS, 4214, List.of(1768.4, 84214.0)),
+                new SizeQuantiles.Row(2, 20, 412, List.of(1700.0, 2010.9)),
+                new SizeQuantiles.Row(4, SizeQuantiles.ALL_HOURS, 33918, List.of(0.0, 338.0))))
         );
 
         String actual = formatHandler.formatReport(logReport);
+        StringWriter written = new StringWriter();
+        formatHandler.writeReport(logReport, written);
 
         assertEquals(expected, actual);
+        assertEquals(expected, written.toString());
     }
 }
@@ -1,6 +1,9 @@
 package backend.academy.format.impl;
 
 import backend.academy.format.Formatter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.DisplayName;
@@ -67,4 +70,19 @@ class FormatterTest {
 
         assertEquals(expected, actual);
     }
+
+    @ParameterizedTest
+    @MethodSource("testTableFormattingData")
+    @DisplayName("Ensure writeTable writes the rows read once in the same way as formatTable")
+    void ensureWriteTableWorks(Map.Entry<Formatter, Map.Entry<List<List<String>>, String>> current)
+        throws IOException {
+        formatter = current.getKey();
+        Iterator<List<String>> rows = current.getValue().getKey().iterator();
+        StringWriter output = new StringWriter();
+
+        formatter.writeTitle("message", output);
+        formatter.writeTable(() -> rows, output);
+
+        assertEquals(formatter.formatTitle("message") + current.getValue().getValue(), output.toString());
+    }
 }
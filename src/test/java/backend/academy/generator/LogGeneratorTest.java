@@ -0,0 +1,150 @@
+package backend.academy.generator;
+
+import backend.academy.log.LogRecord;
+import backend.academy.log.LogReport;
+import backend.academy.parser.impl.LogParser;
+import backend.academy.path.impl.GzipLogReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogGeneratorTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Ensure the same settings give the same log and another seed gives another log")
+    void ensureLogIsDefinedBySeed() {
+        GeneratorSettings settings = new GeneratorSettings().lines(1_000).seed(7);
+
+        List<String> first = new LogGenerator(settings).lines().toList();
+        List<String> second = new LogGenerator(settings).lines().toList();
+        List<String> other = new LogGenerator(new GeneratorSettings().lines(1_000).seed(8)).lines().toList();
+
+        assertEquals(1_000, first.size());
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    @DisplayName("Ensure the report of the written log matches the expected counts")
+    void ensureReportMatchesExpectedCounts() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        ExpectedCounts expected = new LogGenerator(new GeneratorSettings().lines(50_000).days(2).resources(500)
+            .addresses(2_000)).write(file);
+
+        LogReport logReport = new LogParser().parse(List.of(Map.entry("access.log", Files.lines(file))),
+            null, null, null, null);
+
+        assertEquals(50_000, expected.requestsNumber());
+        assertEquals(expected.requestsNumber(), logReport.requestsNumber());
+        assertEquals(expected.requestAverageSize(), logReport.requestAverageSize(), 1e-9);
+        assertEquals(expected.responseCodes(), Map.copyOf(logReport.responseCodes()));
+        assertEquals(expected.requestsNumberByHour(), Map.copyOf(logReport.requestsNumberByHour()));
+        logReport.requestedResources().forEach((resource, count) ->
+            assertEquals(expected.requestedResources().get(resource), count));
+        logReport.requestsNumberByRemoteAddress().forEach((address, count) ->
+            assertEquals(expected.requestsNumberByRemoteAddress().get(address), count));
+        assertEquals(expected.requestsNumberByRemoteAddress().size(),
+            logReport.distinctCounts().remoteAddresses(), expected.requestsNumberByRemoteAddress().size() * 0.05);
+        assertEquals(expected.distinctRequestPaths(), logReport.distinctCounts().requestPaths(),
+            expected.distinctRequestPaths() * 0.05);
+        assertEquals(expected.distinctUserAgents(), logReport.distinctCounts().userAgents());
+    }
+
+    @Test
+    @DisplayName("Ensure the expected counts do not depend on writing the log")
+    void ensureExpectedCountsMatchWrittenLog() throws IOException {
+        GeneratorSettings settings = new GeneratorSettings().lines(10_000).malformedRate(0.1);
+
+        assertEquals(new LogGenerator(settings).write(tempDir.resolve("access.log")),
+            new LogGenerator(settings).expectedCounts());
+    }
+
+    @Test
+    @DisplayName("Ensure the malformed lines do not match the NGINX format")
+    void ensureMalformedLinesAreRejected() {
+        GeneratorSettings settings = new GeneratorSettings().lines(5_000).malformedRate(0.2);
+        ExpectedCounts expected = new LogGenerator(settings).expectedCounts();
+
+        long malformed = new LogGenerator(settings).lines().filter(line -> {
+            try {
+                LogRecord.newLogRecord(line);
+                return false;
+            } catch (RuntimeException e) {
+                return true;
+            }
+        }).count();
+
+        assertEquals(expected.malformedLines(), malformed);
+        assertEquals(expected.lines() - expected.malformedLines(), expected.requestsNumber());
+        assertTrue(malformed > 800 && malformed < 1_200);
+    }
+
+    @Test
+    @DisplayName("Ensure the malformed lines are counted as the parse failures by the parser")
+    void ensureMalformedLinesAreCountedByParser() {
+        GeneratorSettings settings = new GeneratorSettings().lines(10_000).malformedRate(0.05);
+        ExpectedCounts expected = new LogGenerator(settings).expectedCounts();
+        LogParser parser = new LogParser();
+
+        LogReport logReport = parser.parse(List.of(Map.entry("access.log", new LogGenerator(settings).lines())),
+            null, null, null, null);
+
+        assertEquals(expected.requestsNumber(), logReport.requestsNumber());
+        assertEquals(expected.malformedLines(), parser.lineCounters().parseFailures());
+        assertEquals(expected.requestsNumber(), parser.lineCounters().linesParsed());
+    }
+
+    @Test
+    @DisplayName("Ensure the compressed log contains the same lines")
+    void ensureGzipLogContainsSameLines() throws IOException {
+        Path file = tempDir.resolve("access.log.gz");
+        new LogGenerator(new GeneratorSettings().lines(20_000).gzip(true)).write(file);
+
+        assertTrue(GzipLogReader.isGzip(file));
+        try (Stream<String> lines = GzipLogReader.lines(file)) {
+            assertEquals(new LogGenerator(new GeneratorSettings().lines(20_000)).lines().toList(), lines.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Ensure the time grows and the lines follow the diurnal curve")
+    void ensureTimeFollowsDiurnalCurve() {
+        GeneratorSettings settings = new GeneratorSettings().lines(24_000);
+
+        List<LocalDateTime> times = new LogGenerator(settings).lines()
+            .map(line -> LogRecord.newLogRecord(line).timeLocal()).toList();
+        for (int i = 1; i < times.size(); i++) {
+            assertTrue(!times.get(i).isBefore(times.get(i - 1)));
+        }
+
+        Map<Integer, Long> hours = new LogGenerator(settings).expectedCounts().requestsNumberByHour();
+        assertTrue(hours.get(16) > 3 * hours.get(4));
+        assertEquals(24_000, hours.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @DisplayName("Ensure the incorrect settings are rejected")
+    void ensureIncorrectSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LogGenerator(new GeneratorSettings().lines(-1)));
+        assertThrows(IllegalArgumentException.class, () -> new LogGenerator(new GeneratorSettings().days(0)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new LogGenerator(new GeneratorSettings().malformedRate(1.5)));
+        assertThrows(IllegalArgumentException.class,
+            () -> new LogGenerator(new GeneratorSettings().hourWeights(new double[12])));
+        assertThrows(IllegalArgumentException.class,
+            () -> new LogGenerator(new GeneratorSettings().statusWeights(Map.of(42, 1.0))));
+    }
+}
@@ -1,6 +1,10 @@
 package backend.academy.log;
 
 import backend.academy.log.LogRecord.Request;
+import backend.academy.parser.tokenizer.impl.NginxLogTokenizer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Stream;
@@ -10,6 +14,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class LogRecordTest {
@@ -142,4 +147,53 @@ class LogRecordTest {
         List<LogRecord> logRecords = Stream.of(log2, log1).sorted(new LogRecord.BodySizeInBytesComparator()).toList();
         assertThat(logRecords.get(0).bodyBytesSent() < logRecords.get(1).bodyBytesSent()).isTrue();
     }
+
+    @Test
+    @DisplayName("Ensure the tokenizer gives the same result as the regular expression")
+    void ensureTokenizerMatchesRegularExpression() throws IOException {
+        NginxLogTokenizer tokenizer = new NginxLogTokenizer();
+
+        try (Stream<String> logs = Files.lines(Path.of("src/main/resources/logs/log.txt"))) {
+            logs.forEach(log -> assertEquals(LogRecord.parseWithPattern(log), tokenizer.tokenize(log)));
+        }
+    }
+
+    private static String[] ambiguousLogsData() {
+        return new String[] {
+            "10.0.0.1 - some - user [17/May/2015:08:05:32 +0000] \"GET /a HTTP/1.1\" 200 12 \"-\" \"curl\"",
+            "10.0.0.1 - user - [17/May/2015:08:05:32 +0000] \"GET /a HTTP/1.1\" 200 12 \"-\" \"curl\"",
+            "10.0.0.1 - - [17/May/2015:08:05:32 +0000] \"GET /a HTTP/1.1] \" 200 12 \"-\" \"curl\"",
+            "10.0.0.1 - - [17/May/2015:08:05:32 +0000] \"GET /a HTTP/1.1\" 200 12 \"x] \" \"curl] \""
+        };
+    }
+
+    @ParameterizedTest
+    @MethodSource("ambiguousLogsData")
+    @DisplayName("Ensure the tokenizer splits the ambiguous log as the regular expression")
+    void ensureTokenizerSplitsAmbiguousLogAsRegularExpression(String log) {
+        LogRecord expected = LogRecord.parseWithPattern(log);
+
+        assertEquals(expected, new NginxLogTokenizer().tokenize(log));
+    }
+
+    @Test
+    @DisplayName("Ensure the request containing the end of the time is not split by the tokenizer")
+    void ensureRequestContainingEndOfTimeIsNotTokenized() {
+        String log = "10.0.0.1 - - [17/May/2015:08:05:32 +0000] \"GET /a] \"b HTTP/1.1\" 200 12 \"-\" \"curl\"";
+
+        assertNull(new NginxLogTokenizer().tokenize(log));
+        assertThrows(RuntimeException.class, () -> LogRecord.newLogRecord(log));
+    }
+
+    @Test
+    @DisplayName("Ensure the log rejected by the tokenizer is parsed with the regular expression")
+    void ensureLogRejectedByTokenizerIsParsed() {
+        String log =
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"A \"B\" C\"";
+
+        LogRecord actual = LogRecord.newLogRecord(log);
+
+        assertEquals("A \"B\" C", actual.httpUserAgent());
+        assertEquals(new Request("GET", "/downloads/product_1", "HTTP/1.1"), actual.request());
+    }
 }
@@ -1,9 +1,15 @@
 package backend.academy.log;
 
+import it.unimi.dsi.fastutil.ints.Int2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.shorts.Short2LongLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2LongMap;
 import java.time.LocalDate;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,14 +19,22 @@ class LogReportTest {
     private static final List<String> expectedFiles = List.of("testFile.txt");
     private static final LocalDate expectedFromDate = LocalDate.of(2015, 5, 29);
     private static final LocalDate expectedToDate = LocalDate.of(2015, 5, 29);
-    private static final Integer expectedRequestNumber = 3;
+    private static final Long expectedRequestNumber = 3L;
     private static final Double sumOfSizes = 85619524.0;
     private static final double expectedRequestAverageSize = (int) (sumOfSizes / expectedRequestNumber);
     private static final double expectedPercentile95 = 85619205;
-    private static final Map<String, Integer> expectedRequestedResources = new LinkedHashMap<>();
-    private static final Map<Short, Integer> expectedResponseCodes = new LinkedHashMap<>();
-    private static final Map<Integer, Integer> expectedRequestsNumberByHour = new LinkedHashMap<>();
-    private static final Map<String, Integer> expectedRequestsNumberByRemoteAddress = new LinkedHashMap<>();
+    private static final Object2LongMap<String> expectedRequestedResources = new Object2LongLinkedOpenHashMap<>();
+    private static final Short2LongMap expectedResponseCodes = new Short2LongLinkedOpenHashMap();
+    private static final Int2LongMap expectedRequestsNumberByHour = new Int2LongLinkedOpenHashMap();
+    private static final Object2LongMap<String> expectedRequestsNumberByRemoteAddress =
+        new Object2LongLinkedOpenHashMap<>();
+    private static final DistinctCounts expectedDistinctCounts = new DistinctCounts(3, 2, 2);
+    private static final SizeQuantiles expectedSizeQuantiles = new SizeQuantiles(List.of(0.5, 0.99, 0.999), List.of(
+        new SizeQuantiles.Row(2, SizeQuantiles.ALL_HOURS, 2, List.of(319.0, 85619205.0, 85619205.0)),
+        new SizeQuantiles.Row(2, 8, 1, List.of(319.0, 319.0, 319.0)),
+        new SizeQuantiles.Row(2, 11, 1, List.of(85619205.0, 85619205.0, 85619205.0)),
+        new SizeQuantiles.Row(SizeQuantiles.OTHER_STATUS_CLASS, SizeQuantiles.ALL_HOURS, 1, List.of(0.0, 0.0, 0.0)),
+        new SizeQuantiles.Row(SizeQuantiles.OTHER_STATUS_CLASS, 15, 1, List.of(0.0, 0.0, 0.0))));
 
     private static LogReport logReport;
 
@@ -43,7 +57,8 @@ class LogReportTest {
 
         logReport = new LogReport(expectedFiles, expectedFromDate, expectedToDate, expectedRequestNumber,
             expectedRequestAverageSize, expectedPercentile95, expectedRequestedResources, expectedResponseCodes,
-            expectedRequestsNumberByHour, expectedRequestsNumberByRemoteAddress);
+            expectedRequestsNumberByHour, expectedRequestsNumberByRemoteAddress, expectedDistinctCounts,
+            expectedSizeQuantiles);
     }
 
     @Test
@@ -58,6 +73,8 @@ class LogReportTest {
         assertEquals(expectedRequestedResources, logReport.requestedResources());
         assertEquals(expectedResponseCodes, logReport.responseCodes());
         assertEquals(expectedRequestsNumberByHour, logReport.requestsNumberByHour());
+        assertEquals(expectedDistinctCounts, logReport.distinctCounts());
+        assertEquals(expectedSizeQuantiles, logReport.sizeQuantiles());
     }
 
     @Test
@@ -99,7 +116,10 @@ class LogReportTest {
             List.of("Конечная дата", expectedToDate.toString()),
             List.of("Количество запросов", String.valueOf(expectedRequestNumber)),
             List.of("Средний размер ответа", String.valueOf((int) expectedRequestAverageSize)),
-            List.of("95p размера ответа", String.valueOf((int) expectedPercentile95))
+            List.of("95p размера ответа", String.valueOf((int) expectedPercentile95)),
+            List.of("Уникальных IP-адресов (≈)", "3"),
+            List.of("Уникальных User-Agent (≈)", "2"),
+            List.of("Уникальных путей запросов (≈)", "2")
         );
 
         List<List<String>> actual = logReport.getGeneralInfoAsTable();
@@ -137,4 +157,43 @@ class LogReportTest {
         assertEquals(expected, actual);
     }
 
+
+    @Test
+    @DisplayName("Ensure getSizeQuantilesAsTable works correctly")
+    void ensureGetSizeQuantilesAsTableWorks() {
+        List<List<String>> expected = List.of(
+            List.of("Класс ответа", "Часы", "Количество", "p50", "p99", "p99.9"),
+            List.of("2xx", "Все", "2", "319", "85619205", "85619205"),
+            List.of("2xx", "08:00 - 08:59", "1", "319", "319", "319"),
+            List.of("2xx", "11:00 - 11:59", "1", "85619205", "85619205", "85619205"),
+            List.of("Другие", "Все", "1", "0", "0", "0"),
+            List.of("Другие", "15:00 - 15:59", "1", "0", "0", "0")
+        );
+
+        List<List<String>> actual = logReport.getSizeQuantilesAsTable();
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Ensure the rows of the tables are created lazily and can be iterated again")
+    void ensureRowsAreIteratedLazily() {
+        Iterable<List<String>> rows = logReport.getResourcesAsRows();
+        Iterator<List<String>> iterator = rows.iterator();
+
+        assertEquals(List.of("Ресурс", "Количество"), iterator.next());
+        assertEquals(List.of("/product_1", "1"), iterator.next());
+        assertEquals(logReport.getResourcesAsTable(), toList(rows));
+        assertEquals(logReport.getResponseCodesAsTable(), toList(logReport.getResponseCodesAsRows()));
+        assertEquals(logReport.getRequestsNumberByHourAsTable(), toList(logReport.getRequestsNumberByHourAsRows()));
+        assertEquals(logReport.getRequestsNumberByRemoteAddressAsTable(),
+            toList(logReport.getRequestsNumberByRemoteAddressAsRows()));
+        assertEquals(logReport.getSizeQuantilesAsTable(), toList(logReport.getSizeQuantilesAsRows()));
+    }
+
+    private static List<List<String>> toList(Iterable<List<String>> rows) {
+        List<List<String>> table = new ArrayList<>();
+        rows.forEach(table::add);
+        return table;
+    }
 }
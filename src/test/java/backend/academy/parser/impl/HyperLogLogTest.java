@@ -0,0 +1,60 @@
+package backend.academy.parser.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 10, 100, 1000})
+    @DisplayName("Ensure the small numbers of distinct strings are estimated almost exactly")
+    void ensureSmallNumbersAreEstimatedAlmostExactly(int distinct) {
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int i = 0; i < distinct; i++) {
+                hyperLogLog.add("192.168." + i / 256 + '.' + i % 256);
+            }
+        }
+
+        assertEquals(distinct, hyperLogLog.estimate(), Math.max(1, distinct * 0.01));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    @DisplayName("Ensure the large numbers of distinct strings are estimated with the expected error")
+    void ensureLargeNumbersAreEstimatedWithExpectedError(int distinct) {
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        for (int i = 0; i < distinct; i++) {
+            hyperLogLog.add("/downloads/product_" + i);
+        }
+
+        double relativeError = Math.abs(hyperLogLog.estimate() - distinct) / (double) distinct;
+        assertTrue(relativeError < MAX_RELATIVE_ERROR, String.valueOf(relativeError));
+    }
+
+    @Test
+    @DisplayName("Ensure the merged sketch estimates the union of the strings")
+    void ensureMergedSketchEstimatesUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (int i = 0; i < 50_000; i++) {
+            String value = "Agent/" + i;
+            (i % 3 == 0 ? first : second).add(value);
+            if (i % 5 == 0) {
+                first.add(value);
+            }
+            union.add(value);
+        }
+
+        assertEquals(union.estimate(), first.merge(second).estimate());
+    }
+
+    /**
+     * Three standard errors of the sketch with 2^13 registers
+     */
+    private static final double MAX_RELATIVE_ERROR = 3 * 1.04 / Math.sqrt(1 << 13);
+}
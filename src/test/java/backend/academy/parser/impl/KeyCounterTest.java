@@ -0,0 +1,123 @@
+package backend.academy.parser.impl;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyCounterTest {
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 3, 5, 50, 1000})
+    @DisplayName("Ensure the top selected by the heap is the beginning of the fully sorted keys")
+    void ensureSelectedTopIsSameAsSortedKeys(int limit) {
+        ExactKeyCounter counter = new ExactKeyCounter();
+        generateKeys(SEED).forEach(counter::add);
+
+        List<String> sorted = new ArrayList<>(counter.top(Integer.MAX_VALUE).keySet());
+        Object2LongMap<String> actual = counter.top(limit);
+
+        assertEquals(sorted.subList(0, Math.min(limit, sorted.size())), new ArrayList<>(actual.keySet()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 30, 100})
+    @DisplayName("Ensure the approximate counts are within the error bound")
+    void ensureApproximateCountsAreWithinBound(int capacity) {
+        List<String> keys = generateKeys(SEED);
+        SpaceSavingKeyCounter counter = new SpaceSavingKeyCounter(capacity);
+        keys.forEach(counter::add);
+
+        assertWithinBound(counter, exactCounts(keys), keys.size(), capacity);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 30, 100})
+    @DisplayName("Ensure the merged approximate counts are within the error bound")
+    void ensureMergedCountsAreWithinBound(int capacity) {
+        List<String> first = generateKeys(SEED);
+        List<String> second = generateKeys(SEED + 1);
+        SpaceSavingKeyCounter counter = new SpaceSavingKeyCounter(capacity);
+        SpaceSavingKeyCounter otherCounter = new SpaceSavingKeyCounter(capacity);
+        first.forEach(counter::add);
+        second.forEach(otherCounter::add);
+
+        counter.merge(otherCounter);
+
+        List<String> keys = new ArrayList<>(first);
+        keys.addAll(second);
+        assertWithinBound(counter, exactCounts(keys), keys.size(), capacity);
+    }
+
+    @Test
+    @DisplayName("Ensure the approximate counts are exact if all the keys are monitored")
+    void ensureApproximateCountsAreExactIfCapacityIsEnough() {
+        List<String> keys = generateKeys(SEED);
+        ExactKeyCounter exactCounter = new ExactKeyCounter();
+        SpaceSavingKeyCounter counter = new SpaceSavingKeyCounter(DISTINCT_KEYS);
+        keys.forEach(exactCounter::add);
+        keys.forEach(counter::add);
+
+        assertEquals(exactCounter.top(Integer.MAX_VALUE), counter.top(Integer.MAX_VALUE));
+        assertEquals(new ArrayList<>(exactCounter.top(5).keySet()), new ArrayList<>(counter.top(5).keySet()));
+    }
+
+    @Test
+    @DisplayName("Ensure non-positive capacity causes an exception")
+    void ensureNonPositiveCapacityCausesException() {
+        assertThrows(IllegalArgumentException.class, () -> new SpaceSavingKeyCounter(0));
+    }
+
+    /**
+     * Checks the guarantees of the Space-Saving algorithm: the count is not underestimated
+     * and is overestimated by at most n / capacity, every key occurring more often is monitored
+     */
+    private void assertWithinBound(
+        SpaceSavingKeyCounter counter, Object2LongMap<String> exact, long total, int capacity
+    ) {
+        long bound = total / capacity;
+        Object2LongMap<String> approximate = counter.top(Integer.MAX_VALUE);
+        for (Object2LongMap.Entry<String> entry : approximate.object2LongEntrySet()) {
+            long actual = exact.getLong(entry.getKey());
+            assertTrue(entry.getLongValue() >= actual, entry.getKey());
+            assertTrue(entry.getLongValue() - actual <= counter.error(entry.getKey()), entry.getKey());
+            assertTrue(counter.error(entry.getKey()) <= bound, entry.getKey());
+        }
+        for (Object2LongMap.Entry<String> entry : exact.object2LongEntrySet()) {
+            if (entry.getLongValue() > bound) {
+                assertTrue(approximate.containsKey(entry.getKey()), entry.getKey());
+            }
+        }
+    }
+
+    private Object2LongMap<String> exactCounts(List<String> keys) {
+        Object2LongOpenHashMap<String> counts = new Object2LongOpenHashMap<>();
+        keys.forEach(key -> counts.addTo(key, 1));
+        return counts;
+    }
+
+    /**
+     * Generates the keys with the skewed distribution: a few keys are very frequent,
+     * most of the keys are rare
+     */
+    private List<String> generateKeys(long seed) {
+        Random random = new Random(seed);
+        List<String> keys = new ArrayList<>(KEYS_NUMBER);
+        for (int i = 0; i < KEYS_NUMBER; i++) {
+            int rank = (int) Math.floor(Math.pow(DISTINCT_KEYS, random.nextDouble()));
+            keys.add("10.0." + rank / 256 + '.' + rank % 256);
+        }
+        return keys;
+    }
+
+    private static final long SEED = 42;
+    private static final int KEYS_NUMBER = 20_000;
+    private static final int DISTINCT_KEYS = 2_000;
+}
@@ -1,6 +1,10 @@
 package backend.academy.parser.impl;
 
+import backend.academy.format.FormatHandler;
+import backend.academy.format.impl.AsciiDocFormatter;
+import backend.academy.format.impl.MarkdownFormatter;
 import backend.academy.log.LogReport;
+import backend.academy.log.SizeQuantiles;
 import backend.academy.parser.Parser;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -9,6 +13,8 @@ import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,6 +22,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class LogParserTest {
     private final Parser logParser = new LogParser();
@@ -32,16 +39,16 @@ class LogParserTest {
         List<String> expectedFiles = List.of("testFile.txt");
         LocalDate expectedFromDate = null;
         LocalDate expectedToDate = null;
-        Integer expectedRequestNumber = 5;
+        Long expectedRequestNumber = 5L;
         Double expectedRequestAverageSize = 17124002.8;
         Integer expectedPercentile95 = 487;
-        Map<String, Integer> expectedRequestedResources = new HashMap<>();
-        expectedRequestedResources.put("/product_1", 3);
-        expectedRequestedResources.put("/product_2", 2);
-        Map<Short, Integer> expectedResponseCodes = new HashMap<>();
-        expectedResponseCodes.put((short) 200, 2);
-        expectedResponseCodes.put((short) 304, 2);
-        expectedResponseCodes.put((short) 404, 1);
+        Map<String, Long> expectedRequestedResources = new HashMap<>();
+        expectedRequestedResources.put("/product_1", 3L);
+        expectedRequestedResources.put("/product_2", 2L);
+        Map<Short, Long> expectedResponseCodes = new HashMap<>();
+        expectedResponseCodes.put((short) 200, 2L);
+        expectedResponseCodes.put((short) 304, 2L);
+        expectedResponseCodes.put((short) 404, 1L);
 
         LogReport actual = logParser.parse(List.of(inputStream), expectedFromDate, expectedToDate, null, null);
 
@@ -61,16 +68,16 @@ class LogParserTest {
         List<String> expectedFiles = List.of("testFile.txt");
         LocalDate expectedFromDate = LocalDate.of(2015, 5, 29);
         LocalDate expectedToDate = null;
-        Integer expectedRequestNumber = 4;
+        Long expectedRequestNumber = 4L;
         Double expectedRequestAverageSize = 21404881.0;
         Integer expectedPercentile95 = 321;
-        Map<String, Integer> expectedRequestedResources = new HashMap<>();
-        expectedRequestedResources.put("/product_1", 2);
-        expectedRequestedResources.put("/product_2", 2);
-        Map<Short, Integer> expectedResponseCodes = new HashMap<>();
-        expectedResponseCodes.put((short) 200, 1);
-        expectedResponseCodes.put((short) 304, 2);
-        expectedResponseCodes.put((short) 404, 1);
+        Map<String, Long> expectedRequestedResources = new HashMap<>();
+        expectedRequestedResources.put("/product_1", 2L);
+        expectedRequestedResources.put("/product_2", 2L);
+        Map<Short, Long> expectedResponseCodes = new HashMap<>();
+        expectedResponseCodes.put((short) 200, 1L);
+        expectedResponseCodes.put((short) 304, 2L);
+        expectedResponseCodes.put((short) 404, 1L);
 
         LogReport actual = logParser.parse(List.of(inputStream), expectedFromDate, expectedToDate, null, null);
 
@@ -90,16 +97,16 @@ class LogParserTest {
         List<String> expectedFiles = List.of("testFile.txt");
         LocalDate expectedFromDate = null;
         LocalDate expectedToDate = LocalDate.of(2015, 5, 29);
-        Integer expectedRequestNumber = 4;
+        Long expectedRequestNumber = 4L;
         Double expectedRequestAverageSize = 21405003.5;
         Integer expectedPercentile95 = 487;
-        Map<String, Integer> expectedRequestedResources = new HashMap<>();
-        expectedRequestedResources.put("/product_1", 2);
-        expectedRequestedResources.put("/product_2", 2);
-        Map<Short, Integer> expectedResponseCodes = new HashMap<>();
-        expectedResponseCodes.put((short) 200, 2);
-        expectedResponseCodes.put((short) 304, 1);
-        expectedResponseCodes.put((short) 404, 1);
+        Map<String, Long> expectedRequestedResources = new HashMap<>();
+        expectedRequestedResources.put("/product_1", 2L);
+        expectedRequestedResources.put("/product_2", 2L);
+        Map<Short, Long> expectedResponseCodes = new HashMap<>();
+        expectedResponseCodes.put((short) 200, 2L);
+        expectedResponseCodes.put((short) 304, 1L);
+        expectedResponseCodes.put((short) 404, 1L);
 
         LogReport actual = logParser.parse(List.of(inputStream), expectedFromDate, expectedToDate, null, null);
 
@@ -119,17 +126,17 @@ class LogParserTest {
         List<String> expectedFiles = List.of("testFile.txt");
         LocalDate expectedFromDate = LocalDate.of(2015, 5, 29);
         LocalDate expectedToDate = LocalDate.of(2015, 5, 29);
-        Integer expectedRequestNumber = 3;
+        Long expectedRequestNumber = 3L;
         Double sumOfSizes = 85619524.0;
         Double expectedRequestAverageSize = sumOfSizes / expectedRequestNumber;
         Integer expectedPercentile95 = 321;
-        Map<String, Integer> expectedRequestedResources = new HashMap<>();
-        expectedRequestedResources.put("/product_1", 1);
-        expectedRequestedResources.put("/product_2", 2);
-        Map<Short, Integer> expectedResponseCodes = new HashMap<>();
-        expectedResponseCodes.put((short) 200, 1);
-        expectedResponseCodes.put((short) 304, 1);
-        expectedResponseCodes.put((short) 404, 1);
+        Map<String, Long> expectedRequestedResources = new HashMap<>();
+        expectedRequestedResources.put("/product_1", 1L);
+        expectedRequestedResources.put("/product_2", 2L);
+        Map<Short, Long> expectedResponseCodes = new HashMap<>();
+        expectedResponseCodes.put((short) 200, 1L);
+        expectedResponseCodes.put((short) 304, 1L);
+        expectedResponseCodes.put((short) 404, 1L);
 
         LogReport actual = logParser.parse(List.of(inputStream), expectedFromDate, expectedToDate, null, null);
 
@@ -151,17 +158,17 @@ class LogParserTest {
         LocalDate expectedToDate = null;
         String filterField = "agent";
         String filterValue = "^Debian.*0\\.8.*$";
-        Integer expectedRequestNumber = 3;
+        Long expectedRequestNumber = 3L;
         Double sumOfSizes = 809.0;
         Double expectedRequestAverageSize = sumOfSizes / expectedRequestNumber;
         Integer expectedPercentile95 = 321;
-        Map<String, Integer> expectedRequestedResources = new HashMap<>();
-        expectedRequestedResources.put("/product_1", 2);
-        expectedRequestedResources.put("/product_2", 1);
-        Map<Short, Integer> expectedResponseCodes = new HashMap<>();
-        expectedResponseCodes.put((short) 200, 1);
-        expectedResponseCodes.put((short) 304, 1);
-        expectedResponseCodes.put((short) 404, 1);
+        Map<String, Long> expectedRequestedResources = new HashMap<>();
+        expectedRequestedResources.put("/product_1", 2L);
+        expectedRequestedResources.put("/product_2", 1L);
+        Map<Short, Long> expectedResponseCodes = new HashMap<>();
+        expectedResponseCodes.put((short) 200, 1L);
+        expectedResponseCodes.put((short) 304, 1L);
+        expectedResponseCodes.put((short) 404, 1L);
 
         LogReport actual =
             logParser.parse(List.of(inputStream), expectedFromDate, expectedToDate, filterField, filterValue);
@@ -194,4 +201,120 @@ class LogParserTest {
 
         assertNull(logReport);
     }
+
+    @Test
+    @DisplayName("Ensure the lines larger than the heap in total are processed")
+    void ensureLinesLargerThanHeapAreProcessed() {
+        String userAgent = "Debian APT-HTTP/1.3 " + "x".repeat(1000);
+        long linesNumber = Runtime.getRuntime().maxMemory() / userAgent.length() + 1;
+        Stream<String> lines = LongStream.range(0, linesNumber).mapToObj(i -> "10.0.0." + (i % 200)
+            + " - - [17/May/2015:08:05:" + (10 + i % 50) + " +0000] \"GET /downloads/product_" + (i % 3)
+            + " HTTP/1.1\" 200 " + (i % 1000) + " \"-\" \"" + userAgent + "\"");
+        long sizeSum = LongStream.range(0, linesNumber).map(i -> i % 1000).sum();
+
+        LogReport actual = logParser.parse(List.of(Map.entry("large.txt", lines)), null, null, null, null);
+
+        assertEquals(linesNumber, actual.requestsNumber());
+        assertEquals((double) sizeSum / linesNumber, actual.requestAverageSize());
+        assertEquals(3, actual.requestedResources().size());
+    }
+
+    @ParameterizedTest
+    @CsvSource(value = {
+        "1, 2, NULL, NULL, NULL, NULL",
+        "4, 3, 2015-05-20, NULL, NULL, NULL",
+        "8, 16, NULL, 2015-05-25, agent, ^.*Debian.*$",
+        "3, 64, 2015-05-18, 2015-06-01, method, ^GET$"
+    }, nullValues = "NULL")
+    @DisplayName("Ensure the parallel parsing gives the same report as the sequential one")
+    void ensureParallelParsingGivesSameReport(
+        int threads, int repeats, LocalDate fromDate, LocalDate toDate, String field, String value
+    ) throws IOException {
+        LogReport expected = new LogParser(1).parse(readLogs(repeats), fromDate, toDate, field, value);
+        LogReport actual = new LogParser(threads).parse(readLogs(repeats), fromDate, toDate, field, value);
+
+        assertEquals(expected, actual);
+        assertEquals(new FormatHandler(new MarkdownFormatter()).formatReport(expected),
+            new FormatHandler(new MarkdownFormatter()).formatReport(actual));
+        assertEquals(new FormatHandler(new AsciiDocFormatter()).formatReport(expected),
+            new FormatHandler(new AsciiDocFormatter()).formatReport(actual));
+    }
+
+    @Test
+    @DisplayName("Ensure the number of the lines rejected at each stage is counted")
+    void ensureRejectedLinesAreCounted() throws IOException {
+        LogParser parser = new LogParser();
+        String unrecognizedLine = "93.180.71.3 - - [30/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" "
+            + "304 0 \"-\" \"Mozilla \"B\" C\"";
+        Stream<String> lines = Stream.concat(Files.readAllLines(pathToFile).stream(), Stream.of(unrecognizedLine));
+
+        LogReport actual = parser.parse(List.of(Map.entry("testFile.txt", lines)), LocalDate.of(2015, 5, 29), null,
+            "agent", "^Debian.*$");
+
+        assertEquals(new FilterStatistics(6, 2, 1), parser.filterStatistics());
+        assertEquals(3, parser.filterStatistics().accepted());
+        assertEquals(3, actual.requestsNumber());
+    }
+
+    @Test
+    @DisplayName("Ensure non-positive number of threads causes an exception")
+    void ensureNonPositiveThreadsCauseException() {
+        assertThrows(IllegalArgumentException.class, () -> new LogParser(0));
+        assertThrows(IllegalArgumentException.class, () -> new LogParser(1, -1));
+    }
+
+    @Test
+    @DisplayName("Ensure the quantiles out of the range from 0 to 1 cause an exception")
+    void ensureWrongQuantilesCauseException() {
+        assertThrows(IllegalArgumentException.class, () -> new LogParser(1, 0, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new LogParser(1, 0, List.of(0.5, 1.5)));
+        assertThrows(IllegalArgumentException.class, () -> new LogParser(1, 0, List.of(Double.NaN)));
+    }
+
+    @Test
+    @DisplayName("Ensure the quantiles of the response size are computed for every status class and hour")
+    void ensureSizeQuantilesAreComputedByStatusClassAndHour() {
+        LogReport actual = new LogParser(1, 0, List.of(0.5, 1.0)).parse(List.of(inputStream), null, null, null, null);
+
+        List<SizeQuantiles.Row> rows = actual.sizeQuantiles().rows();
+        assertEquals(List.of(0.5, 1.0), actual.sizeQuantiles().quantiles());
+        assertEquals(List.of("2:-1:2", "2:8:1", "2:11:1", "3:-1:2", "3:11:1", "3:15:1", "4:-1:1", "4:12:1"),
+            rows.stream().map(row -> row.statusClass() + ":" + row.hour() + ":" + row.count()).toList());
+        assertEquals(85619205, rows.getFirst().values().get(1), 85619205 * 0.01);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1, 1000", "4, 1000", "4, 3"})
+    @DisplayName("Ensure the approximate top gives the exact report if the capacity is enough")
+    void ensureApproximateTopIsExactIfCapacityIsEnough(int threads, int topCapacity) throws IOException {
+        LogReport expected = new LogParser(threads).parse(readLogs(3), null, null, null, null);
+        LogReport actual = new LogParser(threads, topCapacity).parse(readLogs(3), null, null, null, null);
+
+        assertEquals(expected.requestsNumber(), actual.requestsNumber());
+        assertEquals(expected.responseCodes(), actual.responseCodes());
+        assertEquals(expected.requestsNumberByHour(), actual.requestsNumberByHour());
+        if (topCapacity >= expected.requestedResources().size()) {
+            assertEquals(expected.requestedResources(), actual.requestedResources());
+        }
+        if (topCapacity >= 1000) {
+            assertEquals(expected, actual);
+        }
+    }
+
+    private List<Map.Entry<String, Stream<String>>> readLogs(int repeats) throws IOException {
+        List<String> lines;
+        try (Stream<Path> files = Files.walk(Path.of("src/main/resources/logs"))) {
+            lines = files.filter(file -> file.toString().endsWith(".txt")).sorted().flatMap(file -> {
+                try {
+                    return Files.readAllLines(file).stream();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }).collect(Collectors.toList());
+        }
+        return List.of(
+            Map.entry("first.txt", Stream.generate(() -> lines).limit(repeats).flatMap(List::stream)),
+            Map.entry("second.txt", lines.stream())
+        );
+    }
 }
@@ -0,0 +1,103 @@
+package backend.academy.parser.impl;
+
+import backend.academy.log.LogReport;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LogTailTest {
+    private static List<String> lines;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void readLines() throws IOException {
+        lines = Files.readAllLines(Path.of("src/main/resources/logs/log.txt"));
+    }
+
+    @Test
+    @DisplayName("Ensure the appended lines are counted once")
+    void ensureAppendedLinesAreCountedOnce() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        Files.write(file, lines.subList(0, 10));
+        LogTail tail = new LogParser(2).follow(null, null, null, null);
+
+        tail.update(List.of(file));
+        tail.update(List.of(file));
+        assertEquals(10, tail.toReport().requestsNumber());
+
+        Files.write(file, lines.subList(10, 25), StandardOpenOption.APPEND);
+        tail.update(List.of(file));
+
+        assertEquals(parse(lines.subList(0, 25)), tail.toReport());
+        assertEquals(25, tail.filterStatistics().linesRead());
+        assertEquals(Files.size(file), tail.bytesRead());
+    }
+
+    @Test
+    @DisplayName("Ensure the last line without the line feed is counted after it is completed")
+    void ensureIncompleteLineIsCountedAfterCompletion() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        Files.writeString(file, lines.getFirst().substring(0, 20));
+        LogTail tail = new LogParser().follow(null, null, null, null);
+
+        tail.update(List.of(file));
+        assertNull(tail.toReport());
+
+        Files.writeString(file, lines.getFirst().substring(20) + '\n', StandardOpenOption.APPEND);
+        tail.update(List.of(file));
+
+        assertEquals(parse(lines.subList(0, 1)), tail.toReport());
+    }
+
+    @Test
+    @DisplayName("Ensure the truncated file is read from the beginning and the counted lines are kept")
+    void ensureTruncatedFileIsReadFromBeginning() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        Files.write(file, lines.subList(0, 20));
+        LogTail tail = new LogParser().follow(null, null, null, null);
+        tail.update(List.of(file));
+
+        Files.write(file, lines.subList(20, 25));
+        tail.update(List.of(file));
+
+        assertEquals(parse(lines.subList(0, 25)), tail.toReport());
+    }
+
+    @Test
+    @DisplayName("Ensure the rotated file keeps its statistics and the new file is read from the beginning")
+    void ensureRotatedFileKeepsStatistics() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        Path rotated = tempDir.resolve("access.log.1");
+        Files.write(file, lines.subList(0, 10));
+        LogTail tail = new LogParser().follow(null, null, null, null);
+        tail.update(List.of(file));
+
+        Files.write(file, lines.subList(10, 15), StandardOpenOption.APPEND);
+        Files.move(file, rotated);
+        Files.write(file, lines.subList(15, 30));
+        tail.update(List.of(file, rotated));
+        Files.delete(rotated);
+        Files.write(file, lines.subList(30, 35), StandardOpenOption.APPEND);
+        tail.update(List.of(file));
+
+        assertEquals(parse(lines.subList(0, 35)).requestsNumber(), tail.toReport().requestsNumber());
+        assertEquals(35, tail.filterStatistics().linesRead());
+    }
+
+    private static LogReport parse(List<String> logLines) {
+        return new LogParser().parse(List.of(Map.entry("access.log", Stream.of(logLines.toArray(String[]::new)))),
+            null, null, null, null);
+    }
+}
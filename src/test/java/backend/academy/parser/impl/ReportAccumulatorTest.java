@@ -0,0 +1,126 @@
+package backend.academy.parser.impl;
+
+import backend.academy.log.LogRecord;
+import backend.academy.log.LogReport;
+import backend.academy.stats.ParseStep;
+import backend.academy.stats.ParseStepStatistics;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportAccumulatorTest {
+    @ParameterizedTest
+    @ValueSource(strings = {"/downloads/product_1", "/downloads/product_1/", "product_2", "product_2//", "a//b", "//b",
+        "/", ""})
+    @DisplayName("Ensure the resource is the last non-empty part of the path")
+    void ensureResourceIsLastPartOfPath(String requestSource) {
+        ReportAccumulator accumulator = new ReportAccumulator();
+        accumulator.accept(logRecord(requestSource, (short) 200, 8));
+
+        LogReport actual = accumulator.toReport(List.of("test.txt"), null, null);
+
+        String[] parts = requestSource.split("/");
+        String expected = parts.length == 0 ? "/" : '/' + parts[parts.length - 1];
+        assertEquals(1, actual.requestedResources().getLong(expected));
+    }
+
+    @Test
+    @DisplayName("Ensure all the response codes and hours are counted and sorted")
+    void ensureResponseCodesAndHoursAreCounted() {
+        ReportAccumulator first = new ReportAccumulator();
+        ReportAccumulator second = new ReportAccumulator();
+        short[] codes = {404, 200, 999, -1, 200, 599, 999, 0};
+        for (int i = 0; i < codes.length; i++) {
+            (i % 2 == 0 ? first : second).accept(logRecord("/product_" + i % 3, codes[i], i));
+        }
+
+        LogReport actual = first.merge(second).toReport(List.of("test.txt"), null, null);
+
+        assertEquals(List.of((short) 200, (short) 999, (short) -1, (short) 0, (short) 404, (short) 599),
+            List.copyOf(actual.responseCodes().keySet()));
+        assertEquals(2, actual.responseCodes().get((short) 999));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), List.copyOf(actual.requestsNumberByHour().keySet()));
+        assertEquals(codes.length, actual.requestsNumber());
+    }
+
+    @Test
+    @DisplayName("Ensure the counters do not overflow after more than 2^31 records")
+    void ensureCountersDoNotOverflow() {
+        long expected = 1L << OVERFLOW_DOUBLINGS;
+
+        LogReport actual = generateCounts(logRecord("/downloads/product_1", (short) 200, 8), OVERFLOW_DOUBLINGS)
+            .toReport(List.of("test.txt"), null, null);
+
+        assertEquals(expected, actual.requestsNumber());
+        assertEquals(expected, actual.requestedResources().getLong("/product_1"));
+        assertEquals(expected, actual.responseCodes().get((short) 200));
+        assertEquals(expected, actual.requestsNumberByHour().get(8));
+        assertEquals(expected, actual.requestsNumberByRemoteAddress().getLong("10.0.0.1"));
+        assertEquals(10.0, actual.requestAverageSize());
+        assertEquals(List.of("Количество запросов", String.valueOf(expected)), actual.getGeneralInfoAsTable().get(4));
+        assertEquals(List.of("200", "OK", String.valueOf(expected)), actual.getResponseCodesAsTable().get(1));
+    }
+
+    @Test
+    @DisplayName("Ensure the malformed lines are counted as the parse failures and skipped")
+    void ensureMalformedLinesAreCountedAsParseFailures() {
+        String line = "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" "
+            + "304 0 \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"";
+        ReportAccumulator first = new ReportAccumulator();
+        ReportAccumulator second = new ReportAccumulator();
+        first.accept(line, (ignored, spans) -> true, ignored -> true);
+        first.accept("93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads", (ignored, spans) -> true,
+            ignored -> true);
+        second.accept(line, (ignored, spans) -> false, ignored -> true);
+        second.accept(line, (ignored, spans) -> true, ignored -> false);
+        second.accept("", (ignored, spans) -> true, ignored -> true);
+
+        ReportAccumulator total = first.merge(second);
+
+        assertEquals(new LineCounters(5, 0, 2, 2, 2), total.lineCounters());
+        assertEquals(1, total.toReport(List.of("test.txt"), null, null).requestsNumber());
+    }
+
+    @Test
+    @DisplayName("Ensure the steps of the sampled lines are timed and the time is merged")
+    void ensureStepsOfSampledLinesAreTimed() {
+        String line = "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" "
+            + "304 0 \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"";
+        ReportAccumulator first = new ReportAccumulator();
+        ReportAccumulator second = new ReportAccumulator();
+        for (int i = 0; i < 1_000; i++) {
+            first.accept(line, (ignored, spans) -> true, ignored -> true);
+        }
+        second.accept(line, (ignored, spans) -> false, ignored -> true);
+
+        List<ParseStepStatistics> steps = first.merge(second).stepStatistics();
+
+        assertEquals(List.of(ParseStep.values()), steps.stream().map(ParseStepStatistics::step).toList());
+        assertTrue(steps.stream().allMatch(step -> step.threadNanos() > 0));
+    }
+
+    /**
+     * Creates the accumulator counting the record 2^doublings times
+     * by merging the accumulator with its copy
+     */
+    private ReportAccumulator generateCounts(LogRecord logRecord, int doublings) {
+        ReportAccumulator accumulator = new ReportAccumulator();
+        accumulator.accept(logRecord);
+        for (int i = 0; i < doublings; i++) {
+            accumulator.merge(new ReportAccumulator().merge(accumulator));
+        }
+        return accumulator;
+    }
+
+    private LogRecord logRecord(String requestSource, short status, int hour) {
+        return new LogRecord("10.0.0.1", "-", LocalDateTime.of(2015, 5, 17, hour, 5, 32),
+            new LogRecord.Request("GET", requestSource, "HTTP/1.1"), status, 10, "-", "curl");
+    }
+
+    private static final int OVERFLOW_DOUBLINGS = 33;
+}
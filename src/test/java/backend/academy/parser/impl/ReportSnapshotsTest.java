@@ -0,0 +1,214 @@
+package backend.academy.parser.impl;
+
+import backend.academy.log.LogReport;
+import backend.academy.path.impl.LocalPathHandler;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReportSnapshotsTest {
+    private static final Path LOGS = Path.of("src/main/resources/logs");
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 5})
+    @DisplayName("Ensure the statistics read from the binary form are the same as the written ones")
+    void ensureWrittenStatisticsAreReadBack(int topCapacity) throws IOException {
+        ReportAccumulator expected = new ReportAccumulator(topCapacity);
+        try (Stream<String> lines = Files.lines(LOGS.resolve("log.txt"))) {
+            lines.forEach(line -> expected.accept(line, (ignored, spans) -> true, ignored -> true));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            expected.write(output);
+        }
+        ReportAccumulator actual = ReportAccumulator.read(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), topCapacity);
+
+        assertEquals(expected.filterStatistics(), actual.filterStatistics());
+        assertEquals(expected.toReport(List.of("log.txt"), null, null),
+            actual.toReport(List.of("log.txt"), null, null));
+    }
+
+    @Test
+    @DisplayName("Ensure only the new and the changed files are parsed on the next run")
+    void ensureOnlyChangedFilesAreParsed() throws IOException {
+        List<Path> files = copyLogs();
+        Path snapshotDirectory = tempDir.resolve("snapshots");
+
+        ReportSnapshots first = new ReportSnapshots(snapshotDirectory);
+        LogParser firstParser = new LogParser(2);
+        LogReport firstReport = firstParser.parseWithSnapshots(files, first, null, null, null, null);
+        ReportSnapshots second = new ReportSnapshots(snapshotDirectory);
+        LogParser secondParser = new LogParser(2);
+        LogReport secondReport = secondParser.parseWithSnapshots(files, second, null, null, null, null);
+
+        assertEquals(List.of(0, files.size()), List.of(first.loaded(), first.parsed()));
+        assertEquals(List.of(files.size(), 0), List.of(second.loaded(), second.parsed()));
+        long size = 0;
+        for (Path file : files) {
+            size += Files.size(file);
+        }
+        assertEquals(List.of(size, 0L), List.of(first.bytesRead(), second.bytesRead()));
+        assertEquals(parse(files, null), firstReport);
+        assertEquals(firstReport, secondReport);
+        long linesRead = firstParser.lineCounters().linesRead();
+        assertEquals(List.of(0L, linesRead), List.of(secondParser.lineCounters().linesRead(),
+            secondParser.lineCounters().linesRestored()));
+
+        Files.writeString(files.getFirst(), Files.readAllLines(files.getLast()).getFirst() + '\n',
+            StandardOpenOption.APPEND);
+        ReportSnapshots third = new ReportSnapshots(snapshotDirectory);
+        LogParser thirdParser = new LogParser();
+        LogReport thirdReport = thirdParser.parseWithSnapshots(files, third, null, null, null, null);
+
+        assertEquals(List.of(files.size() - 1, 1, 0), List.of(third.loaded(), third.resumed(), third.parsed()));
+        assertEquals(parse(files, null), thirdReport);
+        assertEquals(List.of(1L, linesRead), List.of(thirdParser.lineCounters().linesRead(),
+            thirdParser.lineCounters().linesRestored()));
+    }
+
+    @Test
+    @DisplayName("Ensure the last line without the line feed is counted but parsed again on the next run")
+    void ensureIncompleteLineIsParsedAgain() throws IOException {
+        List<String> lines = Files.readAllLines(LOGS.resolve("log.txt"));
+        Path file = tempDir.resolve("access.log");
+        Path snapshotDirectory = tempDir.resolve("snapshots");
+        Files.writeString(file, String.join("\n", lines.subList(0, 10)));
+
+        LogReport first = new LogParser().parseWithSnapshots(List.of(file), new ReportSnapshots(snapshotDirectory),
+            null, null, null, null);
+        assertEquals(parse(List.of(file), null), first);
+        assertEquals(10, first.requestsNumber());
+
+        Files.writeString(file, '\n' + String.join("\n", lines.subList(10, 20)) + '\n', StandardOpenOption.APPEND);
+        ReportSnapshots snapshots = new ReportSnapshots(snapshotDirectory);
+        LogReport second = new LogParser().parseWithSnapshots(List.of(file), snapshots, null, null, null, null);
+
+        assertEquals(1, snapshots.resumed());
+        assertEquals(parse(List.of(file), null), second);
+        assertEquals(20, second.requestsNumber());
+    }
+
+    @Test
+    @DisplayName("Ensure the truncated or rotated file is parsed from the beginning")
+    void ensureTruncatedOrRotatedFileIsParsedFromBeginning() throws IOException {
+        List<String> lines = Files.readAllLines(LOGS.resolve("log.txt"));
+        Path file = tempDir.resolve("access.log");
+        Path snapshotDirectory = tempDir.resolve("snapshots");
+        Files.write(file, lines.subList(0, 20));
+        new LogParser().parseWithSnapshots(List.of(file), new ReportSnapshots(snapshotDirectory),
+            null, null, null, null);
+
+        Files.write(file, lines.subList(20, 25));
+        ReportSnapshots truncated = new ReportSnapshots(snapshotDirectory);
+        LogReport afterTruncation = new LogParser().parseWithSnapshots(List.of(file), truncated,
+            null, null, null, null);
+
+        Files.move(file, tempDir.resolve("access.log.1"));
+        Files.write(file, lines.subList(20, 30));
+        ReportSnapshots rotated = new ReportSnapshots(snapshotDirectory);
+        LogReport afterRotation = new LogParser().parseWithSnapshots(List.of(file), rotated,
+            null, null, null, null);
+
+        assertEquals(List.of(0, 1), List.of(truncated.resumed(), truncated.parsed()));
+        assertEquals(5, afterTruncation.requestsNumber());
+        assertEquals(List.of(0, 1), List.of(rotated.resumed(), rotated.parsed()));
+        assertEquals(parse(List.of(file), null), afterRotation);
+    }
+
+    @Test
+    @DisplayName("Ensure the snapshots of the removed files are deleted")
+    void ensureSnapshotsOfRemovedFilesAreDeleted() throws IOException {
+        List<Path> files = copyLogs();
+        Path snapshotDirectory = tempDir.resolve("snapshots");
+        new LogParser().parseWithSnapshots(files, new ReportSnapshots(snapshotDirectory), null, null, null, null);
+
+        Files.delete(files.getFirst());
+        ReportSnapshots snapshots = new ReportSnapshots(snapshotDirectory);
+        new LogParser().parseWithSnapshots(files.subList(1, files.size()), snapshots, null, null, null, null);
+
+        assertEquals(List.of(files.size() - 1, 1), List.of(snapshots.loaded(), snapshots.pruned()));
+        try (Stream<Path> stored = Files.list(snapshotDirectory)) {
+            assertEquals(files.size() - 1, stored.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Ensure the snapshot is not used if the filters are changed")
+    void ensureSnapshotIsNotUsedWithOtherFilters() throws IOException {
+        List<Path> files = copyLogs();
+        Path snapshotDirectory = tempDir.resolve("snapshots");
+        new LogParser().parseWithSnapshots(files, new ReportSnapshots(snapshotDirectory), null, null, null, null);
+
+        ReportSnapshots snapshots = new ReportSnapshots(snapshotDirectory);
+        LogReport actual = new LogParser().parseWithSnapshots(files, snapshots, LocalDate.of(2015, 5, 20), null,
+            null, null);
+
+        assertEquals(0, snapshots.loaded());
+        assertEquals(parse(files, LocalDate.of(2015, 5, 20)), actual);
+    }
+
+    @Test
+    @DisplayName("Ensure the damaged snapshot is replaced")
+    void ensureDamagedSnapshotIsReplaced() throws IOException {
+        List<Path> files = copyLogs();
+        Path snapshotDirectory = tempDir.resolve("snapshots");
+        new LogParser().parseWithSnapshots(files, new ReportSnapshots(snapshotDirectory), null, null, null, null);
+        try (Stream<Path> snapshotFiles = Files.list(snapshotDirectory)) {
+            for (Path snapshot : snapshotFiles.toList()) {
+                byte[] bytes = Files.readAllBytes(snapshot);
+                Files.write(snapshot, List.of(new String(bytes, 0, bytes.length / 2)));
+            }
+        }
+
+        ReportSnapshots damaged = new ReportSnapshots(snapshotDirectory);
+        LogReport actual = new LogParser().parseWithSnapshots(files, damaged, null, null, null, null);
+        ReportSnapshots replaced = new ReportSnapshots(snapshotDirectory);
+        new LogParser().parseWithSnapshots(files, replaced, null, null, null, null);
+
+        assertEquals(List.of(0, files.size()), List.of(damaged.loaded(), damaged.parsed()));
+        assertEquals(files.size(), replaced.loaded());
+        assertEquals(parse(files, null), actual);
+    }
+
+    private List<Path> copyLogs() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> logs = Files.walk(LOGS)) {
+            for (Path log : logs.filter(Files::isRegularFile).sorted().toList()) {
+                Path copy = tempDir.resolve(files.size() + "-" + log.getFileName());
+                Files.copy(log, copy, StandardCopyOption.REPLACE_EXISTING);
+                files.add(copy);
+            }
+        }
+        return files;
+    }
+
+    private static LogReport parse(List<Path> files, LocalDate fromDate) throws IOException {
+        List<Map.Entry<String, Stream<String>>> logs = new ArrayList<>();
+        for (Path file : files) {
+            logs.add(Map.entry(file.getFileName().toString(), LocalPathHandler.open(file)));
+        }
+        return new LogParser().parse(logs, fromDate, null, null, null);
+    }
+}
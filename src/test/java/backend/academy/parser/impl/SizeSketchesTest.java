@@ -0,0 +1,87 @@
+package backend.academy.parser.impl;
+
+import backend.academy.log.SizeQuantiles;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SizeSketchesTest {
+    @Test
+    @DisplayName("Ensure the quantiles of every bucket are within the relative accuracy")
+    void ensureQuantilesAreWithinRelativeAccuracy() {
+        Random random = new Random(SEED);
+        long[] sizes = new long[COUNT];
+        SizeSketches sketches = new SizeSketches();
+        for (int i = 0; i < COUNT; i++) {
+            sizes[i] = (long) Math.exp(random.nextDouble() * MAX_EXPONENT);
+            sketches.accept((short) 200, 10, sizes[i]);
+        }
+        Arrays.sort(sizes);
+
+        SizeQuantiles actual = sketches.toQuantiles(QUANTILES);
+
+        assertEquals(2, actual.rows().size());
+        for (SizeQuantiles.Row row : actual.rows()) {
+            assertEquals(COUNT, row.count());
+            for (int i = 0; i < QUANTILES.size(); i++) {
+                double expected = sizes[(int) Math.floor(QUANTILES.get(i) * (COUNT - 1))];
+                assertEquals(expected, row.values().get(i), expected * ACCURACY);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Ensure the records are put into the buckets of their status classes and hours")
+    void ensureRecordsArePutIntoBuckets() {
+        SizeSketches sketches = new SizeSketches();
+        sketches.accept((short) 404, 23, 100);
+        sketches.accept((short) 200, 5, 1000);
+        sketches.accept((short) 204, 0, 10);
+        sketches.accept((short) 700, 5, 1);
+
+        List<SizeQuantiles.Row> rows = sketches.toQuantiles(List.of(1.0)).rows();
+
+        assertEquals(List.of(
+            List.of(SizeQuantiles.OTHER_STATUS_CLASS, SizeQuantiles.ALL_HOURS, 1L),
+            List.of(SizeQuantiles.OTHER_STATUS_CLASS, 5, 1L),
+            List.of(2, SizeQuantiles.ALL_HOURS, 2L),
+            List.of(2, 0, 1L),
+            List.of(2, 5, 1L),
+            List.of(4, SizeQuantiles.ALL_HOURS, 1L),
+            List.of(4, 23, 1L)
+        ), rows.stream().map(row -> List.<Object>of(row.statusClass(), row.hour(), row.count())).toList());
+        assertEquals(1000, rows.get(2).values().getFirst(), 1000 * ACCURACY);
+    }
+
+    @Test
+    @DisplayName("Ensure the merged sketches give the same quantiles as the sketches of all the records")
+    void ensureMergedSketchesGiveSameQuantiles() {
+        Random random = new Random(SEED);
+        SizeSketches all = new SizeSketches();
+        SizeSketches first = new SizeSketches();
+        SizeSketches second = new SizeSketches();
+        for (int i = 0; i < COUNT; i++) {
+            short status = (short) (100 * (1 + random.nextInt(5)));
+            int hour = random.nextInt(24);
+            long size = random.nextInt(100_000);
+            all.accept(status, hour, size);
+            (i % 2 == 0 ? first : second).accept(status, hour, size);
+        }
+
+        first.merge(second);
+
+        assertEquals(all.toQuantiles(QUANTILES), first.toQuantiles(QUANTILES));
+    }
+
+    private static final List<Double> QUANTILES = List.of(0.0, 0.5, 0.9, 0.99, 0.999, 1.0);
+    /**
+     * Relative accuracy of the sketches with the margin for the rounding errors
+     */
+    private static final double ACCURACY = 0.0101;
+    private static final double MAX_EXPONENT = 20;
+    private static final int COUNT = 100_000;
+    private static final long SEED = 42;
+}
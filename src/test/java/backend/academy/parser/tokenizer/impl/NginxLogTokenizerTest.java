@@ -0,0 +1,113 @@
+package backend.academy.parser.tokenizer.impl;
+
+import backend.academy.log.LogRecord;
+import backend.academy.log.LogRecord.Request;
+import backend.academy.parser.tokenizer.LineField;
+import backend.academy.parser.tokenizer.Tokenizer;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NginxLogTokenizerTest {
+    private final Tokenizer tokenizer = new NginxLogTokenizer();
+
+    @Test
+    @DisplayName("Ensure the correct log is tokenized")
+    void ensureCorrectLogIsTokenized() {
+        String log =
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"";
+        LogRecord expected = new LogRecord(
+            "93.180.71.3",
+            "-",
+            LocalDateTime.of(2015, 5, 17, 8, 5, 32),
+            new Request("GET", "/downloads/product_1", "HTTP/1.1"),
+            (short) 304,
+            0,
+            "-",
+            "Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)"
+        );
+
+        LogRecord actual = tokenizer.tokenize(log);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Ensure the remote user containing a separator is tokenized")
+    void ensureRemoteUserWithSeparatorIsTokenized() {
+        String log =
+            "10.0.0.1 - some - user [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 200 12 \"-\" \"curl\"";
+
+        LogRecord actual = tokenizer.tokenize(log);
+
+        assertEquals("10.0.0.1 - some", actual.remoteAddress());
+        assertEquals("user", actual.remoteUser());
+        assertEquals(12, actual.bodyBytesSent());
+    }
+
+    private static String[] unusualLogsData() {
+        return new String[] {
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /a\"b HTTP/1.1\" 304 0 \"-\" \"Debian APT-HTTP/1.3\"",
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"A \"B\" C\"",
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET  /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian\"",
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 99999 0 \"-\" \"Debian\"",
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0012345678 \"-\" \"D\"",
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"\" \"Debian\"",
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian\" ",
+            "93.180.71.3 - - [17/Maj/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian\"",
+            "- - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian\"",
+            "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /a] \"b HTTP/1.1\" 304 0 \"-\" \"Debian\"",
+            "93.180.71.3 - a [ - b [17/May/2015:08:05:32 +0000] \"GET /a HTTP/1.1\" 304 0 \"-\" \"Debian\""
+        };
+    }
+
+    @ParameterizedTest
+    @MethodSource("unusualLogsData")
+    @DisplayName("Ensure the lines with an unusual layout are rejected")
+    void ensureUnusualLogIsRejected(String log) {
+        assertNull(tokenizer.tokenize(log));
+    }
+
+    @Test
+    @DisplayName("Ensure the fields of the correct log are located")
+    void ensureFieldsOfCorrectLogAreLocated() {
+        String log =
+            "93.180.71.3 - bob [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian\"";
+        NginxLogTokenizer nginxLogTokenizer = new NginxLogTokenizer();
+
+        LineSpans spans = nginxLogTokenizer.locate(log);
+
+        assertEquals("93.180.71.3", text(log, spans, LineField.REMOTE_ADDRESS));
+        assertEquals("bob", text(log, spans, LineField.REMOTE_USER));
+        assertEquals("17/May/2015:08:05:32 +0000", text(log, spans, LineField.TIME));
+        assertEquals("GET", text(log, spans, LineField.REQUEST_TYPE));
+        assertEquals("/downloads/product_1", text(log, spans, LineField.REQUEST_SOURCE));
+        assertEquals("HTTP/1.1", text(log, spans, LineField.REQUEST_PROTOCOL));
+        assertEquals("304", text(log, spans, LineField.STATUS));
+        assertEquals("0", text(log, spans, LineField.BODY_SIZE));
+        assertEquals("-", text(log, spans, LineField.HTTP_REFERER));
+        assertEquals("Debian", text(log, spans, LineField.HTTP_USER_AGENT));
+        assertEquals(LocalDateTime.of(2015, 5, 17, 8, 5, 32), nginxLogTokenizer.decodeTime(log, spans));
+        assertEquals(nginxLogTokenizer.tokenize(log), nginxLogTokenizer.toRecord(log, spans));
+    }
+
+    @ParameterizedTest
+    @MethodSource("unusualLogsData")
+    @DisplayName("Ensure the fields of the lines rejected by the tokenizer are not located")
+    void ensureFieldsOfUnusualLogAreNotLocated(String log) {
+        NginxLogTokenizer nginxLogTokenizer = new NginxLogTokenizer();
+
+        LineSpans spans = nginxLogTokenizer.locate(log);
+
+        assertTrue(spans == null || nginxLogTokenizer.decodeTime(log, spans) == null);
+    }
+
+    private String text(String log, LineSpans spans, LineField field) {
+        return log.substring(spans.start(field), spans.end(field));
+    }
+}
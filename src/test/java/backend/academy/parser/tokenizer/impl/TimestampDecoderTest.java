@@ -0,0 +1,80 @@
+package backend.academy.parser.tokenizer.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TimestampDecoderTest {
+    private static final DateTimeFormatter FORMATTER =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.US);
+
+    private final TimestampDecoder timestampDecoder = new TimestampDecoder();
+
+    private LocalDateTime decode(String time) {
+        String line = "[" + time + "]";
+        return timestampDecoder.decode(line, 1, line.length() - 1);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"UTC", "America/New_York", "Europe/Berlin", "Australia/Sydney", "Asia/Kathmandu"})
+    @DisplayName("Ensure the decoder gives the same result as the formatter across months and DST offsets")
+    void ensureDecoderMatchesFormatter(String zone) {
+        ZonedDateTime current = ZonedDateTime.of(2015, 1, 1, 0, 0, 0, 0, ZoneId.of(zone));
+        ZonedDateTime end = current.plusYears(2);
+
+        while (current.isBefore(end)) {
+            String time = FORMATTER.format(current);
+
+            assertEquals(LocalDateTime.parse(time, FORMATTER), decode(time), time);
+            assertEquals(LocalDateTime.parse(time, FORMATTER), decode(time), time);
+
+            current = current.plusMinutes(97).plusSeconds(13);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "31/Apr/2015:08:05:32 +0000",
+        "29/Feb/2016:08:05:32 +0000",
+        "17/May/2015:08:05:32 -0000",
+        "17/May/2015:08:05:32 +1800",
+        "17/May/2015:24:00:00 +0000"
+    })
+    @DisplayName("Ensure the values outside of the fast path are decoded as by the formatter")
+    void ensureUnusualTimeIsDecodedAsByFormatter(String time) {
+        assertEquals(LocalDateTime.parse(time, FORMATTER), decode(time));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "17/Maj/2015:08:05:32 +0000",
+        "17/may/2015:08:05:32 +0000",
+        "00/May/2015:08:05:32 +0000",
+        "17/May/2015:08:05:60 +0000",
+        "17/May/2015:08:05:32 +0060",
+        "7/May/2015:08:05:32 +0000",
+        "17/May/2015:08:05:32"
+    })
+    @DisplayName("Ensure the wrong time is not decoded")
+    void ensureWrongTimeIsNotDecoded(String time) {
+        assertNull(decode(time));
+    }
+
+    @Test
+    @DisplayName("Ensure the cached date is not reused for another date")
+    void ensureCachedDateIsNotReusedForAnotherDate() {
+        decode("17/May/2015:08:05:32 +0000");
+
+        assertEquals(LocalDateTime.of(2015, 5, 17, 8, 5, 33), decode("17/May/2015:08:05:33 +0000"));
+        assertEquals(LocalDateTime.of(2015, 5, 18, 8, 5, 33), decode("18/May/2015:08:05:33 +0000"));
+        assertEquals(LocalDateTime.of(2015, 5, 17, 8, 5, 33), decode("17/May/2015:08:05:33 +0300"));
+    }
+}
@@ -0,0 +1,181 @@
+package backend.academy.path.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GzipLogReaderTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Ensure the gzip file is recognized by the magic bytes")
+    void ensureGzipFileIsRecognizedByMagicBytes() throws IOException {
+        Path compressed = tempDir.resolve("access.log.2");
+        Path plain = tempDir.resolve("access.log.gz");
+        Files.write(compressed, gzip(content(10).getBytes(StandardCharsets.UTF_8)));
+        Files.writeString(plain, content(10));
+
+        assertTrue(GzipLogReader.isGzip(compressed));
+        assertFalse(GzipLogReader.isGzip(plain));
+    }
+
+    @Test
+    @DisplayName("Ensure the single member gzip file is decompressed correctly")
+    void ensureSingleMemberFileIsDecompressed() throws IOException {
+        String content = content(20_000);
+        Path file = tempDir.resolve("access.log.gz");
+        Files.write(file, gzip(content.getBytes(StandardCharsets.UTF_8)));
+
+        List<String> actual;
+        try (Stream<String> lines = GzipLogReader.lines(file, 4096)) {
+            actual = lines.parallel().toList();
+        }
+
+        assertEquals(content.lines().toList(), actual);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 4096, 60_000})
+    @DisplayName("Ensure the BGZF file split into parts is decompressed correctly")
+    void ensureBgzfFileIsDecompressed(int blockSize) throws IOException {
+        String content = content(20_000) + "\n\r\nlast line without line feed";
+        Path file = tempDir.resolve("access.log.gz");
+        Files.write(file, members(content.getBytes(StandardCharsets.UTF_8), blockSize, true));
+
+        List<String> actual;
+        try (Stream<String> lines = GzipLogReader.lines(file, 1024)) {
+            actual = lines.parallel().toList();
+        }
+
+        assertEquals(content.lines().toList(), actual);
+        assertTrue(partStarts(file).size() > 1);
+    }
+
+    @Test
+    @DisplayName("Ensure the multi-member file without the sizes of the members is decompressed sequentially")
+    void ensureMultiMemberFileIsDecompressedSequentially() throws IOException {
+        String content = content(20_000);
+        Path file = tempDir.resolve("access.log.gz");
+        Files.write(file, members(content.getBytes(StandardCharsets.UTF_8), 4096, false));
+
+        List<String> actual;
+        try (Stream<String> lines = GzipLogReader.lines(file, 1024)) {
+            actual = lines.parallel().toList();
+        }
+
+        assertEquals(content.lines().toList(), actual);
+        assertEquals(List.of(0L), partStarts(file));
+    }
+
+    @Test
+    @DisplayName("Ensure the damaged gzip file causes an exception")
+    void ensureDamagedFileCausesException() throws IOException {
+        byte[] compressed = gzip(content(1000).getBytes(StandardCharsets.UTF_8));
+        compressed[compressed.length - 6]++;
+        Path file = tempDir.resolve("access.log.gz");
+        Files.write(file, compressed);
+
+        try (Stream<String> lines = GzipLogReader.lines(file)) {
+            assertThrows(UncheckedIOException.class, lines::toList);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    @DisplayName("Ensure the stream is decompressed only if it is compressed")
+    void ensureStreamIsDecompressedIfCompressed(boolean compressed) throws IOException {
+        byte[] content = content(100).getBytes(StandardCharsets.UTF_8);
+        byte[] data = compressed ? gzip(content) : content;
+
+        try (InputStream input = GzipLogReader.decompressIfGzip(new ByteArrayInputStream(data))) {
+            assertArrayEquals(content, input.readAllBytes());
+        }
+    }
+
+    private static String content(int lines) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            content.append("93.180.71.").append(i % 256)
+                .append(" - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_").append(i % 3)
+                .append(" HTTP/1.1\" 304 0 \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"")
+                .append(i % 10 == 0 ? "\r\n" : "\n");
+        }
+        return content.toString();
+    }
+
+    private static List<Long> partStarts(Path file) throws IOException {
+        try (Arena arena = Arena.ofConfined(); FileChannel channel = FileChannel.open(file)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            return GzipLogReader.findPartStarts(segment, 1024);
+        }
+    }
+
+    private static byte[] members(byte[] content, int memberSize, boolean bgzf) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (int offset = 0; offset < content.length; offset += memberSize) {
+            byte[] member = Arrays.copyOfRange(content, offset, Math.min(offset + memberSize, content.length));
+            output.write(bgzf ? bgzf(member) : gzip(member));
+        }
+        if (bgzf) {
+            output.write(bgzf(new byte[0]));
+        }
+        return output.toByteArray();
+    }
+
+    private static byte[] bgzf(byte[] content) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(content);
+        deflater.finish();
+        byte[] data = new byte[content.length + 1024];
+        int length = deflater.deflate(data);
+        deflater.end();
+        CRC32 crc = new CRC32();
+        crc.update(content);
+
+        ByteBuffer block = ByteBuffer.allocate(BGZF_HEADER_SIZE + length + 8).order(ByteOrder.LITTLE_ENDIAN);
+        block.put(new byte[] {0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff})
+            .putShort((short) 6).put((byte) 'B').put((byte) 'C').putShort((short) 2)
+            .putShort((short) (block.capacity() - 1))
+            .put(data, 0, length)
+            .putInt((int) crc.getValue())
+            .putInt(content.length);
+        return block.array();
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static final int BGZF_HEADER_SIZE = 18;
+}
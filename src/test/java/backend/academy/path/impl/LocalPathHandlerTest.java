@@ -1,10 +1,13 @@
 package backend.academy.path.impl;
 
 import backend.academy.path.PathHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -46,4 +49,16 @@ class LocalPathHandlerTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    @DisplayName("Ensure the bytes of the file are counted when its stream is closed")
+    void ensureBytesReadAreCountedOnClose() throws Exception {
+        PathHandler handler = new LocalPathHandler();
+        Stream<String> lines = handler.handlePath("logs/log.txt").getFirst().getValue();
+
+        assertEquals(0, handler.bytesRead());
+        try (lines) {
+            lines.forEach(line -> { });
+        }
+        assertEquals(Files.size(Path.of("src/main/resources/logs/log.txt")), handler.bytesRead());
+    }
 }
@@ -0,0 +1,153 @@
+package backend.academy.path.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogCatalogTest {
+    private static final DateTimeFormatter TIME_FORMAT =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss", Locale.ENGLISH);
+
+    @TempDir
+    Path tempDir;
+
+    @TempDir
+    Path indexDirectory;
+
+    @ParameterizedTest
+    @CsvSource(value = {
+        "2015-05-10, 2015-05-10, true",
+        "2015-05-12, 2015-05-20, true",
+        "2015-05-01, 2015-05-09, false",
+        "2015-05-14, , false",
+        ", 2015-05-09, false",
+        ", 2015-05-10, true"
+    })
+    @DisplayName("Ensure the file is skipped only if its time span does not intersect the range")
+    void ensureFileIsSkippedOutsideRange(LocalDate fromDate, LocalDate toDate, boolean expected) throws IOException {
+        Path file = tempDir.resolve("access.log");
+        Files.write(file, lines(LocalDateTime.of(2015, 5, 10, 12, 0), 3 * 24));
+
+        LogCatalog catalog = LogCatalog.load(tempDir, indexDirectory);
+
+        assertEquals(expected, catalog.mayContain(file, fromDate == null ? null : fromDate.atStartOfDay(),
+            toDate == null ? null : toDate.atTime(23, 59, 59)));
+    }
+
+    @Test
+    @DisplayName("Ensure the saved entries are reused and the entry of the changed file is built again")
+    void ensureEntriesAreReusedUntilFileChanges() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        Files.write(file, lines(LocalDateTime.of(2015, 5, 10, 0, 0), 10));
+        LogCatalog catalog = LogCatalog.load(tempDir, indexDirectory);
+        LogCatalog.Entry entry = catalog.entry(file);
+        catalog.save();
+
+        assertEquals(10, entry.lines());
+        assertEquals(Files.size(file), entry.size());
+        assertEquals(entry, LogCatalog.load(tempDir, indexDirectory).entry(file));
+
+        Files.write(file, lines(LocalDateTime.of(2015, 5, 11, 0, 0), 5), StandardOpenOption.APPEND);
+        LogCatalog.Entry changed = LogCatalog.load(tempDir, indexDirectory).entry(file);
+
+        assertEquals(15, changed.lines());
+        assertEquals(entry.minTime(), changed.minTime());
+        assertTrue(changed.maxTime() > entry.maxTime());
+        assertNotEquals(entry.fingerprint(), changed.fingerprint());
+    }
+
+    @Test
+    @DisplayName("Ensure the file containing the line without the time is never skipped")
+    void ensureFileWithLineWithoutTimeIsNotSkipped() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        List<String> lines = new ArrayList<>(lines(LocalDateTime.of(2015, 5, 10, 0, 0), 10));
+        lines.add("broken line");
+        Files.write(file, lines);
+
+        assertTrue(LogCatalog.load(tempDir, indexDirectory).mayContain(file, LocalDateTime.of(2020, 1, 1, 0, 0), null));
+    }
+
+    @Test
+    @DisplayName("Ensure the compressed file is scanned after decompression")
+    void ensureCompressedFileIsScanned() throws IOException {
+        Path file = tempDir.resolve("access.log.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file))) {
+            output.write(String.join("\n", lines(LocalDateTime.of(2015, 5, 10, 0, 0), 24))
+                .getBytes(StandardCharsets.UTF_8));
+        }
+
+        LogCatalog catalog = LogCatalog.load(tempDir, indexDirectory);
+
+        assertEquals(24, catalog.entry(file).lines());
+        assertFalse(catalog.mayContain(file, LocalDateTime.of(2015, 5, 11, 0, 0), null));
+    }
+
+    @Test
+    @DisplayName("Ensure the line without the line feed at the end of the file is scanned")
+    void ensureIncompleteLastLineIsScanned() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        Files.write(file, lines(LocalDateTime.of(2015, 5, 10, 0, 0), 10));
+        Files.writeString(file, lines(LocalDateTime.of(2015, 5, 12, 0, 0), 1).getFirst(), StandardOpenOption.APPEND);
+
+        LogCatalog.Entry entry = LogCatalog.load(tempDir, indexDirectory).entry(file);
+
+        assertEquals(11, entry.lines());
+        assertEquals(LocalDateTime.of(2015, 5, 12, 0, 0).toEpochSecond(ZoneOffset.UTC), entry.maxTime());
+    }
+
+    @Test
+    @DisplayName("Ensure the skipped files are listed without lines and nothing is written into the log directory")
+    void ensureSkippedFilesAreListedWithoutLines() throws IOException {
+        Path logs = Path.of("src/main/resources/logs/subLogs_1");
+        List<Path> logFiles;
+        try (Stream<Path> files = Files.list(logs)) {
+            logFiles = files.toList();
+        }
+        LocalPathHandler pathHandler = new LocalPathHandler(LocalDate.of(2015, 6, 4), null, indexDirectory);
+
+        List<Map.Entry<String, Stream<String>>> first = pathHandler.handlePath("logs/subLogs_1/*");
+        List<Map.Entry<String, Stream<String>>> second = pathHandler.handlePath("logs/subLogs_1/*");
+
+        assertTrue(Files.exists(LogCatalog.catalogPath(logs, indexDirectory)));
+        try (Stream<Path> files = Files.list(logs)) {
+            assertEquals(logFiles, files.toList());
+        }
+        for (List<Map.Entry<String, Stream<String>>> files : List.of(first, second)) {
+            Map<String, Long> counts = files.stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, file -> file.getValue().count()));
+            assertEquals(Map.of("30_12_20.txt", 6L, "10_10_24.txt", 0L), counts);
+        }
+    }
+
+    private static List<String> lines(LocalDateTime start, int hours) {
+        List<String> lines = new ArrayList<>();
+        for (int hour = 0; hour < hours; hour++) {
+            lines.add("65.39.197.164 - - [" + TIME_FORMAT.format(start.plusHours(hour))
+                + " +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian APT-HTTP/1.3\"");
+        }
+        return lines;
+    }
+}
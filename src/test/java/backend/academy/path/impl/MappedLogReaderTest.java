@@ -0,0 +1,101 @@
+package backend.academy.path.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MappedLogReaderTest {
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "first\nsecond\nthird\n",
+        "first\nsecond\nthird",
+        "first\r\nsecond\rthird\n\nfifth\r\n",
+        "\n\n\n",
+        "",
+        "тест\nlog ✓ line\n"
+    })
+    @DisplayName("Ensure the lines are the same as the lines read by Files.lines")
+    void ensureLinesAreSameAsFilesLines(String content) throws IOException {
+        Path file = tempDir.resolve("log.txt");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+
+        List<String> actual;
+        try (Stream<String> lines = MappedLogReader.lines(file)) {
+            actual = lines.toList();
+        }
+
+        assertEquals(Files.readAllLines(file), actual);
+    }
+
+    @Test
+    @DisplayName("Ensure the file split into chunks gives all the lines in the original order")
+    void ensureChunksGiveAllLinesInOrder() throws IOException {
+        Path file = tempDir.resolve("log.txt");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            content.append("line number ").append(i).append(i % 7 == 0 ? "\r\n" : "\n");
+        }
+        Files.writeString(file, content);
+
+        List<String> actual;
+        try (Stream<String> lines = MappedLogReader.lines(file, 64)) {
+            actual = lines.parallel().toList();
+        }
+
+        assertEquals(Files.readAllLines(file), actual);
+    }
+
+    @Test
+    @DisplayName("Ensure the lines of the chunks are counted in parallel correctly")
+    void ensureLinesAreCountedInParallel() throws IOException {
+        Path file = tempDir.resolve("log.txt");
+        Files.write(file, Stream.generate(() -> "x".repeat(100)).limit(50_000).toList());
+
+        long actual;
+        try (Stream<String> lines = MappedLogReader.lines(file, 1024)) {
+            actual = lines.parallel().filter(line -> line.length() == 100).count();
+        }
+
+        assertEquals(50_000, actual);
+    }
+
+    @Test
+    @DisplayName("Ensure the part of the file after the last complete line is read separately")
+    void ensurePartAfterLastCompleteLineIsReadSeparately() throws IOException {
+        Path file = tempDir.resolve("log.txt");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            content.append("line number ").append(i).append('\n');
+        }
+        content.append("incomplete");
+        Files.writeString(file, content);
+        long size = Files.size(file);
+
+        long end = MappedLogReader.completeLinesEnd(file, 0, size);
+        List<String> complete;
+        List<String> rest;
+        try (Stream<String> first = MappedLogReader.lines(file, 0, end);
+             Stream<String> second = MappedLogReader.lines(file, end, size)) {
+            complete = first.toList();
+            rest = second.toList();
+        }
+
+        assertEquals(size - "incomplete".length(), end);
+        assertEquals(end, MappedLogReader.completeLinesEnd(file, end - 1, end));
+        assertEquals(size, MappedLogReader.completeLinesEnd(file, size, size));
+        assertEquals(20_000, complete.size());
+        assertEquals(List.of("incomplete"), rest);
+    }
+}
@@ -0,0 +1,133 @@
+package backend.academy.path.impl;
+
+import backend.academy.filter.impl.LogFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeIndexTest {
+    private static final LocalDateTime START = LocalDateTime.of(2015, 5, 1, 0, 0);
+    private static final DateTimeFormatter TIME_FORMAT =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss", Locale.ENGLISH);
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource(value = {
+        "2015-05-10, 2015-05-10",
+        "2015-05-01, 2015-05-01",
+        "2015-05-30, 2015-06-10",
+        "2015-04-01, 2015-04-30",
+        "2015-06-01, ",
+        ", 2015-05-02"
+    })
+    @DisplayName("Ensure only the part of the file containing the date range is read")
+    void ensureOnlyPartOfFileIsRead(LocalDate fromDate, LocalDate toDate) throws IOException {
+        Path file = tempDir.resolve("access.log");
+        Files.write(file, lines(0, 30 * 24 * 60));
+
+        List<String> actual = read(file, fromDate, toDate);
+
+        assertEquals(filter(Files.readAllLines(file), fromDate, toDate), filter(actual, fromDate, toDate));
+        assertTrue(actual.size() <= filter(actual, fromDate, toDate).size() + 2 * BLOCK_LINES);
+        assertTrue(Files.exists(TimeIndex.indexPath(file, indexDirectory())));
+    }
+
+    @Test
+    @DisplayName("Ensure the appended lines are indexed and the index of the rotated file is built again")
+    void ensureIndexFollowsFileChanges() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        LocalDate day = LocalDate.of(2015, 5, 20);
+        Files.write(file, lines(0, 10 * 24 * 60));
+        long indexedEnd = TimeIndex.of(file, indexDirectory()).indexedEnd();
+
+        Files.write(file, lines(10 * 24 * 60, 25 * 24 * 60), StandardOpenOption.APPEND);
+        assertTrue(TimeIndex.of(file, indexDirectory()).indexedEnd() > indexedEnd);
+        assertEquals(filter(Files.readAllLines(file), day, day), filter(read(file, day, day), day, day));
+
+        Files.write(file, lines(15 * 24 * 60, 22 * 24 * 60));
+        assertEquals(Files.size(file), TimeIndex.of(file, indexDirectory()).indexedEnd());
+        assertEquals(filter(Files.readAllLines(file), day, day), filter(read(file, day, day), day, day));
+    }
+
+    @Test
+    @DisplayName("Ensure the block containing the line without the time is always read")
+    void ensureLineWithoutTimeIsRead() throws IOException {
+        Path file = tempDir.resolve("access.log");
+        List<String> lines = lines(0, 10 * 24 * 60);
+        lines.set(5 * 24 * 60, "broken line");
+        Files.write(file, lines);
+        LocalDate day = LocalDate.of(2015, 5, 9);
+
+        assertTrue(read(file, day, day).contains("broken line"));
+    }
+
+    @Test
+    @DisplayName("Ensure the index is written only into the index directory and counts the lines")
+    void ensureIndexIsWrittenIntoIndexDirectory() throws IOException {
+        Path logs = Files.createDirectories(tempDir.resolve("logs"));
+        Path file = logs.resolve("access.log");
+        Files.write(file, lines(0, 10 * 24 * 60));
+        Files.write(file, List.of("broken line"), StandardOpenOption.APPEND);
+        Files.writeString(file, "incomplete line", StandardOpenOption.APPEND);
+
+        TimeIndex index = TimeIndex.of(file, indexDirectory());
+
+        assertEquals(10 * 24 * 60 + 1, index.lines());
+        assertEquals(Long.MIN_VALUE, index.minTime());
+        assertEquals(Long.MAX_VALUE, index.maxTime());
+        assertEquals(Files.size(file) - "incomplete line".length(), index.indexedEnd());
+        try (Stream<Path> files = Files.list(logs)) {
+            assertEquals(List.of(file), files.toList());
+        }
+        assertTrue(Files.exists(TimeIndex.indexPath(file, indexDirectory())));
+    }
+
+    private Path indexDirectory() {
+        return tempDir.resolve("indexes");
+    }
+
+    private List<String> read(Path file, LocalDate fromDate, LocalDate toDate) throws IOException {
+        try (Stream<String> lines = new LocalPathHandler(fromDate, toDate, indexDirectory()).read(file)) {
+            return lines.toList();
+        }
+    }
+
+    private static List<String> filter(List<String> lines, LocalDate fromDate, LocalDate toDate) {
+        Predicate<String> lineFilter = new LogFilter().compileLine(fromDate, toDate, null, null);
+        return lines.stream().filter(lineFilter).toList();
+    }
+
+    /**
+     * Creates the lines written once a minute, every two neighbouring lines are swapped
+     * (the logs are almost sorted)
+     */
+    private static List<String> lines(int fromMinute, int toMinute) {
+        List<String> lines = new ArrayList<>();
+        for (int minute = fromMinute; minute < toMinute; minute++) {
+            int written = minute % 2 == 0 ? minute + 1 : minute - 1;
+            lines.add("65.39.197.164 - - [" + TIME_FORMAT.format(START.plusMinutes(written))
+                + " +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian APT-HTTP/1.3\"");
+        }
+        return lines;
+    }
+
+    private static final int BLOCK_LINES = 64 * 1024 / 100;
+}
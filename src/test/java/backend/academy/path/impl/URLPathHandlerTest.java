@@ -1,16 +1,105 @@
 package backend.academy.path.impl;
 
+import backend.academy.log.LogReport;
+import backend.academy.parser.impl.LogParser;
 import backend.academy.path.PathHandler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import java.net.URISyntaxException;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class URLPathHandlerTest {
     private final PathHandler pathHandler = new URLPathHandler();
     private final String path =
         "https://raw.githubusercontent.com/elastic/examples/master/Common%20Data%20Formats/nginx_logs/nginx_logs";
+    private final AtomicReference<String> contentType = new AtomicReference<>();
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private final AtomicInteger openRangeRequests = new AtomicInteger();
+    private HttpServer server;
+    private long servedLines;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/access.log", exchange -> {
+            contentType.set(exchange.getRequestHeaders().getFirst("Content-type"));
+            exchange.sendResponseHeaders(200, 0);
+            try (BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+                for (long i = 0; i < servedLines; i++) {
+                    writer.write(logLine(i));
+                    writer.write('\n');
+                }
+            }
+        });
+        server.createContext("/ranged.log", exchange -> serveRanges(exchange, rangedContent()));
+        server.createContext("/compressed.log", exchange -> serveRanges(exchange, gzip(rangedContent())));
+        server.createContext("/plain.log", exchange -> {
+            byte[] content = rangedContent();
+            if (exchange.getRequestHeaders().containsKey("Range")) {
+                rangeRequests.incrementAndGet();
+            }
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                exchange.sendResponseHeaders(200, content.length);
+                exchange.getResponseBody().write(content);
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    private void serveRanges(HttpExchange exchange, byte[] content) throws IOException {
+        exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Content-Length", String.valueOf(content.length));
+            exchange.sendResponseHeaders(200, -1);
+        } else if (range != null) {
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            int from = Integer.parseInt(bounds[0]);
+            int to = bounds.length > 1 ? Integer.parseInt(bounds[1]) + 1 : content.length;
+            if (bounds.length == 1) {
+                openRangeRequests.incrementAndGet();
+            } else if (!"bytes=0-1".equals(range)) {
+                rangeRequests.incrementAndGet();
+            }
+            exchange.sendResponseHeaders(206, to - from);
+            exchange.getResponseBody().write(content, from, to - from);
+        } else {
+            exchange.sendResponseHeaders(200, content.length);
+            exchange.getResponseBody().write(content);
+        }
+        exchange.close();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
 
     @Test
     @DisplayName("Ensure handlePath returns correct filename")
@@ -40,4 +129,132 @@ class URLPathHandlerTest {
 
         assertThrows(Exception.class, () -> pathHandler.handlePath(path));
     }
+
+    @Test
+    @DisplayName("Ensure the response body larger than the heap is streamed line by line")
+    void ensureBodyLargerThanHeapIsStreamed() throws Exception {
+        servedLines = Runtime.getRuntime().maxMemory() / logLine(0).length() + 1;
+
+        List<Map.Entry<String, Stream<String>>> result = pathHandler.handlePath(serverUrl());
+        LogReport actual = new LogParser(4).parse(result, null, null, null, null);
+
+        assertEquals(servedLines, actual.requestsNumber());
+        assertEquals(3, actual.requestedResources().size());
+        assertNull(contentType.get());
+    }
+
+    @Test
+    @DisplayName("Ensure handlePath returns an empty list if the file is not found")
+    void ensureHandlePathReturnsEmptyListIfNotFound() throws Exception {
+        String path = "http://localhost:" + server.getAddress().getPort() + "/missing.log";
+
+        assertTrue(pathHandler.handlePath(path).isEmpty());
+    }
+
+    private String serverUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/access.log";
+    }
+
+    private static String logLine(long number) {
+        return "93.180.71." + (number % 256) + " - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_"
+            + (number % 3) + " HTTP/1.1\" 304 0 \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"";
+    }
+
+    @Test
+    @DisplayName("Ensure the file is downloaded in parts if the server supports the range requests")
+    void ensureFileIsDownloadedInPartsIfRangesSupported() throws Exception {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/ranged.log";
+        List<String> expected = new String(rangedContent(), StandardCharsets.UTF_8).lines().toList();
+
+        List<String> actual;
+        try (Stream<String> lines = new URLPathHandler(8, 4096).handlePath(url).getFirst().getValue()) {
+            actual = lines.parallel().toList();
+        }
+
+        assertEquals(List.of(8, 0), List.of(rangeRequests.get(), openRangeRequests.get()));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Ensure the rest of the line longer than the slack is requested once and the bytes are counted")
+    void ensureBytesOfPartsAreCounted() {
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/ranged.log");
+        byte[] content = rangedContent();
+        List<String> expected = new String(content, StandardCharsets.UTF_8).lines().toList();
+
+        try (HttpClient httpClient = HttpClient.newHttpClient()) {
+            RangedLogDownloader downloader = new RangedLogDownloader(httpClient, uri, content.length, 7, 16);
+            try (Stream<String> lines = downloader.lines()) {
+                assertEquals(expected, lines.toList());
+            }
+
+            assertEquals(List.of(7, 6), List.of(rangeRequests.get(), openRangeRequests.get()));
+            assertTrue(downloader.bytesRead() >= content.length);
+            assertTrue(downloader.bytesRead() <= content.length + 8 * logLine(2000).length());
+        }
+    }
+
+    @Test
+    @DisplayName("Ensure the report of the file downloaded in parts is the same as the report of the whole file")
+    void ensureReportOfFileDownloadedInPartsIsSame() throws Exception {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/ranged.log";
+
+        LogReport expected = new LogParser(1).parse(new URLPathHandler().handlePath(url), null, null, null, null);
+        LogReport actual =
+            new LogParser(4).parse(new URLPathHandler(8, 4096).handlePath(url), null, null, null, null);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Ensure the file is downloaded by a single request if the server does not support ranges")
+    void ensureFileIsDownloadedBySingleRequestWithoutRanges() throws Exception {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/plain.log";
+        List<String> expected = new String(rangedContent(), StandardCharsets.UTF_8).lines().toList();
+
+        List<String> actual;
+        try (Stream<String> lines = new URLPathHandler(8, 4096).handlePath(url).getFirst().getValue()) {
+            actual = lines.parallel().toList();
+        }
+
+        assertEquals(0, rangeRequests.get());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("Ensure the number of the connections must be positive")
+    void ensureConnectionsMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new URLPathHandler(0));
+    }
+
+    @Test
+    @DisplayName("Ensure the compressed file is decompressed and downloaded by a single request")
+    void ensureCompressedFileIsDecompressed() throws Exception {
+        String url = "http://localhost:" + server.getAddress().getPort() + "/compressed.log";
+        List<String> expected = new String(rangedContent(), StandardCharsets.UTF_8).lines().toList();
+
+        List<String> actual;
+        try (Stream<String> lines = new URLPathHandler(8, 64).handlePath(url).getFirst().getValue()) {
+            actual = lines.parallel().toList();
+        }
+
+        assertEquals(List.of(0, 0), List.of(rangeRequests.get(), openRangeRequests.get()));
+        assertEquals(expected, actual);
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] rangedContent() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            content.append(logLine(i)).append(i % 10 == 0 ? "\r\n" : "\n");
+        }
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
 }
@@ -0,0 +1,78 @@
+package backend.academy.stats;
+
+import backend.academy.format.FormatHandler;
+import backend.academy.format.impl.MarkdownFormatter;
+import backend.academy.log.LogReport;
+import backend.academy.parser.impl.LogParser;
+import backend.academy.path.impl.LocalPathHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrEventsTest {
+    @Test
+    @DisplayName("Ensure the file, chunk, filter and report events are recorded")
+    void ensureEventsAreRecorded() throws Exception {
+        Map<String, List<RecordedEvent>> events = new ConcurrentHashMap<>();
+        LogReport logReport;
+        try (RecordingStream recording = new RecordingStream()) {
+            for (String name : List.of(FileReadEvent.NAME, ChunkParseEvent.NAME, FilterSelectivityEvent.NAME,
+                ReportFormatEvent.NAME)) {
+                recording.enable(name).withThreshold(Duration.ZERO);
+                recording.onEvent(name,
+                    event -> events.computeIfAbsent(name, ignored -> new CopyOnWriteArrayList<>()).add(event));
+            }
+            recording.startAsync();
+
+            List<Map.Entry<String, Stream<String>>> logs = new LocalPathHandler().handlePath("logs/log.txt");
+            logReport = new LogParser().parse(logs, null, null, "agent", "^Debian.*$");
+            new FormatHandler(new MarkdownFormatter()).formatReport(logReport);
+
+            recording.stop();
+        }
+
+        RecordedEvent fileRead = events.get(FileReadEvent.NAME).getFirst();
+        assertTrue(fileRead.getString("source").endsWith(Path.of("logs", "log.txt").toString()));
+        assertEquals(Files.size(Path.of("src/main/resources/logs/log.txt")), fileRead.getLong("bytes"));
+        assertTrue(fileRead.getDuration().toNanos() > 0);
+
+        RecordedEvent chunkParse = events.get(ChunkParseEvent.NAME).getFirst();
+        assertEquals(fileRead.getLong("lines"), chunkParse.getLong("lines"));
+        assertEquals(0, chunkParse.getLong("failures"));
+        assertNotNull(chunkParse.getThread());
+
+        RecordedEvent selectivity = events.get(FilterSelectivityEvent.NAME).getFirst();
+        assertEquals("agent", selectivity.getString("filterField"));
+        assertEquals(fileRead.getLong("lines"), selectivity.getLong("linesRead"));
+        assertEquals((double) logReport.requestsNumber() / selectivity.getLong("linesRead"),
+            selectivity.getDouble("selectivity"), 1e-9);
+
+        RecordedEvent reportFormat = events.get(ReportFormatEvent.NAME).getFirst();
+        assertEquals("MarkdownFormatter", reportFormat.getString("formatter"));
+        assertEquals(logReport.requestsNumber(), reportFormat.getLong("requests"));
+    }
+
+    @Test
+    @DisplayName("Ensure the bytes read are added to the total when the file event is not recorded")
+    void ensureBytesReadAreAddedWithoutRecording() {
+        LongAdder totalBytesRead = new LongAdder();
+        try (Stream<String> lines = FileReadEvent.track("file", Stream.of("line"), () -> 42, totalBytesRead)) {
+            assertEquals(1, lines.count());
+        }
+
+        assertEquals(42, totalBytesRead.sum());
+    }
+}
@@ -0,0 +1,73 @@
+package backend.academy.stats;
+
+import backend.academy.parser.impl.LineCounters;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineStatisticsTest {
+    @Test
+    @DisplayName("Ensure the time of the stages is measured and summed")
+    void ensureStageTimeIsMeasured() throws InterruptedException {
+        PipelineStatistics statistics = new PipelineStatistics();
+
+        String result = statistics.measure(Stage.OUTPUT, () -> "report");
+        statistics.measure(Stage.PARSE, () -> {
+            Thread.sleep(20);
+            return null;
+        });
+        statistics.measure(Stage.PARSE, () -> {
+            Thread.sleep(20);
+            return null;
+        });
+
+        List<StageStatistics> stages = statistics.summary().stages();
+        assertEquals("report", result);
+        assertEquals(List.of(Stage.PARSE, Stage.OUTPUT), stages.stream().map(StageStatistics::stage).toList());
+        assertTrue(stages.getFirst().wallNanos() >= 40_000_000);
+        assertTrue(stages.getFirst().cpuNanos() >= 0);
+    }
+
+    @Test
+    @DisplayName("Ensure the time of the failed stage is counted and the exception is thrown")
+    void ensureFailedStageIsCounted() {
+        PipelineStatistics statistics = new PipelineStatistics();
+
+        assertThrows(IOException.class, () -> statistics.measure(Stage.FILES, () -> {
+            throw new IOException("missing file");
+        }));
+
+        assertEquals(Stage.FILES, statistics.summary().stages().getFirst().stage());
+    }
+
+    @Test
+    @DisplayName("Ensure the statistics are formatted as the text and as JSON")
+    void ensureStatisticsAreFormatted() throws IOException {
+        PipelineStatistics statistics = new PipelineStatistics();
+        statistics.lineCounters(new LineCounters(10, 5, 11, 1, 3));
+        statistics.bytesRead(1_000);
+        statistics.stepStatistics(List.of(new ParseStepStatistics(ParseStep.TOKENIZE, 5_000_000)));
+        statistics.measure(Stage.OUTPUT, () -> null);
+
+        String text = statistics.format();
+        JsonNode json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(statistics.summary()));
+
+        assertTrue(text.contains("Прочитано строк: 10 (1000 байт)"));
+        assertTrue(text.contains("Восстановлено строк из снимков: 5"));
+        assertTrue(text.contains("Разметка строк: 5 мс"));
+        assertTrue(text.contains("Ошибок разбора: 1"));
+        assertTrue(text.contains("Форматирование и вывод отчёта: "));
+        assertTrue(statistics.summary().heapPoolPeaksBytes() > 0);
+        assertEquals(11, json.get("lineCounters").get("linesParsed").asLong());
+        assertEquals(1_000, json.get("bytesRead").asLong());
+        assertEquals("OUTPUT", json.get("stages").get(0).get("stage").asText());
+        assertEquals("TOKENIZE", json.get("parseSteps").get(0).get("step").asText());
+        assertTrue(json.get("heapPoolPeaksBytes").asLong() > 0);
+    }
+}
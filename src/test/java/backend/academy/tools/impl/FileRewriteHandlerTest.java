@@ -0,0 +1,32 @@
+package backend.academy.tools.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileRewriteHandlerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Ensure every write replaces the whole file and leaves no temporary files")
+    void ensureWriteReplacesFile() throws IOException {
+        Path file = tempDir.resolve("report.md");
+        FileRewriteHandler handler = new FileRewriteHandler(new ByteArrayInputStream(new byte[0]), file);
+
+        handler.write("first report\nwith two lines\n");
+        handler.write(output -> output.append("second report\n"));
+
+        assertEquals("second report\n", Files.readString(file));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+}
@@ -5,7 +5,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -52,6 +54,17 @@ class IOHandlerImplTest {
         assertEquals("data to output", byteArrayOutputStream.toString());
     }
 
+    @Test
+    @DisplayName("Ensure the data written piece by piece reaches the output")
+    void ensureWriteContentWorksCorrectly() throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        IOHandlerImpl = new IOHandlerImpl(System.in, byteArrayOutputStream);
+
+        IOHandlerImpl.write(output -> output.append("данные").append(' ').append("to output", 0, 2));
+
+        assertEquals("данные to", byteArrayOutputStream.toString(StandardCharsets.UTF_8));
+    }
+
     @Test
     @DisplayName("Ensure the writeMessage method works correctly for files")
     void ensureWriteMessageWorksCorrectlyForFiles() throws FileNotFoundException {